@@ -1,348 +1,1184 @@
-/**
- * @author Michelle Nguyen
- * @version 2025-04-07
- */
-
-
-/* IMPORT STATEMENTS */
-import java.io.File;
-import java.io.FileNotFoundException;
-import java.io.PrintWriter;
-import java.util.ArrayList;
-import java.util.Date;
-import java.util.Scanner;
-
-
-public class Database {
-	/* VARIABLES */
-	private static ArrayList<StudySet> sets;
-	private static ArrayList<Note> notes;
-	
-	/* GET METHODS*/
-	public static ArrayList<StudySet> getSets() { return sets; }
-	public static ArrayList<Note> getNotes() { return notes; }
-	
-	
-	/* STUDYSET METHODS */
-	
-	
-	/**
-	 * Loads set data from the database
-	 * @throws FileNotFoundException
-	 */
-	@SuppressWarnings("deprecation")
-	public static void loadSets() throws FileNotFoundException {
-		sets = new ArrayList<>();
-		File setData = new File("study_set_database");
-		Scanner in = new Scanner(setData);
-		
-		String title = "";
-		String description = "";
-		ArrayList<Flashcard> flashcards = new ArrayList<>();
-		Date dateCreated;
-		Date dateAccessed;
-	
-		while (in.hasNextLine()) {
-			String line = in.nextLine();
-			
-			// Indicates new set
-			if (line.equals("Title;Description;Flashcards;DateCreated;DateAccessed")) {
-				// Get details of set
-				title = in.nextLine();
-				description = in.nextLine();
-				
-				line = in.nextLine();	// Skip "FlashcardStart:"
-				line = in.nextLine();	// First term
-				
-				// Get all flashcards
-				while (!line.equals("FlashcardEnd:")) {
-					// Get details of a flashcard
-					String term = line;
-					String definition = in.nextLine();
-					int priority = Integer.valueOf(in.nextLine());
-					
-					// Create flashcard, and add to set
-					Flashcard flashcard = new Flashcard(term, definition, priority);
-					flashcards.add(flashcard);
-			
-					line = in.nextLine();
-				}
-				
-				// Get dates
-				dateCreated = new Date(in.nextLine());
-				dateAccessed = new Date(in.nextLine());
-				
-				// Create set, and add to database
-				StudySet set = new StudySet(title, description, flashcards, dateCreated, dateAccessed);
-				sets.add(set);
-				
-				// Reset variable
-				flashcards = new ArrayList<>();
-			}
-		}
-		in.close();
-		
-	}
-	
-	
-	/**
-	 * Updates the set database
-	 * @throws FileNotFoundException
-	 */
-	public static void updateSetDatabase() throws FileNotFoundException {
-		File setData = new File("study_set_database");
-		PrintWriter writer = new PrintWriter(setData);
-		for (StudySet s : sets) {
-			writer.print("Title;Description;Flashcards;DateCreated;DateAccessed\n");
-			writer.print(s.getTitle() + "\n");
-			writer.print(s.getDescription() + "\n");
-			writer.print("FlashcardStart:\n");
-			for (Flashcard f : s.getFlashcards()) {
-				writer.print(f.getTerm() + "\n");
-				writer.print(f.getDefinition() + "\n");
-				writer.print(f.getPriority() + "\n");
-			}
-			writer.print("FlashcardEnd:\n");
-			writer.print(s.getDateCreated() + "\n");
-			writer.print(s.getDateAccessed() + "\n");
-			writer.print("\n");
-		}
-		writer.close();
-	}
-	
-	
-	/**
-	 * Checks if a flashcard is valid, ie. has a term and definition
-	 * @param term the term to check
-	 * @param definition the definition to check
-	 * @return "Valid" if both params are non-empty, "Missing .." otherwise
-	 */
-	public static String validFlashcard(String term, String definition) {
-		if (term.isBlank()) {
-			return "Missing Term";
-		}
-		else if (definition.isBlank()) {
-			return "Missing Definition";
-		}
-		else {
-			return "Valid";
-		}
-	}
-	
-	
-	// For study set creation, editing flashcard
-	public static void editFlashcard(Flashcard flashcard, String term, String definition, int priority) {
-		if (!term.equals(flashcard.getTerm())) { flashcard.updateTerm(term); }
-		if (!definition.equals(flashcard.getDefinition())) { flashcard.updateDefinition(definition); }
-		if (priority != flashcard.getPriority()) { flashcard.updatePriority(priority); }
-	}
-	
-	
-	/**
-	 * Adds a set to the database if valid, ie. title and 0 < #flashcards
-	 * @param title the title of the new set
-	 * @param description the description of the new set
-	 * @param flashcards the set of flashcards for the new set
-	 * @return "Successful" if all params are valid
-	 * @throws FileNotFoundException 
-	 */
-	public static String addSet(String title, String description, ArrayList<Flashcard> flashcards) throws FileNotFoundException {
-		if (title.isBlank()) { 
-			return "Missing Title"; 
-		}
-		else if (flashcards.isEmpty()) { 
-			return "Need at least 1 flashcard"; 
-		}
-		else {
-			StudySet set = new StudySet(title, description, flashcards);
-			sets.add(set);
-			updateSetDatabase();
-			return "Successful";
-		}
-	}
-	
-	
-	/**
-	 * Edits a selected set
-	 * @param set the set to edit
-	 * @param title the title
-	 * @param description the description
-	 * @param flashcards the set of flashcards
-	 * @return "Successful" if edits are valid, else, error messages
-	 * @throws FileNotFoundException
-	 */
-	public static String editSet(StudySet set, String title, String description, ArrayList<Flashcard> flashcards) throws FileNotFoundException {
-		if (title.isBlank()) { 
-			return "Missing Title"; 
-		}
-		else if (flashcards.isEmpty()) {
-			return "Need at least 1 flashcard";
-		}
-		else {
-			if (!title.equals(set.getTitle())) { set.updateTitle(title); }
-			if (!description.equals(set.getDescription())) { set.updateDescription(description); }
-			updateSetDatabase();
-			return "Successful";
-		}
-	}
-	
-	
-	/**
-	 * Removes a set from the database
-	 * @param set the set to delete
-	 * @return "Successful"
-	 * @throws FileNotFoundException
-	 */
-	public static String deleteSet(StudySet set) throws FileNotFoundException {
-		sets.remove(set);
-		updateSetDatabase();
-		return "Successful";
-	}
-	
-	
-	/* NOTE METHODS */
-	
-	
-	/**
-	 * Loads note data from database
-	 * @throws FileNotFoundException
-	 */
-	@SuppressWarnings("deprecation")
-	public static void loadNotes() throws FileNotFoundException {
-		notes = new ArrayList<>();
-		File noteData = new File("note_database");
-		Scanner in = new Scanner(noteData);
-		
-		String title = "";
-		String description = "";
-		Date dateCreated;
-		Date dateAccessed;
-		
-		while (in.hasNextLine()) {
-			String line = in.nextLine();
-			
-			// Indicates new note
-			if (line.equals("Title;Description;Text;DateCreated;DateAccessed")) {
-				// Get details of note
-				title = in.nextLine();
-				description = in.nextLine();
-				
-				line = in.nextLine();	// Skip "TextStart:"
-				line = in.nextLine();	// First line of text
-				
-				String text = "";
-				
-				// Get text
-				while (!line.equals("TextEnd:")) {
-					text += line + "\n";
-					line = in.nextLine();
-				}
-				
-				// Remove the last \n
-				text = text.substring(0, text.length() - 1);
-				
-				// Get dates
-				dateCreated = new Date(in.nextLine());
-				dateAccessed = new Date(in.nextLine());
-				
-				// Create note, and add to database
-				Note note = new Note(title, description, text, dateCreated, dateAccessed);
-				notes.add(note);
-				
-				// Reset variables
-				description = "";
-			}
-		}
-		in.close();
-	}
-	
-	
-	/**
-	 * Updates the note database
-	 * @throws FileNotFoundException
-	 */
-	public static void updateNoteDatabase() throws FileNotFoundException {
-		File noteData = new File("note_database");
-		PrintWriter writer = new PrintWriter(noteData);
-		for (Note n : notes) {
-			writer.print("Title;Description;Text;DateCreated;DateAccessed\n");
-			writer.print(n.getTitle() + "\n");
-			writer.print(n.getDescription() + "\n");
-			writer.print("TextStart:\n" + n.getText() + "\nTextEnd:\n");
-			writer.print(n.getDateCreated() + "\n");
-			writer.print(n.getDateAccessed() + "\n");
-			writer.print("\n");
-		}
-		writer.close();
-	}
-	
-	
-	/**
-	 * Adds a note to the database if valid, ie. title
-	 * @param title the title of the new note
-	 * @param description the description of the new note
-	 * @param text the text of the new note
-	 * @return "Successful" if title is non-empty, "Missing Title" otherwise
-	 * @throws FileNotFoundException
-	 */
-	public static String addNote(String title, String description, String text) throws FileNotFoundException {
-		if (title.isBlank()) {
-			return "Missing Title";
-		}
-		else {
-			Note note = new Note(title, description, text);
-			notes.add(note);
-			updateNoteDatabase();
-			return "Successful";
-		}
-	}
-	
-	
-	/**
-	 * Edits a note in the database if edits are valid, ie. non-empty title
-	 * @param note the note to edit
-	 * @param title the new title of the note
-	 * @param description the new description of the note
-	 * @param text the new text of the note
-	 * @return "Successful" if title is non-empty, "Missing Title" otherwise
-	 * @throws FileNotFoundException
-	 */
-	public static String editNote(Note note, String title, String description, String text) throws FileNotFoundException {
-		if (title.isBlank()) {
-			return "Missing Title";
-		}
-		else {
-			// Only call update methods if value is DIFFERENT from the original value
-			if (!title.equals(note.getTitle())) note.updateTitle(title);
-			if (!description.equals(note.getDescription())) note.updateDescription(description);
-			if (!text.equals(note.getText())) note.updateText(text);
-			updateNoteDatabase();
-			return "Successful";
-		}
-	}
-	
-	
-	/**
-	 * Removes a note from the database
-	 * @param note the note to delete
-	 * @return "Successful"
-	 * @throws FileNotFoundException
-	 */
-	public static String deleteNote(Note note) throws FileNotFoundException {
-		notes.remove(note);
-		updateNoteDatabase();
-		return "Successful";
-	}
-	
-	
-	/* PRINT METHODS FOR DEBUGGING PURPOSES */
-	
-	
-	public static void printNotes() {
-		for (Note n : notes) {
-			System.out.println(n);
-			System.out.println();	// Add space between notes
-		}
-	}
-
-}
+/**
+ * @author Michelle Nguyen
+ * @version 2026-10-17
+ */
+
+
+/* IMPORT STATEMENTS */
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+
+public class Database {
+	/* VARIABLES */
+	static final String SET_HEADER = "Title;Description;Flashcards;DateCreated;DateAccessed;Ids";
+	static final String LEGACY_SET_HEADER = "Title;Description;Flashcards;DateCreated;DateAccessed";
+	static final String NOTE_HEADER = "Title;Description;Text;DateCreated;DateAccessed;WordCount;Id";
+	static final String WORD_COUNT_NOTE_HEADER = "Title;Description;Text;DateCreated;DateAccessed;WordCount";
+	static final String LEGACY_NOTE_HEADER = "Title;Description;Text;DateCreated;DateAccessed";
+	static final String CHECKSUM_LINE = "Checksum:";
+	// Files start with a version line; files without one are version 1, with dates written as Date.toString() text
+	static final String VERSION_LINE = "FormatVersion:";
+	static final int FORMAT_VERSION = 3;	// Sets, flashcards and notes are written with their ids
+	// Same pattern as Date.toString(), eg. "Wed Apr 09 07:40:42 EDT 2025"
+	private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("EEE MMM dd HH:mm:ss zzz yyyy", Locale.US);
+	private static final String MONTHS = "JanFebMarAprMayJunJulAugSepOctNovDec";
+	private static final ConcurrentHashMap<String, ZoneId> dateZones = new ConcurrentHashMap<>();
+	// Where sets and notes are kept, eg. -Dfsa.storage=jdbc:h2:./fsa for an SQL database
+	private static final StorageBackend storage = openStorage(System.getProperty("fsa.storage", ""));
+	// Sets and notes as snapshots, so any thread can read them while the application thread changes them
+	private static final SnapshotStore<StudySet> sets = new SnapshotStore<>(StudySet::getId);
+	private static final SnapshotStore<Note> notes = new SnapshotStore<>(Note::getId);
+	// Loaded on background threads, the stores are empty until loading finishes
+	private static volatile boolean setsLoaded;
+	private static volatile boolean notesLoaded;
+	// Full-text search over sets and notes, saved next to the database so it is not rebuilt on every start
+	private static final SearchIndex<StudySet> setIndex = new SearchIndex<>();
+	private static final SearchIndex<Note> noteIndex = new SearchIndex<>();
+	private static final File SET_INDEX = new File("search_index.sets");
+	private static final File NOTE_INDEX = new File("search_index.notes");
+	private static final int SEARCH_LIMIT = 500;	// Most results shown for a search
+	// Terms of every flashcard, to complete terms while creating flashcards
+	private static final TermTrie<StudySet> terms = new TermTrie<>();
+	// Flashcards as they were loaded, until the search for near duplicates has run over them
+	private static volatile ArrayList<DuplicateFinder.Card> loadedCards;
+	private static volatile List<List<DuplicateFinder.Card>> duplicates = new ArrayList<>();
+	// Sets and notes in date order, for the most recent ones without sorting every set or note
+	private static final DateIndex<StudySet> setsByAccessed = new DateIndex<>(StudySet::getDateAccessedMillis);
+	private static final DateIndex<StudySet> setsByCreated = new DateIndex<>(StudySet::getDateCreatedMillis);
+	private static final DateIndex<Note> notesByAccessed = new DateIndex<>(Note::getDateAccessedMillis);
+	private static final DateIndex<Note> notesByCreated = new DateIndex<>(Note::getDateCreatedMillis);
+	
+	/* GET METHODS*/
+	public static List<StudySet> getSets() { return sets.getItems(); }
+	public static List<Note> getNotes() { return notes.getItems(); }
+	public static SnapshotStore.Snapshot<StudySet> getSetSnapshot() { return sets.snapshot(); }
+	public static SnapshotStore.Snapshot<Note> getNoteSnapshot() { return notes.snapshot(); }
+	public static StudySet getSet(long id) { return sets.get(id); }
+	public static Note getNote(long id) { return notes.get(id); }
+	
+	
+	/**
+	 * Adds a listener told of every change to the sets, as it is made, eg. to keep a table of
+	 * every set up to date without showing every set again
+	 * @param listener the listener, called on the thread that made the change
+	 */
+	public static void addSetListener(SnapshotStore.Listener<StudySet> listener) {
+		sets.addListener(listener);
+	}
+	
+	
+	/**
+	 * Adds a listener told of every change to the notes, like addSetListener()
+	 * @param listener the listener, called on the thread that made the change
+	 */
+	public static void addNoteListener(SnapshotStore.Listener<Note> listener) {
+		notes.addListener(listener);
+	}
+	
+	
+	/* STUDYSET METHODS */
+	
+	
+	/**
+	 * Loads set data from the database
+	 * @throws FileNotFoundException
+	 */
+	public static void loadSets() throws FileNotFoundException {
+		loadSets(batch -> { });
+	}
+	
+	
+	/**
+	 * Loads set data from the database, passing sets on as they are read so they can be shown
+	 * before loading finishes. getSets() returns the sets once this returns, as an unmodifiable
+	 * snapshot that later changes do not affect. The search index is
+	 * loaded with the sets, or rebuilt if the saved one does not match them, and the terms of every
+	 * flashcard are gathered for completion.
+	 * @param loaded called with each batch of sets in display order, on the loading thread
+	 * @throws FileNotFoundException
+	 */
+	public static void loadSets(Consumer<List<StudySet>> loaded) throws FileNotFoundException {
+		ArrayList<StudySet> loadedSets = storage.loadSets(loaded);
+		boolean indexLoaded = setIndex.load(SET_INDEX, storage.setsStamp(), loadedSets);
+		if (!indexLoaded) { setIndex.clear(); }
+		ArrayList<DuplicateFinder.Card> cards = new ArrayList<>();
+		LongMap<Flashcard> flashcardsById = new LongMap<>();
+		for (StudySet set : loadedSets) {
+			List<Flashcard> flashcards = set.readFlashcards();
+			for (Flashcard flashcard : flashcards) {
+				cards.add(new DuplicateFinder.Card(set, flashcard.getTerm(), flashcard.getDefinition()));
+				flashcardsById.put(flashcard.getId(), flashcard);
+			}
+			if (indexLoaded) {
+				terms.put(set, getTerms(flashcards));
+			}
+			else {
+				indexSet(set, flashcards);
+			}
+		}
+		terms.complete("", 0);	// Works out every completion now, instead of on the first keystroke
+		// Review schedules of flashcards deleted since, unless a set could not be read and its flashcards are not known
+		if (storage.loadedEverySet()) { ReviewScheduler.retain(flashcardsById); }
+		loadedCards = cards;
+		synchronized (sets.writeLock()) {
+			setsByAccessed.putAll(loadedSets);
+			setsByCreated.putAll(loadedSets);
+			sets.replaceAll(loadedSets);
+			setsLoaded = true;
+		}
+	}
+	
+	
+	/**
+	 * Finds the sets accessed since a date, straight from the database, eg. for sets accessed this week
+	 * @param since the earliest access date to include
+	 * @return the sets, separate from the ones returned by getSets()
+	 * @throws FileNotFoundException
+	 */
+	public static ArrayList<StudySet> findSetsAccessedSince(Date since) throws FileNotFoundException {
+		return storage.loadSetsAccessedSince(since);
+	}
+	
+	
+	/**
+	 * Reads the lines of one set record after its header line, and checks that the record is
+	 * complete and matches its checksum. A record that does not is copied to the quarantine file
+	 * and skipped. Set shards and the older set database and journal are all read through this
+	 * method, so they agree on which records exist.
+	 * @param in the reader, with its checksum reset before the header line
+	 * @param recordStart the position of the header line
+	 * @param hasIds true if the header was SET_HEADER, false if it was LEGACY_SET_HEADER
+	 * @param lines filled with the lines of the record, from title to ids; the ids line is empty
+	 * if the record has none
+	 * @param dates filled with the date created and date accessed
+	 * @param source the file being read, or null to skip without quarantining
+	 * @return true if the record is valid
+	 */
+	static boolean readSetRecord(DatabaseReader in, long recordStart, boolean hasIds, ArrayList<String> lines, Date[] dates, File source) {
+		lines.clear();
+		String reason;
+		try {
+			// Get details of set
+			lines.add(in.nextLine());	// Title
+			lines.add(in.nextLine());	// Description
+			String line = in.nextLine();
+			if (!line.equals("FlashcardStart:")) { throw new IllegalArgumentException("Missing FlashcardStart:"); }
+			lines.add(line);
+			
+			// Get all flashcards, checking each priority is a number
+			line = in.nextLine();
+			while (!line.equals("FlashcardEnd:")) {
+				lines.add(line);
+				lines.add(in.nextLine());
+				line = in.nextLine();
+				Integer.parseInt(line);
+				lines.add(line);
+				line = in.nextLine();
+			}
+			lines.add(line);
+			
+			// Get dates
+			line = in.nextLine();
+			dates[0] = parseDate(line);
+			lines.add(line);
+			line = in.nextLine();
+			dates[1] = parseDate(line);
+			lines.add(line);
+			
+			// Get ids, the set's followed by each flashcard's, so none of them is handed out again
+			line = hasIds ? in.nextLine() : "";
+			lines.add(line);
+			if (hasIds) {
+				long[] ids = parseIds(lines);
+				if (ids.length != countFlashcards(lines) + 1) { throw new IllegalArgumentException("Wrong number of ids"); }
+				for (long id : ids) {
+					IdAllocator.observe(id);
+				}
+			}
+			
+			if (in.isTerminated() && in.matchChecksum()) { return true; }
+			reason = "Checksum does not match";
+		}
+		catch (NoSuchElementException e) { reason = "Record is incomplete"; }
+		catch (IllegalArgumentException e) { reason = "Record is malformed"; }
+		
+		if (source != null) { quarantine(source, recordStart, in.position(), reason); }
+		
+		// Continue looking for sets from the line after this header
+		in.seek(recordStart);
+		in.nextLine();
+		return false;
+	}
+	
+	
+	/**
+	 * Creates a set from the lines read by readSetRecord
+	 * @param lines the lines of the record, from title to ids
+	 * @param dates the date created and date accessed
+	 * @return the set
+	 */
+	static StudySet parseSet(ArrayList<String> lines, Date[] dates) {
+		StudySet set = new StudySet(lines.get(0), lines.get(1), parseFlashcards(lines), dates[0], dates[1]);
+		parseSetId(set, lines);
+		return set;
+	}
+	
+	
+	/**
+	 * Gives a set the id saved in the lines read by readSetRecord, if they have one
+	 * @param set the set
+	 * @param lines the lines of the record, from title to ids
+	 */
+	static void parseSetId(StudySet set, ArrayList<String> lines) {
+		long[] ids = parseIds(lines);
+		if (ids.length > 0) { set.updateId(ids[0]); }
+	}
+	
+	
+	/**
+	 * Counts the flashcards in the lines read by readSetRecord, without creating them
+	 * @param lines the lines of the record, from title to ids
+	 * @return the number of flashcards
+	 */
+	static int countFlashcards(ArrayList<String> lines) {
+		// Title, description, "FlashcardStart:", "FlashcardEnd:", 2 dates and ids, and 3 lines per flashcard
+		return (lines.size() - 7) / 3;
+	}
+	
+	
+	/**
+	 * Creates the flashcards of a set from the lines read by readSetRecord
+	 * @param lines the lines of the record, from title to ids
+	 * @return the flashcards
+	 */
+	static ArrayList<Flashcard> parseFlashcards(ArrayList<String> lines) {
+		// Flashcards are between "FlashcardStart:" and "FlashcardEnd:", 3 lines each
+		long[] ids = parseIds(lines);
+		int count = countFlashcards(lines);
+		ArrayList<Flashcard> flashcards = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			int line = 3 + i * 3;
+			Flashcard flashcard = new Flashcard(lines.get(line), lines.get(line + 1), Integer.parseInt(lines.get(line + 2)));
+			if (ids.length > 0) { flashcard.updateId(ids[i + 1]); }
+			flashcards.add(flashcard);
+		}
+		return flashcards;
+	}
+	
+	
+	/**
+	 * Reads the ids line of the lines read by readSetRecord
+	 * @param lines the lines of the record, from title to ids
+	 * @return the set's id followed by each flashcard's, or none if the record has no ids
+	 * @throws NumberFormatException if an id is not a number
+	 */
+	private static long[] parseIds(ArrayList<String> lines) {
+		String line = lines.get(lines.size() - 1);
+		if (line.isEmpty()) { return new long[0]; }
+		
+		String[] parts = line.split(" ");
+		long[] ids = new long[parts.length];
+		for (int i = 0; i < parts.length; i++) {
+			ids[i] = Long.parseLong(parts[i]);
+		}
+		return ids;
+	}
+	
+	
+	/**
+	 * Formats one set as it is stored in the database
+	 * @param s the set
+	 * @return the set record, ending with a blank line
+	 */
+	static String formatSet(StudySet s) {
+		StringBuilder record = new StringBuilder();
+		record.append(s.getTitle() + "\n");
+		record.append(s.getDescription() + "\n");
+		record.append("FlashcardStart:\n");
+		for (Flashcard f : s.getFlashcards()) {
+			record.append(f.getTerm() + "\n");
+			record.append(f.getDefinition() + "\n");
+			record.append(f.getPriority() + "\n");
+		}
+		record.append("FlashcardEnd:\n");
+		record.append(s.getDateCreatedMillis() + "\n");
+		record.append(s.getDateAccessedMillis() + "\n");
+		record.append(s.getId());
+		for (Flashcard f : s.getFlashcards()) {
+			record.append(" " + f.getId());
+		}
+		return formatSetRecord(record.toString());
+	}
+	
+	
+	/**
+	 * Adds the header, checksum and trailing blank line to the lines of a set record
+	 * @param lines the lines of the record from title to ids, without a final line break
+	 * @return the set record, ending with a blank line
+	 */
+	static String formatSetRecord(String lines) {
+		String record = SET_HEADER + "\n" + lines + "\n";
+		return record + checksumLine(record) + "\n";
+	}
+	
+	
+	/**
+	 * Formats the checksum line that follows a record
+	 * @param record the text of the record, ending with a line break
+	 * @return the checksum line, ending with a line break
+	 */
+	static String checksumLine(String record) {
+		CRC32 checksum = new CRC32();
+		checksum.update(record.getBytes(StandardCharsets.UTF_8));
+		return CHECKSUM_LINE + String.format("%08x", checksum.getValue()) + "\n";
+	}
+	
+	
+	/**
+	 * Formats the version line that starts every database file
+	 * @return the version line, ending with a line break
+	 */
+	static String formatVersionLine() {
+		return VERSION_LINE + FORMAT_VERSION + "\n";
+	}
+	
+	
+	/**
+	 * Reads the format version from the first line of a database file
+	 * @param line the first line of the file
+	 * @return the version, or -1 if the line is not a version line
+	 */
+	static int parseVersionLine(String line) {
+		if (line.startsWith(VERSION_LINE)) {
+			return Integer.parseInt(line.substring(VERSION_LINE.length()));
+		}
+		return -1;
+	}
+	
+	
+	/**
+	 * Parses a stored date. Dates are stored as epoch milliseconds, but files from before
+	 * format version 2 store text written by Date.toString(), eg. "Wed Apr 09 07:40:42 EDT 2025".
+	 * @param date the stored date
+	 * @return the date
+	 */
+	static Date parseDate(String date) {
+		int length = date.length();
+		if (length > 0 && length < 20 && (date.charAt(0) == '-' || Character.isDigit(date.charAt(0)))) {
+			return new Date(Long.parseLong(date));
+		}
+		return parseDateText(date);
+	}
+	
+	
+	/**
+	 * Parses a date written by Date.toString(), as stored before format version 2.
+	 * The fields are at fixed positions, so they are read directly; the formatter is only
+	 * used the first time each zone name is seen, since resolving zone names is the slow part.
+	 * @param date the date text
+	 * @return the date
+	 */
+	@SuppressWarnings("deprecation")
+	private static Date parseDateText(String date) {
+		try {
+			int length = date.length();
+			int month = MONTHS.indexOf(date.substring(4, 7)) / 3 + 1;
+			int day = parseDigits(date, 8, 10);
+			int hour = parseDigits(date, 11, 13);
+			int minute = parseDigits(date, 14, 16);
+			int second = parseDigits(date, 17, 19);
+			int year = parseDigits(date, length - 4, length);
+			String zoneName = date.substring(20, length - 5);
+			
+			ZoneId zone = dateZones.get(zoneName);
+			if (zone == null) {
+				zone = ZonedDateTime.parse(date, DATE_FORMAT).getZone();
+				dateZones.put(zoneName, zone);
+			}
+			LocalDateTime local = LocalDateTime.of(year, month, day, hour, minute, second);
+			return Date.from(local.atZone(zone).toInstant());
+		}
+		catch (RuntimeException e) {
+			// Zones without a short name are written as eg. "GMT+05:30", which only Date can read
+			return new Date(date);
+		}
+	}
+	
+	
+	/**
+	 * Parses a run of decimal digits
+	 * @param text the text containing the digits
+	 * @param start the first digit
+	 * @param end one past the last digit
+	 * @return the number
+	 */
+	private static int parseDigits(String text, int start, int end) {
+		int value = 0;
+		for (int i = start; i < end; i++) {
+			int digit = text.charAt(i) - '0';
+			if (digit < 0 || digit > 9) { throw new NumberFormatException(text); }
+			value = value * 10 + digit;
+		}
+		return value;
+	}
+	
+	
+	/**
+	 * Rewrites the whole set database straight away
+	 * @throws FileNotFoundException
+	 */
+	public static void updateSetDatabase() throws FileNotFoundException {
+		synchronized (sets.writeLock()) {
+			storage.rewriteSets(sets.getItems());
+		}
+	}
+	
+	
+	/**
+	 * Updates the access date of a set
+	 * @param set the set that was opened
+	 * @throws FileNotFoundException
+	 */
+	public static void updateSetDateAccessed(StudySet set) throws FileNotFoundException {
+		synchronized (sets.writeLock()) {
+			set.updateDateAccessed();
+			setsByAccessed.put(set);
+			sets.update(set);
+			storage.updateSetDateAccessed(set);
+		}
+	}
+	
+	
+	/**
+	 * Checks if a flashcard is valid, ie. has a term and definition
+	 * @param term the term to check
+	 * @param definition the definition to check
+	 * @return "Valid" if both params are non-empty, "Missing .." otherwise
+	 */
+	public static String validFlashcard(String term, String definition) {
+		if (term.isBlank()) {
+			return "Missing Term";
+		}
+		else if (definition.isBlank()) {
+			return "Missing Definition";
+		}
+		else {
+			return "Valid";
+		}
+	}
+	
+	
+	/**
+	 * Copies flashcards, so a set can be edited without changing it until the edit is saved
+	 * @param flashcards the flashcards to copy
+	 * @return a new list of copies, with the same ids
+	 */
+	public static ArrayList<Flashcard> copyFlashcards(List<Flashcard> flashcards) {
+		ArrayList<Flashcard> copies = new ArrayList<>(flashcards.size());
+		for (Flashcard flashcard : flashcards) {
+			copies.add(new Flashcard(flashcard));
+		}
+		return copies;
+	}
+	
+	
+	// For study set creation, editing flashcard
+	public static void editFlashcard(Flashcard flashcard, String term, String definition, int priority) {
+		if (!term.equals(flashcard.getTerm())) { flashcard.updateTerm(term); }
+		if (!definition.equals(flashcard.getDefinition())) { flashcard.updateDefinition(definition); }
+		if (priority != flashcard.getPriority()) { flashcard.updatePriority(priority); }
+	}
+	
+	
+	/**
+	 * Adds a set to the database if valid, ie. title and 0 < #flashcards
+	 * @param title the title of the new set
+	 * @param description the description of the new set
+	 * @param flashcards the set of flashcards for the new set
+	 * @return "Successful" if all params are valid
+	 * @throws FileNotFoundException 
+	 */
+	public static String addSet(String title, String description, ArrayList<Flashcard> flashcards) throws FileNotFoundException {
+		if (title.isBlank()) { 
+			return "Missing Title"; 
+		}
+		else if (flashcards.isEmpty()) { 
+			return "Need at least 1 flashcard"; 
+		}
+		else {
+			StudySet set = new StudySet(title, description, flashcards);
+			synchronized (sets.writeLock()) {
+				SnapshotStore.Snapshot<StudySet> added = sets.add(set);
+				setsByAccessed.put(set);
+				setsByCreated.put(set);
+				indexSet(set, flashcards);
+				storage.insertSet(set, added.getItems());
+			}
+			return "Successful";
+		}
+	}
+	
+	
+	/**
+	 * Edits a selected set, replacing its flashcards. Nothing in the set changes unless the edit is valid.
+	 * @param set the set to edit
+	 * @param title the title
+	 * @param description the description
+	 * @param flashcards the edited flashcards, a copy only used by the set from now on, see copyFlashcards
+	 * @return "Successful" if edits are valid, else, error messages
+	 * @throws FileNotFoundException
+	 */
+	public static String editSet(StudySet set, String title, String description, ArrayList<Flashcard> flashcards) throws FileNotFoundException {
+		if (title.isBlank()) { 
+			return "Missing Title"; 
+		}
+		else if (flashcards.isEmpty()) {
+			return "Need at least 1 flashcard";
+		}
+		else {
+			synchronized (sets.writeLock()) {
+				// Replaced while it was being edited, by a change another program made to its file
+				if (!sets.contains(set)) { return "Set was changed by another program"; }
+				if (!title.equals(set.getTitle())) { set.updateTitle(title); }
+				if (!description.equals(set.getDescription())) { set.updateDescription(description); }
+				LongMap<Flashcard> kept = new LongMap<>();
+				for (Flashcard flashcard : flashcards) {
+					kept.put(flashcard.getId(), flashcard);
+				}
+				ArrayList<Flashcard> deleted = new ArrayList<>();
+				for (Flashcard flashcard : set.getFlashcards()) {
+					if (!kept.containsKey(flashcard.getId())) { deleted.add(flashcard); }
+				}
+				set.updateFlashcards(flashcards);
+				ReviewScheduler.forget(deleted);
+				indexSet(set, flashcards);
+				sets.update(set);
+				storage.updateSet(set);
+			}
+			return "Successful";
+		}
+	}
+	
+	
+	/**
+	 * Removes a set from the database
+	 * @param set the set to delete
+	 * @return "Successful"
+	 * @throws FileNotFoundException
+	 */
+	public static String deleteSet(StudySet set) throws FileNotFoundException {
+		synchronized (sets.writeLock()) {
+			SnapshotStore.Snapshot<StudySet> left = sets.remove(set);
+			if (left != null) {
+				unindexSet(set);
+				ReviewScheduler.forget(set.readFlashcards());
+				storage.deleteSet(set, left.getItems());
+			}
+		}
+		return "Successful";
+	}
+	
+	
+	/**
+	 * Looks for near duplicate flashcards across every set, as they were when the sets were loaded.
+	 * This takes a while with many flashcards, so it is run in the background after loading.
+	 */
+	public static void findDuplicates() {
+		ArrayList<DuplicateFinder.Card> cards = loadedCards;
+		loadedCards = null;
+		if (cards != null) {
+			duplicates = DuplicateFinder.findClusters(cards);
+		}
+	}
+	
+	
+	/**
+	 * Gets the clusters of near duplicate flashcards that include a flashcard of a set, leaving out
+	 * flashcards that were edited or removed since the search
+	 * @param set the set
+	 * @return the clusters that still have a flashcard of the set and at least one other flashcard
+	 */
+	public static List<List<DuplicateFinder.Card>> getDuplicates(StudySet set) {
+		ArrayList<List<DuplicateFinder.Card>> found = new ArrayList<>();
+		for (List<DuplicateFinder.Card> cluster : duplicates) {
+			boolean inSet = false;
+			for (DuplicateFinder.Card card : cluster) {
+				if (card.getSet() == set) { inSet = true; }
+			}
+			if (!inSet) { continue; }
+			
+			ArrayList<DuplicateFinder.Card> current = new ArrayList<>();
+			for (DuplicateFinder.Card card : cluster) {
+				if (sets.contains(card.getSet()) && card.findFlashcard() != null) { current.add(card); }
+			}
+			if (current.size() > 1 && current.stream().anyMatch(card -> card.getSet() == set)) { found.add(current); }
+		}
+		return found;
+	}
+	
+	
+	/**
+	 * Merges a cluster of near duplicate flashcards into one, deleting the others from their sets.
+	 * A flashcard is kept if deleting it would leave its set empty.
+	 * @param kept the flashcard to keep
+	 * @param cluster the near duplicates of the flashcard, which may include it
+	 * @return "Successful"
+	 * @throws FileNotFoundException
+	 */
+	public static String mergeDuplicates(Flashcard kept, List<DuplicateFinder.Card> cluster) throws FileNotFoundException {
+		synchronized (sets.writeLock()) {
+			for (DuplicateFinder.Card card : cluster) {
+				StudySet set = card.getSet();
+				Flashcard flashcard = card.findFlashcard();
+				if (flashcard == null || flashcard == kept || !sets.contains(set) || set.getSize() <= 1) { continue; }
+				
+				set.removeFlashcard(flashcard);
+				ReviewScheduler.forget(Collections.singletonList(flashcard));
+				indexSet(set, set.getFlashcards());
+				sets.update(set);
+				storage.deleteFlashcard(set, flashcard);
+			}
+			
+			ArrayList<List<DuplicateFinder.Card>> left = new ArrayList<>(duplicates);
+			left.removeIf(found -> found.containsAll(cluster));
+			duplicates = left;
+		}
+		return "Successful";
+	}
+	
+	
+	/* NOTE METHODS */
+	
+	
+	/**
+	 * Loads note data from the database
+	 * @throws FileNotFoundException
+	 */
+	public static void loadNotes() throws FileNotFoundException {
+		loadNotes(batch -> { });
+	}
+	
+	
+	/**
+	 * Loads note data from the database, passing notes on as they are read so they can be shown
+	 * before loading finishes. getNotes() returns the notes once this returns, as an unmodifiable
+	 * snapshot that later changes do not affect. The search index is
+	 * loaded with the notes, or rebuilt if the saved one does not match them.
+	 * @param loaded called with each batch of notes in display order, on the loading thread
+	 * @throws FileNotFoundException
+	 */
+	public static void loadNotes(Consumer<List<Note>> loaded) throws FileNotFoundException {
+		ArrayList<Note> loadedNotes = storage.loadNotes(loaded);
+		if (!noteIndex.load(NOTE_INDEX, storage.notesStamp(), loadedNotes)) {
+			noteIndex.clear();
+			for (Note note : loadedNotes) {
+				noteIndex.put(note, note.getTitle(), note.getDescription(), note.getText());
+			}
+		}
+		synchronized (notes.writeLock()) {
+			notesByAccessed.putAll(loadedNotes);
+			notesByCreated.putAll(loadedNotes);
+			notes.replaceAll(loadedNotes);
+			notesLoaded = true;
+		}
+	}
+	
+	
+	/**
+	 * Updates the note database straight away, instead of in the background
+	 * @throws FileNotFoundException
+	 */
+	public static void updateNoteDatabase() throws FileNotFoundException {
+		synchronized (notes.writeLock()) {
+			storage.rewriteNotes(notes.getItems());
+		}
+	}
+	
+	
+	/**
+	 * Updates the access date of a note
+	 * @param note the note that was opened
+	 * @throws FileNotFoundException
+	 */
+	public static void updateNoteDateAccessed(Note note) throws FileNotFoundException {
+		synchronized (notes.writeLock()) {
+			note.updateDateAccessed();
+			notesByAccessed.put(note);
+			notes.update(note);
+			storage.updateNoteDateAccessed(note, notes.getItems());
+		}
+	}
+	
+	
+	/**
+	 * Adds a note to the database if valid, ie. title
+	 * @param title the title of the new note
+	 * @param description the description of the new note
+	 * @param text the text of the new note
+	 * @return "Successful" if title is non-empty, "Missing Title" otherwise
+	 * @throws FileNotFoundException
+	 */
+	public static String addNote(String title, String description, String text) throws FileNotFoundException {
+		if (title.isBlank()) {
+			return "Missing Title";
+		}
+		else {
+			Note note = new Note(title, description, text);
+			synchronized (notes.writeLock()) {
+				SnapshotStore.Snapshot<Note> added = notes.add(note);
+				notesByAccessed.put(note);
+				notesByCreated.put(note);
+				noteIndex.put(note, title, description, text);
+				storage.insertNote(note, added.getItems());
+			}
+			return "Successful";
+		}
+	}
+	
+	
+	/**
+	 * Edits a note in the database if edits are valid, ie. non-empty title
+	 * @param note the note to edit
+	 * @param title the new title of the note
+	 * @param description the new description of the note
+	 * @param text the new text of the note
+	 * @return "Successful" if title is non-empty, "Missing Title" otherwise
+	 * @throws FileNotFoundException
+	 */
+	public static String editNote(Note note, String title, String description, String text) throws FileNotFoundException {
+		if (title.isBlank()) {
+			return "Missing Title";
+		}
+		else {
+			synchronized (notes.writeLock()) {
+				// Replaced while it was being edited, by a change another program made to its file
+				if (!notes.contains(note)) { return "Note was changed by another program"; }
+				// Only call update methods if value is DIFFERENT from the original value
+				if (!title.equals(note.getTitle())) note.updateTitle(title);
+				if (!description.equals(note.getDescription())) note.updateDescription(description);
+				if (!text.equals(note.getText())) note.updateText(text);
+				noteIndex.put(note, title, description, text);
+				notes.update(note);
+				storage.updateNote(note, notes.getItems());
+			}
+			return "Successful";
+		}
+	}
+	
+	
+	/**
+	 * Removes a note from the database
+	 * @param note the note to delete
+	 * @return "Successful"
+	 * @throws FileNotFoundException
+	 */
+	public static String deleteNote(Note note) throws FileNotFoundException {
+		synchronized (notes.writeLock()) {
+			SnapshotStore.Snapshot<Note> left = notes.remove(note);
+			if (left != null) {
+				notesByAccessed.remove(note);
+				notesByCreated.remove(note);
+				noteIndex.remove(note);
+				storage.deleteNote(note, left.getItems());
+			}
+		}
+		return "Successful";
+	}
+	
+	
+	/* EXTERNAL CHANGE METHODS */
+	
+	
+	/**
+	 * Starts watching the database files for changes made by other programs, eg. a sync tool,
+	 * once the sets and notes are loaded. Only the files of FileStorage are watched.
+	 * @param setsChanged called with the sets read in again, off the application thread
+	 * @param notesChanged called with the notes read in again, off the application thread
+	 */
+	public static void watchExternalChanges(Consumer<ExternalChanges<StudySet>> setsChanged, Consumer<ExternalChanges<Note>> notesChanged) {
+		if (storage instanceof FileStorage) { DatabaseWatcher.start(setsChanged, notesChanged); }
+	}
+	
+	
+	/**
+	 * Reads in the sets another program changed, and puts them in place of the sets in memory
+	 * @param keys the keys of the sets that may have changed, or null to check every set
+	 * @return the sets added, removed or changed
+	 * @throws FileNotFoundException
+	 */
+	public static ExternalChanges<StudySet> reloadSets(Collection<Long> keys) throws FileNotFoundException {
+		synchronized (sets.writeLock()) {
+			if (!setsLoaded) { return new ExternalChanges<>(); }
+			ExternalChanges<StudySet> changes = storage.reloadSets(sets.getItems(), keys);
+			for (StudySet set : changes.getRemoved()) {
+				sets.remove(set);
+				unindexSet(set);
+			}
+			for (int i = 0; i < changes.getReplaced().size(); i++) {
+				StudySet updated = changes.getReplacements().get(i);
+				sets.replace(changes.getReplaced().get(i), updated);
+				unindexSet(changes.getReplaced().get(i));
+				setsByAccessed.put(updated);
+				setsByCreated.put(updated);
+				indexSet(updated, updated.getFlashcards());
+			}
+			for (StudySet set : changes.getAdded()) {
+				sets.add(set);
+				setsByAccessed.put(set);
+				setsByCreated.put(set);
+				indexSet(set, set.getFlashcards());
+			}
+			return changes;
+		}
+	}
+	
+	
+	/**
+	 * Reads in the notes another program changed, and puts them in place of the notes in memory
+	 * @return the notes added, removed or changed
+	 * @throws FileNotFoundException
+	 */
+	public static ExternalChanges<Note> reloadNotes() throws FileNotFoundException {
+		synchronized (notes.writeLock()) {
+			if (!notesLoaded) { return new ExternalChanges<>(); }
+			ExternalChanges<Note> changes = storage.reloadNotes(notes.getItems());
+			for (Note note : changes.getRemoved()) {
+				notes.remove(note);
+				unindexNote(note);
+			}
+			for (int i = 0; i < changes.getReplaced().size(); i++) {
+				Note updated = changes.getReplacements().get(i);
+				notes.replace(changes.getReplaced().get(i), updated);
+				unindexNote(changes.getReplaced().get(i));
+				notesByAccessed.put(updated);
+				notesByCreated.put(updated);
+				noteIndex.put(updated, updated.getTitle(), updated.getDescription(), updated.getText());
+			}
+			for (Note note : changes.getAdded()) {
+				notes.add(note);
+				notesByAccessed.put(note);
+				notesByCreated.put(note);
+				noteIndex.put(note, note.getTitle(), note.getDescription(), note.getText());
+			}
+			// A save still waiting would otherwise write the notes as they were
+			if (!changes.isEmpty()) { PersistenceService.refreshPendingNotes(notes.getItems()); }
+			return changes;
+		}
+	}
+	
+	
+	/**
+	 * Removes a set from the date indexes, search index and completions
+	 * @param set the set
+	 */
+	private static void unindexSet(StudySet set) {
+		setsByAccessed.remove(set);
+		setsByCreated.remove(set);
+		setIndex.remove(set);
+		terms.remove(set);
+	}
+	
+	
+	/**
+	 * Removes a note from the date indexes and search index, and its text from memory
+	 * @param note the note
+	 */
+	private static void unindexNote(Note note) {
+		notesByAccessed.remove(note);
+		notesByCreated.remove(note);
+		noteIndex.remove(note);
+		NoteBodyCache.remove(note);
+	}
+	
+	
+	/* RECENT METHODS */
+	
+	
+	/**
+	 * Gets the sets accessed most recently
+	 * @param limit the most sets to return
+	 * @return the sets, most recently accessed first
+	 */
+	public static List<StudySet> getRecentSets(int limit) {
+		return setsByAccessed.latest(limit);
+	}
+	
+	
+	/**
+	 * Gets the sets last accessed between two dates
+	 * @param from the earliest date to include
+	 * @param to the date to stop before
+	 * @return the sets, most recently accessed first
+	 */
+	public static List<StudySet> getSetsAccessedBetween(Date from, Date to) {
+		return setsByAccessed.between(from.getTime(), to.getTime(), Integer.MAX_VALUE);
+	}
+	
+	
+	/**
+	 * Gets the sets created between two dates
+	 * @param from the earliest date to include
+	 * @param to the date to stop before
+	 * @return the sets, newest first
+	 */
+	public static List<StudySet> getSetsCreatedBetween(Date from, Date to) {
+		return setsByCreated.between(from.getTime(), to.getTime(), Integer.MAX_VALUE);
+	}
+	
+	
+	/**
+	 * Gets the notes accessed most recently
+	 * @param limit the most notes to return
+	 * @return the notes, most recently accessed first
+	 */
+	public static List<Note> getRecentNotes(int limit) {
+		return notesByAccessed.latest(limit);
+	}
+	
+	
+	/**
+	 * Gets the notes last accessed between two dates
+	 * @param from the earliest date to include
+	 * @param to the date to stop before
+	 * @return the notes, most recently accessed first
+	 */
+	public static List<Note> getNotesAccessedBetween(Date from, Date to) {
+		return notesByAccessed.between(from.getTime(), to.getTime(), Integer.MAX_VALUE);
+	}
+	
+	
+	/**
+	 * Gets the notes created between two dates
+	 * @param from the earliest date to include
+	 * @param to the date to stop before
+	 * @return the notes, newest first
+	 */
+	public static List<Note> getNotesCreatedBetween(Date from, Date to) {
+		return notesByCreated.between(from.getTime(), to.getTime(), Integer.MAX_VALUE);
+	}
+	
+	
+	/* SEARCH METHODS */
+	
+	
+	/**
+	 * Finds the sets whose title, description or flashcards contain every word of a query
+	 * @param query the words to look for; the last word also matches words it starts
+	 * @return the sets, best match first, or an empty list if the query has no words
+	 */
+	public static List<StudySet> searchSets(String query) {
+		return setIndex.search(query, SEARCH_LIMIT);
+	}
+	
+	
+	/**
+	 * Finds the notes whose title, description or text contain every word of a query
+	 * @param query the words to look for; the last word also matches words it starts
+	 * @return the notes, best match first, or an empty list if the query has no words
+	 */
+	public static List<Note> searchNotes(String query) {
+		return noteIndex.search(query, SEARCH_LIMIT);
+	}
+	
+	
+	/**
+	 * Finds the most used flashcard terms starting with what has been typed
+	 * @param prefix the start of a term, in any case
+	 * @param limit the most terms to return, up to 10
+	 * @return the terms, most used first
+	 */
+	public static List<String> completeTerm(String prefix, int limit) {
+		return terms.complete(prefix, limit);
+	}
+	
+	
+	/**
+	 * Adds a set to the search index and its terms to the completions, or updates them
+	 * @param set the set
+	 * @param flashcards the flashcards of the set
+	 */
+	private static void indexSet(StudySet set, List<Flashcard> flashcards) {
+		StringBuilder text = new StringBuilder();
+		for (Flashcard flashcard : flashcards) {
+			text.append(flashcard.getTerm()).append('\n').append(flashcard.getDefinition()).append('\n');
+		}
+		setIndex.put(set, set.getTitle(), set.getDescription(), text.toString());
+		terms.put(set, getTerms(flashcards));
+	}
+	
+	
+	/**
+	 * Gets the term of each flashcard
+	 * @param flashcards the flashcards
+	 * @return the terms, in the same order
+	 */
+	private static ArrayList<String> getTerms(List<Flashcard> flashcards) {
+		ArrayList<String> flashcardTerms = new ArrayList<>();
+		for (Flashcard flashcard : flashcards) {
+			flashcardTerms.add(flashcard.getTerm());
+		}
+		return flashcardTerms;
+	}
+	
+	
+	/**
+	 * Saves a search index with the stamp of the storage it matches
+	 * @param index the index
+	 * @param file the file to save it to
+	 * @param stamp the stamp of the storage, or 0 if the index cannot be checked against it and is not saved
+	 * @param documents every document in the index, or null if they were never loaded
+	 */
+	private static <T> void saveIndex(SearchIndex<T> index, File file, long stamp, List<T> documents) {
+		if (documents == null || stamp == 0) { return; }
+		try {
+			index.save(file, stamp, documents);
+		}
+		catch (IOException e) {
+			System.out.println("Search Index Save Failed");
+		}
+	}
+	
+	
+	/**
+	 * Writes every pending change to the database, eg. before the application closes, then saves
+	 * the search indexes to match
+	 */
+	public static void flush() {
+		storage.flush();
+		saveIndex(setIndex, SET_INDEX, storage.setsStamp(), setsLoaded ? sets.getItems() : null);
+		saveIndex(noteIndex, NOTE_INDEX, storage.notesStamp(), notesLoaded ? notes.getItems() : null);
+	}
+	
+	
+	/* FILE METHODS */
+	
+	
+	/**
+	 * Chooses the storage backend
+	 * @param location a JDBC URL for SqlStorage, or empty for the database files
+	 * @return the backend
+	 */
+	private static StorageBackend openStorage(String location) {
+		if (location.startsWith("jdbc:")) {
+			return new SqlStorage(location);
+		}
+		return new FileStorage();
+	}
+	
+	
+	/**
+	 * Gets a stamp of some files from their names, sizes and modification times, which changes
+	 * whenever one of them is written, without reading them
+	 * @param files the files, in the same order each time
+	 * @return the stamp, or 0 if none of the files exist
+	 */
+	static long stampFiles(File[] files) {
+		long stamp = 0;
+		for (File file : files) {
+			if (file.exists()) {
+				stamp = stamp * 31 + file.getName().hashCode();
+				stamp = stamp * 31 + file.length();
+				stamp = stamp * 31 + file.lastModified();
+			}
+		}
+		return stamp;
+	}
+	
+	
+	/**
+	 * Replaces a database file with a fully written temporary file
+	 * @param temp the temporary file
+	 * @param target the database file to replace
+	 * @throws IOException
+	 */
+	static void moveIntoPlace(File temp, File target) throws IOException {
+		try {
+			Files.move(temp.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		}
+		catch (AtomicMoveNotSupportedException e) {
+			Files.move(temp.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		}
+		
+		// Make the rename itself survive a crash
+		try (FileChannel directory = FileChannel.open(target.getAbsoluteFile().getParentFile().toPath(), StandardOpenOption.READ)) {
+			directory.force(true);
+		}
+		catch (IOException e) {
+			// Directories cannot be opened on every platform, eg. Windows
+		}
+	}
+	
+	
+	/**
+	 * Replaces a file through a temporary file, so a crash leaves either the old or the new content
+	 * @param target the file to replace
+	 * @param text the new content
+	 * @throws IOException
+	 */
+	static void writeAtomically(File target, String text) throws IOException {
+		File temp = new File(target.getPath() + ".tmp");
+		try (FileOutputStream out = new FileOutputStream(temp)) {
+			out.write(text.getBytes(StandardCharsets.UTF_8));
+			out.getFD().sync();	// Make sure the whole file is on disk before it replaces the old one
+		}
+		moveIntoPlace(temp, target);
+	}
+	
+	
+	/**
+	 * Copies a corrupt record to the database's quarantine file, so it can be recovered by hand
+	 * @param source the database file
+	 * @param from the start of the record
+	 * @param to the end of the record
+	 * @param reason why the record was skipped
+	 */
+	static void quarantine(File source, long from, long to, String reason) {
+		System.out.println("Skipped Corrupt Record in " + source + ": " + reason);
+		File quarantine = new File(source.getPath() + ".quarantine");
+		try (FileChannel in = FileChannel.open(source.toPath(), StandardOpenOption.READ);
+				FileOutputStream out = new FileOutputStream(quarantine, true)) {
+			String heading = "Quarantined from " + source + " at byte " + from + " on " + new Date() + ": " + reason + "\n";
+			out.write(heading.getBytes(StandardCharsets.UTF_8));
+			out.write(NoteBodyCache.read(in, from, (int) Math.min(to - from, in.size() - from)));
+			out.write("\n".getBytes(StandardCharsets.UTF_8));
+		}
+		catch (IOException e) {
+			System.out.println("Quarantine Failed");
+		}
+	}
+	
+	
+	/* PRINT METHODS FOR DEBUGGING PURPOSES */
+	
+	
+	public static void printNotes() {
+		for (Note n : notes.getItems()) {
+			System.out.println(n);
+			System.out.println();	// Add space between notes
+		}
+	}
+
+}
@@ -0,0 +1,273 @@
+/**
+ * @author Michelle Nguyen
+ * @version 2026-10-17
+ */
+
+
+/* IMPORT STATEMENTS */
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.zip.CRC32;
+
+
+/**
+ * Reads the database files line by line through a buffered FileChannel.
+ *
+ * A drop-in for the Scanner calls the loaders used (hasNextLine, nextLine, close), without
+ * Scanner's regex matching. Lines are decoded as UTF-8 straight out of the read buffer, and only
+ * lines that cross a buffer boundary are copied. Both "\n" and "\r\n" line endings are accepted.
+ *
+ * A CRC32 of the lines read since resetChecksum() is kept for checking record checksums. Each
+ * line counts as its text followed by "\n", so the checksum does not depend on line endings.
+ */
+public class DatabaseReader implements Closeable {
+	/* VARIABLES */
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	private final FileChannel channel;
+	private final ByteBuffer buffer;
+	private final byte[] bytes;
+	private int start;			// First unread byte in the buffer
+	private int limit;			// End of valid bytes in the buffer
+	private long bufferPosition;	// Position in the file of the first byte in the buffer
+	private boolean endOfFile;
+
+	private byte[] carry = new byte[256];	// Part of a line split across two reads
+	private int carryLength;
+	private boolean terminated = true;		// Last line read ended with a line break
+
+	private final CRC32 checksum = new CRC32();
+
+
+	/**
+	 * Opens a database file for reading
+	 * @param file the file to read
+	 * @throws FileNotFoundException
+	 */
+	public DatabaseReader(File file) throws FileNotFoundException {
+		try {
+			channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+		}
+		catch (NoSuchFileException e) {
+			throw new FileNotFoundException(file.getPath());
+		}
+		catch (IOException e) {
+			FileNotFoundException notFound = new FileNotFoundException(file.getPath());
+			notFound.initCause(e);
+			throw notFound;
+		}
+		buffer = ByteBuffer.allocate(BUFFER_SIZE);
+		bytes = buffer.array();
+	}
+
+
+	/**
+	 * Checks if there is another line to read
+	 * @return true if another line can be read
+	 */
+	public boolean hasNextLine() {
+		return start < limit || (!endOfFile && fill());
+	}
+
+
+	/**
+	 * Reads the next line, without its line ending
+	 * @return the line
+	 * @throws NoSuchElementException if there are no more lines, same as Scanner
+	 */
+	public String nextLine() {
+		carryLength = 0;
+		while (true) {
+			if (start == limit && (endOfFile || !fill())) {
+				if (carryLength == 0) { throw new NoSuchElementException("No line found"); }
+				// Last line of the file without a line ending
+				terminated = false;
+				return decode(carry, 0, carryLength);
+			}
+
+			// Look for the end of the line in the buffered bytes
+			for (int i = start; i < limit; i++) {
+				if (bytes[i] == '\n') {
+					String line;
+					if (carryLength == 0) {
+						line = decode(bytes, start, i - start);
+					}
+					else {
+						append(start, i - start);
+						line = decode(carry, 0, carryLength);
+					}
+					start = i + 1;
+					terminated = true;
+					return line;
+				}
+			}
+
+			// Line continues past the buffer, keep what we have and read more
+			append(start, limit - start);
+			start = limit;
+		}
+	}
+
+
+	/**
+	 * Checks if the last line read ended with a line break. A line without one at the end
+	 * of the file was cut off while being written.
+	 * @return true if the last line was complete
+	 */
+	public boolean isTerminated() {
+		return terminated;
+	}
+
+
+	/**
+	 * Starts a new checksum from the next line read
+	 */
+	public void resetChecksum() {
+		checksum.reset();
+	}
+
+
+	/**
+	 * Gets the checksum of the lines read since the last reset
+	 * @return the CRC32 of the lines
+	 */
+	public int checksum() {
+		return (int) checksum.getValue();
+	}
+
+
+	/**
+	 * Checks the lines read since the last reset against a following "Checksum:" line.
+	 * Records written before checksums were added have no such line, and are accepted as is.
+	 * @return true if the checksum matches or there is none
+	 */
+	public boolean matchChecksum() {
+		int expected = checksum();
+		long before = position();
+		if (!hasNextLine()) { return true; }
+
+		String line = nextLine();
+		if (!line.startsWith(Database.CHECKSUM_LINE)) {
+			seek(before);	// Not a checksum, leave it for the caller
+			return true;
+		}
+		try {
+			return isTerminated() && Integer.parseUnsignedInt(line.substring(Database.CHECKSUM_LINE.length()), 16) == expected;
+		}
+		catch (NumberFormatException e) {
+			return false;
+		}
+	}
+
+
+	/**
+	 * Gets the position in the file of the next line
+	 * @return the byte offset of the next unread byte
+	 */
+	public long position() {
+		return bufferPosition + start;
+	}
+
+
+	/**
+	 * Moves to a position in the file, eg. to skip over a note's text
+	 * @param position the byte offset to read from next
+	 */
+	public void seek(long position) {
+		if (position >= bufferPosition && position <= bufferPosition + limit) {
+			start = (int) (position - bufferPosition);
+			return;
+		}
+		try {
+			channel.position(position);
+		}
+		catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		bufferPosition = position;
+		start = limit = 0;
+		endOfFile = false;
+	}
+
+
+	/**
+	 * Closes the file
+	 */
+	public void close() {
+		try {
+			channel.close();
+		}
+		catch (IOException e) {
+			// Nothing was written, so there is nothing to lose
+		}
+	}
+
+
+	/* HELPER METHODS */
+
+
+	/**
+	 * Reads the next block of the file into the buffer
+	 * @return true if any bytes were read
+	 */
+	private boolean fill() {
+		try {
+			bufferPosition += limit;
+			buffer.clear();
+			int read = 0;
+			while (read == 0) {
+				read = channel.read(buffer);
+			}
+			if (read < 0) {
+				endOfFile = true;
+				start = limit = 0;
+				return false;
+			}
+			start = 0;
+			limit = read;
+			return true;
+		}
+		catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+
+	/**
+	 * Copies part of the buffer onto the end of the carried-over line
+	 * @param offset the first byte to copy
+	 * @param length the number of bytes to copy
+	 */
+	private void append(int offset, int length) {
+		if (carryLength + length > carry.length) {
+			carry = Arrays.copyOf(carry, Math.max(carry.length * 2, carryLength + length));
+		}
+		System.arraycopy(bytes, offset, carry, carryLength, length);
+		carryLength += length;
+	}
+
+
+	/**
+	 * Decodes a line, dropping the '\r' of a "\r\n" line ending, and adds it to the checksum
+	 * @param source the bytes of the line
+	 * @param offset the first byte of the line
+	 * @param length the number of bytes in the line
+	 * @return the line
+	 */
+	private String decode(byte[] source, int offset, int length) {
+		if (length > 0 && source[offset + length - 1] == '\r') { length--; }
+		checksum.update(source, offset, length);
+		checksum.update('\n');
+		return new String(source, offset, length, StandardCharsets.UTF_8);
+	}
+}
@@ -0,0 +1,199 @@
+/**
+ * @author Michelle Nguyen
+ * @version 2026-10-17
+ */
+
+
+/* IMPORT STATEMENTS */
+import java.lang.reflect.Method;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javafx.concurrent.Task;
+
+
+/**
+ * Runs Database operations off the application thread, so saving or loading a large database
+ * never freezes the window.
+ *
+ * Each operation runs as a Job, a JavaFX Task that also has a CompletableFuture. The task's
+ * progress, message and onSucceeded / onFailed handlers are used from the application thread as
+ * with any Task, while code off that thread can wait on or chain the future. Cancelling either one
+ * cancels the other, and interrupts the operation if it has started.
+ *
+ * Reads run side by side. Writes run one at a time in the order they were submitted, so two
+ * changes made in quick succession, eg. opening a set and then editing it, are saved in that order.
+ *
+ * Operations run on virtual threads where the JVM has them, found by reflection since they are
+ * not in every JDK this application runs on, and on a pool of daemon threads otherwise.
+ */
+public class DatabaseService {
+	/* VARIABLES */
+	private static final ExecutorService executor = createExecutor();
+	private static final Object writeLock = new Object();
+	private static CompletableFuture<?> lastWrite = CompletableFuture.completedFuture(null);
+
+
+	/**
+	 * A Database operation
+	 * @param <T> the type of result
+	 */
+	public interface Operation<T> {
+		/**
+		 * Runs the operation
+		 * @param progress where to report progress and check for cancellation
+		 * @return the result
+		 * @throws Exception if the operation failed
+		 */
+		T run(Progress progress) throws Exception;
+	}
+
+
+	/**
+	 * Where an operation reports how far it has got
+	 */
+	public interface Progress {
+		/**
+		 * Reports progress, shown on the application thread
+		 * @param done the work done so far
+		 * @param total the total work, or -1 if it is not known
+		 * @param message what is being done, or null to keep the last message
+		 */
+		void update(long done, long total, String message);
+
+
+		/**
+		 * Checks if the operation was cancelled, so a long operation can stop early
+		 * @return true if it was cancelled
+		 */
+		boolean isCancelled();
+	}
+
+
+	/**
+	 * A submitted operation, as a Task for the application thread and a future for other threads
+	 * @param <T> the type of result
+	 */
+	public static class Job<T> extends Task<T> implements Progress {
+		private final Operation<T> operation;
+		private final CompletableFuture<T> future = new CompletableFuture<>();
+
+
+		private Job(Operation<T> operation) {
+			this.operation = operation;
+			// Cancelling the future, eg. from a chained stage, cancels the task
+			future.whenComplete((result, failure) -> {
+				if (future.isCancelled()) { cancel(true); }
+			});
+		}
+
+
+		/* GET METHODS */
+		public CompletableFuture<T> getFuture() { return future; }
+
+
+		@Override
+		protected T call() throws Exception {
+			return operation.run(this);
+		}
+
+
+		@Override
+		public void update(long done, long total, String message) {
+			updateProgress(done, total);
+			if (message != null) { updateMessage(message); }
+		}
+
+
+		/**
+		 * Completes the future once the task is finished, on the thread that ran it
+		 */
+		@Override
+		protected void done() {
+			super.done();
+			if (isCancelled()) {
+				future.cancel(false);
+				return;
+			}
+			try {
+				future.complete(get());
+			}
+			catch (ExecutionException e) {
+				future.completeExceptionally(e.getCause());
+			}
+			catch (InterruptedException | CancellationException e) {
+				future.cancel(false);
+			}
+		}
+	}
+
+
+	/* SUBMITTING */
+
+
+	/**
+	 * Runs an operation that only reads, alongside any other operations
+	 * @param operation the operation
+	 * @return the job, already running or waiting to run
+	 */
+	public static <T> Job<T> read(Operation<T> operation) {
+		Job<T> job = new Job<>(operation);
+		executor.execute(job);
+		return job;
+	}
+
+
+	/**
+	 * Runs an operation that changes the database, after every write submitted before it
+	 * @param operation the operation
+	 * @return the job, waiting for the earlier writes
+	 */
+	public static <T> Job<T> write(Operation<T> operation) {
+		Job<T> job = new Job<>(operation);
+		synchronized (writeLock) {
+			// Runs whether or not the write before it failed, and the next write waits for this one
+			lastWrite = lastWrite.handle((result, failure) -> null).thenRunAsync(job, executor);
+		}
+		return job;
+	}
+
+
+	/**
+	 * Waits for every write submitted so far, eg. before the application closes
+	 */
+	public static void awaitWrites() {
+		CompletableFuture<?> last;
+		synchronized (writeLock) {
+			last = lastWrite;
+		}
+		last.handle((result, failure) -> null).join();
+	}
+
+
+	/* HELPER METHODS */
+
+
+	/**
+	 * Creates the executor, one virtual thread per operation if the JVM has them
+	 * @return the executor
+	 */
+	private static ExecutorService createExecutor() {
+		try {
+			Method virtual = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+			return (ExecutorService) virtual.invoke(null);
+		}
+		catch (ReflectiveOperationException | RuntimeException e) {
+			// No virtual threads, so daemon threads that do not keep the application open
+			AtomicInteger count = new AtomicInteger();
+			return Executors.newCachedThreadPool(r -> {
+				Thread thread = new Thread(r, "database-worker-" + count.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			});
+		}
+	}
+}
@@ -0,0 +1,152 @@
+/**
+ * @author Michelle Nguyen
+ * @version 2026-10-17
+ */
+
+
+/* IMPORT STATEMENTS */
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+
+/**
+ * Watches the database files for changes made by other programs, eg. a tool that syncs them
+ * between machines, so they are read in instead of being written over on the next save.
+ *
+ * The watcher runs on its own daemon thread. Changes come as bursts of events while a file is
+ * copied, so it waits until the files have been quiet for SETTLE_MILLIS, then asks Database to
+ * read them in as a DatabaseService write, in order with the application's own changes. Only the
+ * set shards named by the events are read, and a shard or note whose checksum is as it was last
+ * read or written is skipped, so the application's own saves cost a checksum and nothing more.
+ * Temporary files written while saving are ignored.
+ */
+public class DatabaseWatcher implements Runnable {
+	/* VARIABLES */
+	private static final long SETTLE_MILLIS = 250;
+	private static DatabaseWatcher running;
+
+	private final Consumer<ExternalChanges<StudySet>> setsChanged;
+	private final Consumer<ExternalChanges<Note>> notesChanged;
+	private final HashSet<Long> changedShards = new HashSet<>();
+	private boolean sets;	// The manifest or a shard changed
+	private boolean allShards;	// Events were lost, so every shard is checked
+	private boolean notes;
+
+
+	private DatabaseWatcher(Consumer<ExternalChanges<StudySet>> setsChanged, Consumer<ExternalChanges<Note>> notesChanged) {
+		this.setsChanged = setsChanged;
+		this.notesChanged = notesChanged;
+	}
+
+
+	/**
+	 * Starts watching, unless already watching
+	 * @param setsChanged called with the sets read in again, on the thread that read them
+	 * @param notesChanged called with the notes read in again, on the thread that read them
+	 */
+	static synchronized void start(Consumer<ExternalChanges<StudySet>> setsChanged, Consumer<ExternalChanges<Note>> notesChanged) {
+		if (running != null) { return; }
+		running = new DatabaseWatcher(setsChanged, notesChanged);
+		Thread thread = new Thread(running, "database-watcher");
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+
+	@Override
+	public void run() {
+		SetShardStore.DIRECTORY.mkdirs();
+		Path setDirectory = SetShardStore.DIRECTORY.getAbsoluteFile().toPath();
+		Path noteDirectory = new File(FileStorage.NOTE_DATABASE).getAbsoluteFile().getParentFile().toPath();
+		try (WatchService watcher = FileSystems.getDefault().newWatchService()) {
+			WatchKey setKey = setDirectory.register(watcher, StandardWatchEventKinds.ENTRY_CREATE,
+					StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+			noteDirectory.register(watcher, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+
+			while (true) {
+				boolean waiting = sets || notes;
+				WatchKey key = waiting ? watcher.poll(SETTLE_MILLIS, TimeUnit.MILLISECONDS) : watcher.take();
+				if (key == null) {
+					reload();	// Quiet for long enough
+					continue;
+				}
+
+				for (WatchEvent<?> event : key.pollEvents()) {
+					if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+						sets = true;
+						allShards = true;
+						notes = true;
+						continue;
+					}
+					String name = event.context().toString();
+					if (key != setKey) {
+						if (name.equals(FileStorage.NOTE_DATABASE)) { notes = true; }
+					}
+					else if (name.equals(SetShardStore.MANIFEST.getName())) {
+						sets = true;
+					}
+					else if (name.endsWith(SetShardStore.SHARD_SUFFIX)) {
+						try {
+							changedShards.add(Long.parseLong(name.substring(0, name.length() - SetShardStore.SHARD_SUFFIX.length())));
+							sets = true;
+						}
+						catch (NumberFormatException e) {
+							// Not a shard, eg. a copy made by hand
+						}
+					}
+				}
+				if (!key.reset() && key == setKey) {
+					System.out.println("Set Directory No Longer Watched");
+				}
+			}
+		}
+		catch (IOException e) {
+			System.out.println("Database Watch Failed");
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+
+	/**
+	 * Reads in the files changed since the last reload, as a DatabaseService write
+	 */
+	private void reload() {
+		if (sets) {
+			ArrayList<Long> keys = allShards ? null : new ArrayList<>(changedShards);
+			DatabaseService.write(progress -> Database.reloadSets(keys)).getFuture()
+					.thenAccept(changes -> {
+						if (!changes.isEmpty()) { setsChanged.accept(changes); }
+					})
+					.exceptionally(e -> {
+						System.out.println("Set Reload Failed");
+						return null;
+					});
+		}
+		if (notes) {
+			DatabaseService.write(progress -> Database.reloadNotes()).getFuture()
+					.thenAccept(changes -> {
+						if (!changes.isEmpty()) { notesChanged.accept(changes); }
+					})
+					.exceptionally(e -> {
+						System.out.println("Note Reload Failed");
+						return null;
+					});
+		}
+		changedShards.clear();
+		sets = false;
+		allShards = false;
+		notes = false;
+	}
+}
@@ -0,0 +1,147 @@
+/**
+ * @author Michelle Nguyen
+ * @version 2026-10-17
+ */
+
+
+/* IMPORT STATEMENTS */
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.ToLongFunction;
+
+
+/**
+ * Sets or notes in order of a date, eg. the date they were last accessed.
+ *
+ * Items are kept in a skip list sorted by date, so the most recent items, or the items between two
+ * dates, are found by walking from one end or from the first date without sorting every item. An
+ * item whose date changes is put again, which moves it to its new place. Items with the same date
+ * are kept in the order they were put.
+ *
+ * Changes are made one at a time while reads go straight to the skip list, so the home tables can
+ * be filled from any thread while an item is being moved.
+ * @param <T> the type of item
+ */
+public class DateIndex<T> {
+	/* VARIABLES */
+	private final ToLongFunction<T> date;
+	private final ConcurrentSkipListMap<Position, T> byDate = new ConcurrentSkipListMap<>();
+	// Where each item is in byDate, to find it again once its date has changed
+	private final HashMap<T, Position> positions = new HashMap<>();
+	private long nextOrder;
+
+
+	/**
+	 * The place of an item in byDate: its date, then the order it was put in
+	 */
+	private static class Position implements Comparable<Position> {
+		final long date;
+		final long order;
+
+
+		Position(long date, long order) {
+			this.date = date;
+			this.order = order;
+		}
+
+
+		@Override
+		public int compareTo(Position other) {
+			int byDate = Long.compare(date, other.date);
+			return byDate != 0 ? byDate : Long.compare(order, other.order);
+		}
+	}
+
+
+	/**
+	 * @param date gets the date an item is ordered by, in epoch milliseconds
+	 */
+	public DateIndex(ToLongFunction<T> date) {
+		this.date = date;
+	}
+
+
+	/* UPDATING */
+
+
+	/**
+	 * Adds an item, or moves it to its new date if it is already in the index
+	 * @param item the item
+	 */
+	public synchronized void put(T item) {
+		remove(item);
+		Position position = new Position(date.applyAsLong(item), nextOrder++);
+		positions.put(item, position);
+		byDate.put(position, item);
+	}
+
+
+	/**
+	 * Takes an item out of the index
+	 * @param item the item
+	 */
+	public synchronized void remove(T item) {
+		Position position = positions.remove(item);
+		if (position != null) { byDate.remove(position); }
+	}
+
+
+	/**
+	 * Replaces every item in the index
+	 * @param items the items
+	 */
+	public synchronized void putAll(List<T> items) {
+		byDate.clear();
+		positions.clear();
+		for (T item : items) {
+			put(item);
+		}
+	}
+
+
+	/* QUERIES */
+
+
+	/**
+	 * Gets the items with the latest dates
+	 * @param limit the most items to return
+	 * @return the items, latest first
+	 */
+	public List<T> latest(int limit) {
+		return first(byDate.descendingMap().values(), limit);
+	}
+
+
+	/**
+	 * Gets the items with dates in a range
+	 * @param from the earliest date to include, in epoch milliseconds
+	 * @param to the date to stop before, in epoch milliseconds
+	 * @param limit the most items to return
+	 * @return the items, latest first
+	 */
+	public List<T> between(long from, long to, int limit) {
+		if (from >= to) { return new ArrayList<>(); }
+
+		Position start = new Position(from, Long.MIN_VALUE);
+		Position end = new Position(to, Long.MIN_VALUE);
+		return first(byDate.subMap(start, end).descendingMap().values(), limit);
+	}
+
+
+	/**
+	 * Copies the first items of a view of the skip list
+	 * @param items the view
+	 * @param limit the most items to copy
+	 * @return the items
+	 */
+	private static <E> List<E> first(Iterable<E> items, int limit) {
+		ArrayList<E> copied = new ArrayList<>();
+		for (E item : items) {
+			if (copied.size() >= limit) { break; }
+			copied.add(item);
+		}
+		return copied;
+	}
+}
@@ -0,0 +1,240 @@
+/**
+ * @author Michelle Nguyen
+ * @version 2026-10-17
+ */
+
+
+/* IMPORT STATEMENTS */
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Random;
+
+
+/**
+ * Finds flashcards that say nearly the same thing, across every set.
+ *
+ * Each flashcard's term and definition are split into words. Two cards are near duplicates when
+ * more than half of the words used by either card are used by both. Comparing every pair of cards
+ * would take too long with many cards, so each card gets a MinHash signature: for each of
+ * SIGNATURE_SIZE hash functions, the smallest hash of its words. Two cards agree on a part of the
+ * signature about as often as they share words. Signatures are cut into bands, and only cards that
+ * agree on a whole band are compared, which finds nearly every similar pair while comparing few
+ * others. Similar pairs are then joined into clusters.
+ */
+public class DuplicateFinder {
+	/* VARIABLES */
+	private static final int SIGNATURE_SIZE = 32;
+	private static final int BANDS = 16;	// Bands of SIGNATURE_SIZE / BANDS hashes each
+	private static final double SIMILARITY = 0.55;	// Least share of words for a near duplicate
+	private static final int MAX_COMPARED = 8;	// Most earlier cards in a bucket each card is compared with
+	private static final long[] SEEDS = new long[SIGNATURE_SIZE];
+
+	static {
+		// Fixed seeds, so the same cards are always found
+		Random random = new Random(406);
+		for (int i = 0; i < SIGNATURE_SIZE; i++) {
+			SEEDS[i] = random.nextLong();
+		}
+	}
+
+
+	/**
+	 * A flashcard as it was when duplicates were looked for
+	 */
+	public static class Card {
+		private final StudySet set;
+		private final String term;
+		private final String definition;
+
+
+		/**
+		 * @param set the set the flashcard belongs to
+		 * @param term the term of the flashcard
+		 * @param definition the definition of the flashcard
+		 */
+		public Card(StudySet set, String term, String definition) {
+			this.set = set;
+			this.term = term;
+			this.definition = definition;
+		}
+
+
+		public StudySet getSet() { return set; }
+		public String getTerm() { return term; }
+		public String getDefinition() { return definition; }
+
+
+		/**
+		 * Finds the flashcard in its set, if it has not been edited or removed since
+		 * @return the flashcard, or null if it is no longer in the set
+		 */
+		public Flashcard findFlashcard() {
+			for (Flashcard flashcard : set.getFlashcards()) {
+				if (flashcard.getTerm().equals(term) && flashcard.getDefinition().equals(definition)) {
+					return flashcard;
+				}
+			}
+			return null;
+		}
+	}
+
+
+	/* FINDING */
+
+
+	/**
+	 * Finds clusters of near duplicate cards
+	 * @param cards the cards to look through
+	 * @return each cluster of two or more cards, in the order the cards were given
+	 */
+	public static List<List<Card>> findClusters(List<Card> cards) {
+		int[][] words = new int[cards.size()][];
+		int[][] signatures = new int[cards.size()][];
+		for (int i = 0; i < cards.size(); i++) {
+			words[i] = words(cards.get(i));
+			signatures[i] = signature(words[i]);
+		}
+
+		// Compare the cards that agree on a band, joining the similar ones
+		int[] parents = new int[cards.size()];
+		for (int i = 0; i < parents.length; i++) {
+			parents[i] = i;
+		}
+		int rows = SIGNATURE_SIZE / BANDS;
+		for (int band = 0; band < BANDS; band++) {
+			HashMap<Long, ArrayList<Integer>> buckets = new HashMap<>();
+			for (int i = 0; i < signatures.length; i++) {
+				if (signatures[i] == null) { continue; }
+
+				long bucket = band;
+				for (int row = band * rows; row < (band + 1) * rows; row++) {
+					bucket = bucket * 1_000_003 + signatures[i][row];
+				}
+				ArrayList<Integer> members = buckets.computeIfAbsent(bucket, b -> new ArrayList<>());
+				for (int j = Math.max(0, members.size() - MAX_COMPARED); j < members.size(); j++) {
+					int other = members.get(j);
+					if (similarity(words[i], words[other]) >= SIMILARITY) {
+						parents[find(parents, i)] = find(parents, other);
+					}
+				}
+				members.add(i);
+			}
+		}
+
+		// Gather the clusters with more than one card, in order of their first card
+		int[] sizes = new int[parents.length];
+		for (int i = 0; i < parents.length; i++) {
+			sizes[find(parents, i)]++;
+		}
+		HashMap<Integer, List<Card>> clusters = new HashMap<>();
+		ArrayList<List<Card>> ordered = new ArrayList<>();
+		for (int i = 0; i < parents.length; i++) {
+			int root = find(parents, i);
+			if (sizes[root] < 2) { continue; }
+
+			List<Card> cluster = clusters.get(root);
+			if (cluster == null) {
+				cluster = new ArrayList<>();
+				clusters.put(root, cluster);
+				ordered.add(cluster);
+			}
+			cluster.add(cards.get(i));
+		}
+		return ordered;
+	}
+
+
+	/**
+	 * Gets the different words of a card
+	 * @param card the card
+	 * @return the hash of each different word, in ascending order
+	 */
+	private static int[] words(Card card) {
+		ArrayList<String> terms = new ArrayList<>();
+		SearchIndex.forEachTerm(card.getTerm() + "\n" + card.getDefinition(), terms::add);
+
+		int[] hashes = new int[terms.size()];
+		for (int i = 0; i < hashes.length; i++) {
+			hashes[i] = terms.get(i).hashCode();
+		}
+		return Arrays.stream(hashes).sorted().distinct().toArray();
+	}
+
+
+	/**
+	 * Works out the MinHash signature of a card
+	 * @param words the words of the card
+	 * @return the signature, or null if the card has no words
+	 */
+	private static int[] signature(int[] words) {
+		if (words.length == 0) { return null; }
+
+		int[] signature = new int[SIGNATURE_SIZE];
+		for (int i = 0; i < SIGNATURE_SIZE; i++) {
+			long min = Long.MAX_VALUE;
+			for (int word : words) {
+				min = Math.min(min, mix(word ^ SEEDS[i]));
+			}
+			signature[i] = (int) (min ^ (min >>> 32));
+		}
+		return signature;
+	}
+
+
+	/* HELPER METHODS */
+
+
+	/**
+	 * Works out the share of the words used by either of two cards that are used by both
+	 * @param a the words of one card, in ascending order
+	 * @param b the words of the other card, in ascending order
+	 * @return the share, from 0 to 1
+	 */
+	private static double similarity(int[] a, int[] b) {
+		int same = 0;
+		int i = 0;
+		int j = 0;
+		while (i < a.length && j < b.length) {
+			if (a[i] == b[j]) {
+				same++;
+				i++;
+				j++;
+			}
+			else if (a[i] < b[j]) { i++; }
+			else { j++; }
+		}
+		return (double) same / (a.length + b.length - same);
+	}
+
+
+	/**
+	 * Scrambles the bits of a number, so each seed gives an unrelated hash function
+	 * @param x the number
+	 * @return the scrambled number
+	 */
+	private static long mix(long x) {
+		x ^= x >>> 33;
+		x *= 0xFF51AFD7ED558CCDL;
+		x ^= x >>> 33;
+		x *= 0xC4CEB9FE1A85EC53L;
+		x ^= x >>> 33;
+		return x;
+	}
+
+
+	/**
+	 * Finds the card a cluster is named after, shortening the path to it on the way
+	 * @param parents the card each card was joined to
+	 * @param i the card
+	 * @return the card the cluster is named after
+	 */
+	private static int find(int[] parents, int i) {
+		while (parents[i] != i) {
+			parents[i] = parents[parents[i]];
+			i = parents[i];
+		}
+		return i;
+	}
+}
@@ -0,0 +1,62 @@
+/**
+ * @author Michelle Nguyen
+ * @version 2026-10-17
+ */
+
+
+/* IMPORT STATEMENTS */
+import java.util.ArrayList;
+import java.util.List;
+
+
+/**
+ * The sets or notes another program changed in the database files, eg. a sync tool, found by
+ * DatabaseWatcher. A changed record is read into a new object that replaces the old one, so a
+ * screen holding the old one still shows what it was opened with.
+ * @param <T> the type of item
+ */
+public class ExternalChanges<T> {
+	/* VARIABLES */
+	private final ArrayList<T> added = new ArrayList<>();
+	private final ArrayList<T> removed = new ArrayList<>();
+	private final ArrayList<T> replaced = new ArrayList<>();	// Old items, each replaced by the item at the same place in replacements
+	private final ArrayList<T> replacements = new ArrayList<>();
+
+
+	/* GET METHODS */
+	public List<T> getAdded() { return added; }
+	public List<T> getRemoved() { return removed; }
+	public List<T> getReplaced() { return replaced; }
+	public List<T> getReplacements() { return replacements; }
+	public boolean isEmpty() { return added.isEmpty() && removed.isEmpty() && replaced.isEmpty(); }
+
+
+	/* CHANGES */
+	void add(T item) { added.add(item); }
+	void remove(T item) { removed.add(item); }
+
+
+	/**
+	 * Records that an item was changed
+	 * @param old the item in memory
+	 * @param updated the item as it is now in the file
+	 */
+	void replace(T old, T updated) {
+		replaced.add(old);
+		replacements.add(updated);
+	}
+
+
+	/**
+	 * Makes the same changes to a list, eg. the items of a table, leaving the other items in place
+	 * @param items the list
+	 */
+	public void applyTo(List<T> items) {
+		items.removeAll(removed);
+		for (int i = 0; i < replaced.size(); i++) {
+			int index = items.indexOf(replaced.get(i));
+			if (index >= 0) { items.set(index, replacements.get(i)); }
+		}
+		items.addAll(added);
+	}
+}
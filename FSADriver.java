@@ -1,947 +1,1680 @@
-/**
- * @author Michelle Nguyen
- * @version 2025-04-07
- */
-
-
-/* IMPORT STATEMENTS */
-import java.io.FileNotFoundException;
-import java.util.ArrayList;
-import java.util.Iterator;
-import java.util.Date;
-
-import javafx.application.Application;
-import javafx.stage.Stage;
-import javafx.scene.Scene;
-
-import javafx.scene.layout.VBox;
-import javafx.scene.layout.HBox;
-import javafx.geometry.Pos;
-
-import javafx.scene.control.TabPane;
-import javafx.scene.control.TabPane.TabClosingPolicy;
-import javafx.scene.control.Tab;
-
-import javafx.scene.control.TableView;
-import javafx.scene.control.TableColumn;
-import javafx.scene.control.cell.PropertyValueFactory;
-import javafx.scene.image.Image;
-import javafx.scene.control.Label;
-import javafx.scene.control.ScrollPane;
-import javafx.scene.control.TextField;
-import javafx.scene.control.TextArea;
-import javafx.scene.control.Button;
-import javafx.scene.control.ButtonType;
-import javafx.scene.control.ComboBox;
-import javafx.scene.control.Alert;
-import javafx.scene.control.Alert.AlertType;
-import java.util.Optional;
-
-
-public class FSADriver extends Application {
-	/* VARIABLES */
-	private Scene scene;
-	private TabPane tabPane;
-	private Tab studySetTab;
-	private Tab noteTab;
-	private VBox studySetVBox;
-	private VBox noteVBox;
-	
-
-	/**
-	 * Launches the application
-	 */
-	public void start(Stage stage) throws Exception {
-		// Load information from database
-		Database.loadSets();
-		Database.loadNotes();
-		
-		// Setup the GUI
-		initializeUI();		
-		stage.setTitle("FlashStudyAid");
-		stage.getIcons().add(new Image("file:Icon.PNG"));	// App Icon
-		stage.setScene(scene);
-		stage.show();
-	}
-	
-	
-	/**
-	 * Create the tabs
-	 */
-	private void initializeUI() {
-		// Initial content box
-		VBox vbox = new VBox();
-		
-		// Create tabs
-		tabPane = new TabPane();
-		studySetTab = new Tab("Study Sets");
-		noteTab = new Tab("Notes");
-		tabPane.setTabClosingPolicy(TabClosingPolicy.UNAVAILABLE);
-		
-		// Set content for tabs to home
-		setNoteHome();
-		setStudyHome();
-		
-		tabPane.getTabs().addAll(studySetTab, noteTab);
-		vbox.getChildren().add(tabPane);
-		
-		// Create scene and add CSS
-		scene = new Scene(vbox, 1000, 600);
-		String css = this.getClass().getResource("style.css").toExternalForm();
-		scene.getStylesheets().add(css);
-	}
-	
-	
-	/**
-	 * Create a pop-up error warning
-	 * @param msg is the content to display on the warning
-	 */
-	private void getErrorAlert(String msg) {
-		Alert alert = new Alert(AlertType.ERROR);
-		alert.setContentText(msg);
-		alert.show();
-	}
-	/**
-	 * Create a pop-up confirmation message
-	 * @param msg is the content to display on the confirmation
-	 * @return an optional containing the action the user took
-	 */
-	private Optional<ButtonType> getConfirmationAlert(String msg) {
-		Alert alert = new Alert(AlertType.CONFIRMATION);
-		alert.setContentText(msg);
-		Optional<ButtonType> result = alert.showAndWait();
-		return result;
-	}
-	
-	
-	/**
-	 * Loads data from the database and inserts it into the StudySet table
-	 * @param table the StudySet table
-	 */
-	private void loadSets(TableView<StudySet> table) {
-		table.getItems().clear();
-		for (StudySet set : Database.getSets()) {
-			table.getItems().add(set);
-		}
-	}
-	
-	
-	/**
-	 * Update the access date of a set
-	 * @param set the set
-	 * @throws FileNotFoundException
-	 */
-	private void updateSetDateAccess(StudySet set) throws FileNotFoundException {
-		set.updateDateAccessed();
-		Database.updateSetDatabase();
-	}
-	
-	
-	/**
-	 * Sets the StudySet tab content to home
-	 */
-	@SuppressWarnings("unchecked")
-	private void setStudyHome() {
-		studySetVBox = new VBox(20);
-		studySetVBox.setAlignment(Pos.CENTER);
-		studySetTab.setContent(studySetVBox);
-		
-		// Create table
-		TableView<StudySet> studySetTable = new TableView<StudySet>();
-		
-		TableColumn<StudySet, Integer> studySetIDCol = new TableColumn<StudySet, Integer>("ID");
-		studySetIDCol.setCellValueFactory(new PropertyValueFactory<StudySet, Integer>("id"));
-		
-		TableColumn<StudySet, Date> studySetDateAccessedCol = new TableColumn<StudySet, Date>("Date Accessed");
-		studySetDateAccessedCol.setCellValueFactory(new PropertyValueFactory<StudySet, Date>("dateAccessed"));
-		
-		TableColumn<StudySet, String> studySetTitleCol = new TableColumn<StudySet, String>("Title");
-		studySetTitleCol.setCellValueFactory(new PropertyValueFactory<StudySet, String>("title"));
-		
-		TableColumn<StudySet, String> studySetDescriptionCol = new TableColumn<StudySet, String>("Description");
-		studySetDescriptionCol.setCellValueFactory(new PropertyValueFactory<StudySet, String>("description"));
-		
-		// Initial sizes of columns
-		studySetIDCol.setPrefWidth(50);
-		studySetDateAccessedCol.setPrefWidth(200);
-		studySetTitleCol.setPrefWidth(250);
-		studySetDescriptionCol.setPrefWidth(500);
-
-		// Add columns to table
-		studySetTable.getColumns().addAll(
-				studySetIDCol, 
-				studySetDateAccessedCol, 
-				studySetTitleCol, 
-				studySetDescriptionCol);
-
-		loadSets(studySetTable);
-		
-		// Creating a set
-		Button createStudySetButton = new Button("Create Set");
-		createStudySetButton.setOnAction(e -> { setStudyCreate(); });
-		
-		// Studying a set
-		Button studySetButton = new Button("Study");
-		studySetButton.setOnAction(e -> {
-			StudySet set = studySetTable.getSelectionModel().getSelectedItem();
-			if (set != null) { 
-				try {
-					updateSetDateAccess(set);
-					setStudy(set); 
-				} 
-				catch (FileNotFoundException e1) { System.out.println("Update Set Access Time Failed"); }
-			}
-			else { getErrorAlert("Select Set First"); }
-		});
-		
-		// Editing a set
-		Button editStudySetButton = new Button("Edit");
-		editStudySetButton.setOnAction(e -> {
-			StudySet set = studySetTable.getSelectionModel().getSelectedItem();
-			if (set != null) { 
-				try {
-					updateSetDateAccess(set);
-					setEditStudy(set); 
-				} 
-				catch (FileNotFoundException e1) { System.out.println("Update Set Access Time Failed"); }
-			} 
-			else { getErrorAlert("Select Set First"); }
-		});
-		
-		// Deleting a set
-		Button deleteStudySetButton = new Button("Delete");
-		deleteStudySetButton.setOnAction(e -> {
-			StudySet set = studySetTable.getSelectionModel().getSelectedItem();
-			if (set != null) {
-				Optional<ButtonType> result = getConfirmationAlert("Are you sure you want to delete this set?");
-				if (result.get() == ButtonType.OK) {
-					try { Database.deleteSet(set); } 
-					catch (FileNotFoundException e1) { System.out.println("Set Delete Failed"); }
-					loadSets(studySetTable);
-				}
-			} else { getErrorAlert("Select Set First"); }
-		});
-		
-		HBox buttonsHBox = new HBox(20, createStudySetButton, studySetButton, editStudySetButton, deleteStudySetButton);
-		buttonsHBox.setAlignment(Pos.CENTER);
-		
-		studySetVBox.getChildren().addAll(studySetTable, buttonsHBox);
-	}
-	
-	
-	/**
-	 * Creates a button to return to the StudySet home
-	 * @return the StudySet home button
-	 */
-	private Button createStudyHomeButton() {
-		Button homeButton = new Button("Home");
-		homeButton.setOnAction(e -> { setStudyHome(); } );
-		return homeButton;
-	}
-	
-	
-	/**
-	 * Loads flashcards of a set into a selected set
-	 * @param table the Flashcard table
-	 * @param flashcards the set of Flashcards of the set
-	 */
-	private void loadFlashcards(TableView<Flashcard> table, ArrayList<Flashcard> flashcards) {
-		table.getItems().clear();
-		for (Flashcard flashcard : flashcards) {
-			table.getItems().add(flashcard);
-		}
-	}
-	
-	
-	/**
-	 * Sets the StudySet tab content to creating a new flashcard
-	 * @param createPage the StudySet creation page
-	 * @param table the Flashcard table
-	 * @param flashcards the set of Flashcards of the set
-	 */
-	private void setFlashcardCreate(VBox createPage, TableView<Flashcard> table, ArrayList<Flashcard> flashcards) {
-		studySetVBox = new VBox(20);
-		studySetVBox.setAlignment(Pos.CENTER);
-		studySetTab.setContent(studySetVBox);
-		
-		Button homeButton = createStudyHomeButton();
-		
-		// Title of page
-		Label title = new Label("New Flashcard");
-		
-		Button backButton = new Button("Cancel");
-		backButton.setOnAction(e -> { 
-			studySetVBox = createPage;
-			studySetTab.setContent(studySetVBox);
-			});
-		HBox topHBox = new HBox(10, title, backButton);
-		
-		// Prompt for priority
-		Label priorityLabel = new Label("Priority");
-		ComboBox<Integer> priorityComboBox = new ComboBox<Integer>();
-		priorityComboBox.getItems().addAll(1, 2, 3);
-		priorityComboBox.setValue(2);
-		HBox priorityHBox = new HBox(10, priorityLabel, priorityComboBox);
-		
-		// Prompt for term
-		Label termLabel = new Label("Term");
-		TextField termInput = new TextField();
-		termInput.setPromptText("Required");
-		VBox termVBox = new VBox(termLabel, termInput);
-		
-		// Prompt for definition
-		Label definitionLabel = new Label("Definition");
-		TextField definitionInput = new TextField();
-		definitionInput.setPromptText("Required");
-		VBox definitionVBox = new VBox(definitionLabel, definitionInput);
-		
-		Button createFlashcardButton = new Button("Create");
-		createFlashcardButton.setOnAction(e -> {
-			// Get flashcard values
-			String term = termInput.getText();
-			String definition = definitionInput.getText();
-			int priority = priorityComboBox.getValue();
-			
-			// Check that required values are there ie. term, definition
-			String isValid = Database.validFlashcard(term, definition);
-			if (isValid == "Valid") {
-				flashcards.add(new Flashcard(term, definition, priority));
-				// Same code as Back button
-				studySetVBox = createPage;
-				loadFlashcards(table, flashcards);
-				studySetTab.setContent(studySetVBox);
-			}
-			else { getErrorAlert(isValid); }
-		});
-		
-		studySetVBox.getChildren().addAll(homeButton, topHBox, priorityHBox, termVBox, definitionVBox, createFlashcardButton);
-	}
-	
-	
-	/**
-	 * Editing a flashcard
-	 * @param setPage the page of the set that the flashcard belongs to
-	 * @param table the table of flashcards
-	 * @param flashcards the set of flashcards 
-	 * @param flashcard the flashcard we are editing
-	 */
-	private void setFlashcardEdit(VBox setPage, TableView<Flashcard> table, ArrayList<Flashcard> flashcards, Flashcard flashcard) {
-		studySetVBox = new VBox(20);
-		studySetVBox.setAlignment(Pos.CENTER);
-		studySetTab.setContent(studySetVBox);
-		
-		Button homeButton = createStudyHomeButton();
-		
-		// Title of page
-		Label title = new Label("Editing Flashcard");
-		
-		Button backButton = new Button("Cancel");
-		backButton.setOnAction(e -> { 
-			studySetVBox = setPage;
-			studySetTab.setContent(studySetVBox);
-			});
-		HBox topHBox = new HBox(10, title, backButton);
-		
-		// Prompt for priority
-		Label priorityLabel = new Label("Priority");
-		ComboBox<Integer> priorityComboBox = new ComboBox<Integer>();
-		priorityComboBox.getItems().addAll(1, 2, 3);
-		priorityComboBox.setValue(flashcard.getPriority());
-		HBox priorityHBox = new HBox(10, priorityLabel, priorityComboBox);
-		
-		// Prompt for term
-		Label termLabel = new Label("Term");
-		TextField termInput = new TextField(flashcard.getTerm());
-		termInput.setPromptText("Required");
-		VBox termVBox = new VBox(termLabel, termInput);
-		
-		// Prompt for definition
-		Label definitionLabel = new Label("Definition");
-		TextField definitionInput = new TextField(flashcard.getDefinition());
-		definitionInput.setPromptText("Required");
-		VBox definitionVBox = new VBox(definitionLabel, definitionInput);
-		
-		Button updateButton = new Button("Update Flashcard");
-		updateButton.setOnAction (e -> {
-			// Get flashcard values
-			String term = termInput.getText();
-			String definition = definitionInput.getText();
-			int priority = priorityComboBox.getValue();
-			
-			// Check that required values are there ie. term, definition
-			String isValid = Database.validFlashcard(term, definition);
-			if (isValid == "Valid") {
-				Database.editFlashcard(flashcard, term, definition, priority);
-				// Same code as Back button
-				studySetVBox = setPage;
-				loadFlashcards(table, flashcards);
-				studySetTab.setContent(studySetVBox);
-			} else { getErrorAlert(isValid); }
-		});
-		
-		studySetVBox.getChildren().addAll(homeButton, topHBox, priorityHBox, termVBox, definitionVBox, updateButton);
-	}
-	
-	
-	/**
-	 * Sets the StudySet tab content to creating a new set
-	 */
-	@SuppressWarnings("unchecked")
-	private void setStudyCreate() {
-		studySetVBox = new VBox();
-		studySetVBox.setAlignment(Pos.CENTER);
-		studySetTab.setContent(studySetVBox);
-		
-		Button homeButton = createStudyHomeButton();
-		
-		// Title of page
-		Label title = new Label("New Study Set");
-		HBox topHBox = new HBox(title);
-		
-		// Prompt for title
-		Label titleLabel = new Label("Title");
-		TextField titleInput = new TextField();
-		titleInput.setPromptText("Required");
-		HBox titleHBox = new HBox(titleLabel, titleInput);
-		
-		// Prompt for description
-		Label descriptionLabel = new Label("Description");
-		TextField descriptionInput = new TextField();
-		descriptionInput.setPromptText("Optional");
-		HBox descriptionHBox = new HBox(descriptionLabel, descriptionInput);
-		
-		// Create flashcards table
-		Label flashcardTableLabel = new Label("Flashcards");
-		
-		TableView<Flashcard> flashcardTable = new TableView<Flashcard>();
-		
-		TableColumn<Flashcard, Integer> flashcardPriorityCol = new TableColumn<Flashcard, Integer>("Priority");
-		flashcardPriorityCol.setCellValueFactory(new PropertyValueFactory<Flashcard, Integer>("priority"));
-		
-		TableColumn<Flashcard, String> flashcardTermCol = new TableColumn<Flashcard, String>("Term");
-		flashcardTermCol.setCellValueFactory(new PropertyValueFactory<Flashcard, String>("term"));
-		
-		TableColumn<Flashcard, String> flashcardDefinitionCol = new TableColumn<Flashcard, String>("Definition");
-		flashcardDefinitionCol.setCellValueFactory(new PropertyValueFactory<Flashcard, String>("definition"));
-		
-		// Initialize sizes of columns
-		flashcardPriorityCol.setPrefWidth(100);
-		flashcardTermCol.setPrefWidth(400);
-		flashcardDefinitionCol.setPrefWidth(500);
-		
-		// Add columns to table
-		flashcardTable.getColumns().addAll(flashcardPriorityCol, flashcardTermCol, flashcardDefinitionCol);
-			
-		ArrayList<Flashcard> flashcards = new ArrayList<>();
-		
-		// Prompt for new flashcard
-		Button addButton = new Button("Add");
-		addButton.setOnAction(e -> { 
-			setFlashcardCreate(studySetVBox, flashcardTable, flashcards); 
-		});
-		
-		// Edit a flashcard
-		Button editButton = new Button("Edit");
-		editButton.setOnAction(e -> {
-			Flashcard flashcard = flashcardTable.getSelectionModel().getSelectedItem();
-			if (flashcard != null) { setFlashcardEdit(studySetVBox, flashcardTable, flashcards, flashcard); }
-			else { getErrorAlert("Select Flashcard First"); }
-		});
-		
-		// Delete a flashcard
-		Button deleteButton = new Button("Delete");
-		deleteButton.setOnAction(e -> {
-			Flashcard flashcard = flashcardTable.getSelectionModel().getSelectedItem();
-			if (flashcard != null) {
-				Optional<ButtonType> result = getConfirmationAlert("Are you sure you want to delete this flashcard?");
-				if (result.get() == ButtonType.OK) {
-					flashcards.remove(flashcard);
-					loadFlashcards(flashcardTable, flashcards);
-				}
-			} else { getErrorAlert("Select Flashcard First"); }
-		});
-		
-		HBox flashcardHBox = new HBox(flashcardTableLabel, addButton, editButton, deleteButton);
-		VBox flashcardVBox = new VBox(flashcardHBox, flashcardTable);
-		
-		Button createButton = new Button("Create");
-		createButton.setOnAction (e -> {
-			String result;
-			try {
-				result = Database.addSet(titleInput.getText(), descriptionInput.getText(), flashcards);
-				// Ensure required fields are there, ie. title and > 1 flashcard
-				if (result == "Successful") { setStudyHome(); }
-				else { getErrorAlert(result); }
-			} catch (FileNotFoundException e1) { System.out.println("Set Create Failed"); }
-		});
-		
-		studySetVBox.getChildren().addAll(homeButton, topHBox, titleHBox, descriptionHBox, flashcardVBox, createButton);
-	}
-	
-	
-	// Needs to be defined here because cannot change values from within button action scope
-	private Iterator<Flashcard> it;
-	private Flashcard flashcard;
-	private int count;
-	
-	
-	/**
-	 * Sets the StudySet tab content to studying a selected set
-	 * @param set the set to study
-	 */
-	private void setStudy(StudySet set) {
-		studySetVBox = new VBox(20);
-		studySetVBox.setAlignment(Pos.CENTER);
-		studySetTab.setContent(studySetVBox);
-
-		Button homeButton = createStudyHomeButton();
-		
-		// Title of page
-		Label title = new Label(set.getTitle());
-		HBox topHBox = new HBox(title);
-		
-		// Setup flashcard view
-		Label flashcardDetail = new Label();
-		Label flashcardPriority = new Label();
-		TextArea flashcardText = new TextArea();
-			flashcardText.setEditable(false);
-			flashcardText.setPrefWidth(500);
-			flashcardText.setPrefHeight(300);
-			flashcardText.setWrapText(true);
-		Label flashcardNumber = new Label();
-		
-		VBox flashcardInfoVBox = new VBox(flashcardDetail, flashcardPriority);
-		
-		// Get flashcards
-		ArrayList<Flashcard> flashcards = set.shuffleFlashcards();
-		int total = set.getSize();
-		count = 1;
-		it = flashcards.iterator();
-		
-		// Get first flashcard
-		flashcard = it.next();
-		
-		// Show first flashcard
-		flashcardDetail.setText("Term");
-		flashcardPriority.setText("Priority: " + Integer.toString(flashcard.getPriority()));
-		flashcardText.setText(flashcard.getTerm());
-		flashcardNumber.setText(Integer.toString(count) + " / " + Integer.toString(total));
-		
-		// Flipping the flashcard
-		Button flipButton = new Button("Flip");
-		flipButton.setOnAction(e -> { 
-			// Flip to definition
-			if (flashcardDetail.getText().equals("Term")) {
-				flashcardDetail.setText("Definition");
-				flashcardText.setText(flashcard.getDefinition());
-			}
-			// Flip to term
-			else {
-				flashcardDetail.setText("Term");
-				flashcardText.setText(flashcard.getTerm());
-			}			
-		});
-		
-		// Next flashcard
-		Button nextButton = new Button("Next");
-		
-		HBox buttonsHBox = new HBox(50, flipButton, nextButton);
-		buttonsHBox.setAlignment(Pos.CENTER);
-		
-		// Styling to put the buttons directly underneath the flashcard
-		VBox centerVBox = new VBox(flashcardText, buttonsHBox);
-		
-		HBox flashcardHBox = new HBox(flashcardInfoVBox, centerVBox, flashcardNumber);
-		flashcardHBox.setAlignment(Pos.CENTER);
-		
-		nextButton.setOnAction(e -> {
-			// Haven't reached end of set
-			if (it.hasNext()) {
-				// Get next flashcard
-				flashcard = it.next();
-				flashcardDetail.setText("Term");
-				flashcardPriority.setText("Priority: " + Integer.toString(flashcard.getPriority()));
-				flashcardText.setText(flashcard.getTerm());
-				// Update flashcard count
-				count++;
-				flashcardNumber.setText(Integer.toString(count) + " / " + Integer.toString(total));
-			}
-			// Reached end of set
-			else {
-				if (nextButton.getText().equals("Again")) {
-					setStudy(set);
-				}
-				else {
-					flashcardText.setText("Reached end of set");
-					nextButton.setText("Again");
-					flashcardDetail.setText("");
-					flashcardPriority.setText("");
-					buttonsHBox.getChildren().remove(flipButton);
-				}
-			}
-		});
-		
-		studySetVBox.getChildren().addAll(homeButton, topHBox, flashcardHBox);
-	}
-	
-
-	/**
-	 * Sets the StudySet tab content to editing a selected set
-	 * @param set the set to edit
-	 */
-	@SuppressWarnings("unchecked")
-	private void setEditStudy(StudySet set) {
-		studySetVBox = new VBox();
-		studySetVBox.setAlignment(Pos.CENTER);
-		studySetTab.setContent(studySetVBox);
-		
-		Button homeButton = createStudyHomeButton();
-		
-		// Title of page
-		Label title = new Label("Edit Set");
-		HBox topHBox = new HBox(title);
-		
-		// Prompt for title
-		Label titleLabel = new Label("Title");
-		TextField titleInput = new TextField(set.getTitle());
-		titleInput.setPromptText("Required");
-		HBox titleHBox = new HBox(titleLabel, titleInput);
-		
-		// Prompt for description
-		Label descriptionLabel = new Label("Description");
-		TextField descriptionInput = new TextField(set.getDescription());
-		descriptionInput.setPromptText("Optional");
-		HBox descriptionHBox = new HBox(descriptionLabel, descriptionInput);
-		
-		// Create flashcards table
-		Label flashcardTableLabel = new Label("Flashcards");
-		
-		TableView<Flashcard> flashcardTable = new TableView<Flashcard>();
-		
-		TableColumn<Flashcard, Integer> flashcardPriorityCol = new TableColumn<Flashcard, Integer>("Priority");
-		flashcardPriorityCol.setCellValueFactory(new PropertyValueFactory<Flashcard, Integer>("priority"));
-		
-		TableColumn<Flashcard, String> flashcardTermCol = new TableColumn<Flashcard, String>("Term");
-		flashcardTermCol.setCellValueFactory(new PropertyValueFactory<Flashcard, String>("term"));
-		
-		TableColumn<Flashcard, String> flashcardDefinitionCol = new TableColumn<Flashcard, String>("Definition");
-		flashcardDefinitionCol.setCellValueFactory(new PropertyValueFactory<Flashcard, String>("definition"));
-		
-		// Initialize sizes of columns
-		flashcardPriorityCol.setPrefWidth(100);
-		flashcardTermCol.setPrefWidth(400);
-		flashcardDefinitionCol.setPrefWidth(500);
-		
-		// Add columns to table
-		flashcardTable.getColumns().addAll(flashcardPriorityCol, flashcardTermCol, flashcardDefinitionCol);
-		
-		// Get set flashcards
-		ArrayList<Flashcard> flashcards = set.getFlashcards();
-		loadFlashcards(flashcardTable, flashcards);
-		
-		// Prompt for new flashcard
-		Button addButton = new Button("Add");
-		addButton.setOnAction(e -> { 
-			setFlashcardCreate(studySetVBox, flashcardTable, flashcards); 
-		});
-		
-		// Edit a flashcard
-		Button editButton = new Button("Edit");
-		editButton.setOnAction (e -> {
-			Flashcard flashcard = flashcardTable.getSelectionModel().getSelectedItem();
-			if (flashcard != null) { setFlashcardEdit(studySetVBox, flashcardTable, flashcards, flashcard); }
-			else { getErrorAlert("Select Flashcard First"); }
-		});
-		
-		// Delete a flashcard
-		Button deleteButton = new Button("Delete");
-		deleteButton.setOnAction(e -> {
-			Flashcard flashcard = flashcardTable.getSelectionModel().getSelectedItem();
-			if (flashcard != null) {
-				// Get confirmation message
-				Optional<ButtonType> result = getConfirmationAlert("Are you sure you want to delete this flashcard?");
-				if (result.get() == ButtonType.OK) {
-					flashcards.remove(flashcard);
-					// Reload table with changes
-					loadFlashcards(flashcardTable, flashcards);
-				}
-			} else { getErrorAlert("Select Flashcard First"); }
-		});
-		
-		HBox flashcardHBox = new HBox(flashcardTableLabel, addButton, editButton, deleteButton);
-		VBox flashcardVBox = new VBox(flashcardHBox, flashcardTable);
-		
-		Button editSetButton = new Button("Update");
-		editSetButton.setOnAction (e -> {
-			String inputTitle = titleInput.getText();
-			String inputDescription = descriptionInput.getText();
-			String result;
-			try {
-				// Ensure all required fields are there ie. title, description
-				result = Database.editSet(set, inputTitle, inputDescription, flashcards);
-				if (result == "Successful") { setStudyHome(); }
-				else { getErrorAlert(result); }
-			} catch (FileNotFoundException e1) { System.out.println("Set Edit Failed"); }
-		});
-		
-		studySetVBox.getChildren().addAll(homeButton, topHBox, titleHBox, descriptionHBox, flashcardVBox, editSetButton);
-	}
-		
-	
-	/**
-	 * Loads data from the database and inserts it into the Note table
-	 * @param table the Note table
-	 */
-	private void loadNotes(TableView<Note> table) {
-		table.getItems().clear();
-		for (Note note : Database.getNotes()) {
-			table.getItems().add(note);
-		}
-	}
-	
-	
-	/**
-	 * Update the access date of a note
-	 * @param note the note
-	 * @throws FileNotFoundException
-	 */
-	private void updateNoteDateAccess(Note note) throws FileNotFoundException {
-		note.updateDateAccessed();
-		Database.updateNoteDatabase();
-	}
-	
-	
-	/**
-	 * Sets the Note tab content to home
-	 */
-	@SuppressWarnings("unchecked")
-	private void setNoteHome() {
-		noteVBox = new VBox(20);
-		noteVBox.setAlignment(Pos.CENTER);
-		noteTab.setContent(noteVBox);
-		
-		// Create table
-		TableView<Note> noteTable = new TableView<Note>();
-		
-		TableColumn<Note, Integer> noteIDCol = new TableColumn<Note, Integer>("ID");
-		noteIDCol.setCellValueFactory(new PropertyValueFactory<Note, Integer>("id"));
-		
-		TableColumn<Note, Date> noteDateAccessedCol = new TableColumn<Note, Date>("Date Accessed");
-		noteDateAccessedCol.setCellValueFactory(new PropertyValueFactory<Note, Date>("dateAccessed"));
-		
-		TableColumn<Note, String> noteTitleCol = new TableColumn<Note, String>("Title");
-		noteTitleCol.setCellValueFactory(new PropertyValueFactory<Note, String>("title"));
-		
-		TableColumn<Note, String> noteDescriptionCol = new TableColumn<Note, String>("Description");
-		noteDescriptionCol.setCellValueFactory(new PropertyValueFactory<Note, String>("description"));
-		
-		// Initial sizes of columns
-		noteIDCol.setPrefWidth(50);
-		noteDateAccessedCol.setPrefWidth(200);
-		noteTitleCol.setPrefWidth(250);
-		noteDescriptionCol.setPrefWidth(500);
-		
-		// Add columns to table
-		noteTable.getColumns().addAll(
-				noteIDCol, 
-				noteDateAccessedCol, 
-				noteTitleCol, 
-				noteDescriptionCol);
-		
-		loadNotes(noteTable);
-		
-		// Creating a note
-		Button createNoteButton = new Button("Create Note");
-		createNoteButton.setOnAction(e -> { setNoteCreate(); });
-		
-		// Viewing a note
-		Button viewNoteButton = new Button("View");
-		viewNoteButton.setOnAction(e -> {
-			Note note = noteTable.getSelectionModel().getSelectedItem();
-			if (note != null) { 
-				try {
-					updateNoteDateAccess(note);
-					viewNote(note); 
-				} 
-				catch (FileNotFoundException e1) { System.out.println("Update Note Access Time Failed"); }
-			}
-			else { getErrorAlert("Select Note First"); }
-		});
-		
-		// Editing a note
-		Button editNoteButton = new Button("Edit");
-		editNoteButton.setOnAction(e -> {
-			Note note = noteTable.getSelectionModel().getSelectedItem();
-			if (note != null) { 
-				try {
-					updateNoteDateAccess(note);
-					setEditNote(note);
-				} 
-				catch (FileNotFoundException e1) { System.out.println("Update Note Access Time Failed"); }
-			}
-			else { getErrorAlert("Select Note First"); }
-		});
-		
-		// Deleting a note
-		Button deleteNoteButton = new Button("Delete");
-		deleteNoteButton.setOnAction(e -> {
-			Note note = noteTable.getSelectionModel().getSelectedItem();
-			if (note != null) {
-				// Get confirmation message
-				Optional<ButtonType> result = getConfirmationAlert("Are you sure you want to delete this note?");
-				if (result.get() == ButtonType.OK) {
-					try { Database.deleteNote(note); } 
-					catch (FileNotFoundException e1) { System.out.println("Note Delete Failed"); }
-					loadNotes(noteTable);
-				}
-			}
-			else { getErrorAlert("Select Note First"); }
-		});
-		
-		HBox buttonsHBox = new HBox(20, createNoteButton, viewNoteButton, editNoteButton, deleteNoteButton);
-		buttonsHBox.setAlignment(Pos.CENTER);
-		
-		noteVBox.getChildren().addAll(noteTable, buttonsHBox);
-	}
-	
-	
-	/**
-	 * Creates a button to return to the Note home
-	 * @return
-	 */
-	private Button createNoteHomeButton() {
-		Button homeButton = new Button("Home");
-		homeButton.setOnAction(e -> { setNoteHome(); } );
-		return homeButton;
-	}
-	
-	
-	/**
-	 * Sets the Note tab content to creating a new note
-	 */
-	private void setNoteCreate() {
-		noteVBox = new VBox();
-		noteVBox.setAlignment(Pos.CENTER);
-		noteTab.setContent(noteVBox);
-		
-		Button homeButton = createNoteHomeButton();
-		
-		// Title of page
-		Label title = new Label("New Note");
-		HBox topHBox = new HBox(title);
-		
-		// Prompt for title
-		Label titleLabel = new Label("Title");
-		TextField titleInput = new TextField();
-		titleInput.setPromptText("Required");
-		HBox titleHBox = new HBox(titleLabel, titleInput);
-		
-		// Prompt for description
-		Label descriptionLabel = new Label("Description");
-		TextField descriptionInput = new TextField();
-		descriptionInput.setPromptText("Optional");
-		HBox descriptionHBox = new HBox(descriptionLabel, descriptionInput);
-		
-		// Prompt for text
-		Label textLabel = new Label("Text");
-		TextArea textInput = new TextArea();
-		textInput.setPromptText("Optional");
-		textInput.setWrapText(true);
-		VBox textVBox = new VBox(textLabel, textInput);
-		
-		// Creating a note
-		Button createButton = new Button("Create");
-		createButton.setOnAction(e -> {
-			try {
-				String result = Database.addNote(titleInput.getText(), descriptionInput.getText(), textInput.getText());
-				// Ensure required fields are there, ie. title
-				if (result == "Successful") { setNoteHome(); }
-				else { getErrorAlert(result); }
-			} 
-			catch (FileNotFoundException e1) { System.out.println("Note Create Failed"); }
-		});
-		
-		noteVBox.getChildren().addAll(homeButton, topHBox, titleHBox, descriptionHBox, textVBox, createButton);
-	}
-	
-	
-	/**
-	 * Sets the Note tab content to viewing a selected note
-	 * @param note the note to view
-	 */
-	private void viewNote(Note note) {
-		noteVBox = new VBox(20);
-		noteVBox.setAlignment(Pos.CENTER);
-		noteTab.setContent(noteVBox);
-		
-		Button homeButton = createNoteHomeButton();
-		
-		// Title of page
-		Label title = new Label(note.getTitle());
-		HBox topHBox = new HBox(title);
-		
-		// Get details
-		Label description = new Label(note.getDescription());
-		Label wordCount = new Label("Word Count: " + note.getWordCount());
-		Label text = new Label("\n" + note.getText());
-		text.setPrefWidth(1000);
-		text.setPrefHeight(400);
-		text.setAlignment(Pos.TOP_LEFT);
-
-		// Scroll bar
-		ScrollPane scrollBar = new ScrollPane(text);
-		
-		HBox noteHBox = new HBox(scrollBar, text);
-		
-		noteVBox.getChildren().addAll(homeButton, topHBox, description, wordCount, noteHBox);
-	}
-	
-	
-	/**
-	 * Sets the Note tab to editing a selected note
-	 * @param note the note to edit
-	 */
-	private void setEditNote(Note note) {
-		noteVBox = new VBox();
-		noteVBox.setAlignment(Pos.CENTER);
-		noteTab.setContent(noteVBox);
-		
-		Button homeButton = createNoteHomeButton();
-		
-		// Title of page
-		Label title = new Label("Edit Note");
-		HBox topHBox = new HBox(title);
-
-		// Prompt for title
-		Label titleLabel = new Label("Title");
-		TextField titleInput = new TextField(note.getTitle());
-		titleInput.setPromptText("Required");
-		HBox titleHBox = new HBox(titleLabel, titleInput);
-
-		// Prompt for description
-		Label descriptionLabel = new Label("Description");
-		TextField descriptionInput = new TextField(note.getDescription());
-		descriptionInput.setPromptText("Optional");
-		HBox descriptionHBox = new HBox(descriptionLabel, descriptionInput);
-
-		// Prompt for text
-		Label textLabel = new Label("Text");
-		TextArea textInput = new TextArea(note.getText());
-		textInput.setPromptText("Optional");
-		textInput.setWrapText(true);
-		VBox textVBox = new VBox(textLabel, textInput);
-		
-		// Editing a note
-		Button editButton = new Button("Update");
-		editButton.setOnAction(e -> {
-			try {
-				String result = Database.editNote(note, titleInput.getText(), descriptionInput.getText(), textInput.getText());
-				if (result == "Successful") { setNoteHome(); }
-				else { getErrorAlert(result); }
-			} 
-			catch (FileNotFoundException e1) { System.out.println("Note Edit Failed"); }
-		});
-		
-		noteVBox.getChildren().addAll(homeButton, topHBox, titleHBox, descriptionHBox, textVBox, editButton);
-	}
-}
+/**
+ * @author Michelle Nguyen
+ * @version 2026-10-17
+ */
+
+
+/* IMPORT STATEMENTS */
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Date;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+
+import javafx.application.Application;
+import javafx.application.Platform;
+import javafx.beans.property.BooleanProperty;
+import javafx.beans.property.SimpleBooleanProperty;
+import javafx.beans.property.SimpleObjectProperty;
+import javafx.beans.property.SimpleStringProperty;
+import javafx.stage.Stage;
+import javafx.scene.Node;
+import javafx.scene.Scene;
+
+import javafx.scene.layout.VBox;
+import javafx.scene.layout.HBox;
+import javafx.geometry.Pos;
+import javafx.geometry.Side;
+
+import javafx.scene.control.TabPane;
+import javafx.scene.control.TabPane.TabClosingPolicy;
+import javafx.scene.control.Tab;
+
+import javafx.scene.control.TableView;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.cell.PropertyValueFactory;
+import javafx.scene.image.Image;
+import javafx.scene.control.Label;
+import javafx.scene.control.ProgressIndicator;
+import javafx.scene.control.ScrollPane;
+import javafx.scene.control.TextField;
+import javafx.scene.control.TextArea;
+import javafx.scene.control.Button;
+import javafx.scene.control.ButtonType;
+import javafx.scene.control.ComboBox;
+import javafx.scene.control.ContextMenu;
+import javafx.scene.control.SelectionMode;
+import javafx.scene.control.MenuItem;
+import javafx.scene.control.Alert;
+import javafx.scene.control.Alert.AlertType;
+import java.util.Optional;
+
+
+public class FSADriver extends Application {
+	/* VARIABLES */
+	private Scene scene;
+	private TabPane tabPane;
+	private Tab studySetTab;
+	private Tab noteTab;
+	private VBox studySetVBox;
+	private VBox noteVBox;
+	
+	// Sets and notes are loaded in the background, and shown in the home tables as they arrive
+	private final BooleanProperty setsLoading = new SimpleBooleanProperty(true);
+	private final BooleanProperty notesLoading = new SimpleBooleanProperty(true);
+	private final ArrayList<StudySet> loadingSets = new ArrayList<>();
+	private final ArrayList<Note> loadingNotes = new ArrayList<>();
+	// Rows of the home tables, kept between visits and following every change while they show every set or note
+	private final StoreBinding<StudySet> setRows = new StoreBinding<>(Database::getSetSnapshot, Platform::runLater);
+	private final StoreBinding<Note> noteRows = new StoreBinding<>(Database::getNoteSnapshot, Platform::runLater);
+	// The home tables open on the most recently accessed sets and notes, until "All" is chosen
+	private static final int RECENT_LIMIT = 25;
+	private boolean recentSets = true;
+	private boolean recentNotes = true;
+	// When the flashcard being studied was shown and how long until it was flipped, for the review log
+	private long shownAt;
+	private int flipMillis;
+	
+
+	/**
+	 * Launches the application
+	 */
+	public void start(Stage stage) throws Exception {
+		// Setup the GUI
+		initializeUI();		
+		stage.setTitle("FlashStudyAid");
+		stage.getIcons().add(new Image("file:Icon.PNG"));	// App Icon
+		stage.setScene(scene);
+		reportFirstFrame();
+		stage.show();
+		
+		// Load information from database while the window is showing
+		loadDatabase();
+	}
+	
+	
+	/**
+	 * Loads sets and notes at the same time through DatabaseService. Each batch is added to the
+	 * home tables as it arrives, and buttons that change sets or notes are enabled once loading finishes.
+	 */
+	private void loadDatabase() {
+		Database.addSetListener(setRows);
+		Database.addNoteListener(noteRows);
+		DatabaseService.Job<Void> setLoader = DatabaseService.read(progress -> {
+			int[] count = new int[1];
+			Database.loadSets(batch -> {
+				count[0] += batch.size();
+				progress.update(count[0], -1, "Loaded " + count[0] + " sets");
+				Platform.runLater(() -> {
+					loadingSets.addAll(batch);
+					setRows.getRows().addAll(batch);
+				});
+			});
+			return null;
+		});
+		setLoader.setOnSucceeded(e -> {
+			loadingSets.clear();
+			setsLoading.set(false);
+			loadSets();
+			System.out.println("Sets Loaded After " + millisSinceLaunch() + "ms");
+			watchDatabase();
+			
+			// Looks for near duplicate flashcards once the sets are loaded, shown when editing a set
+			DatabaseService.Job<Void> duplicateFinder = DatabaseService.read(progress -> { Database.findDuplicates(); return null; });
+			duplicateFinder.setOnFailed(e1 -> { System.out.println("Duplicate Search Failed"); });
+		});
+		setLoader.setOnFailed(e -> {
+			System.out.println("Set Load Failed");
+			getErrorAlert("Could not load study sets");
+		});
+		
+		DatabaseService.Job<Void> noteLoader = DatabaseService.read(progress -> {
+			int[] count = new int[1];
+			Database.loadNotes(batch -> {
+				count[0] += batch.size();
+				progress.update(count[0], -1, "Loaded " + count[0] + " notes");
+				Platform.runLater(() -> {
+					loadingNotes.addAll(batch);
+					noteRows.getRows().addAll(batch);
+				});
+			});
+			return null;
+		});
+		noteLoader.setOnSucceeded(e -> {
+			loadingNotes.clear();
+			notesLoading.set(false);
+			loadNotes();
+			System.out.println("Notes Loaded After " + millisSinceLaunch() + "ms");
+			watchDatabase();
+		});
+		noteLoader.setOnFailed(e -> {
+			System.out.println("Note Load Failed");
+			getErrorAlert("Could not load notes");
+		});
+	}
+	
+	
+	/**
+	 * Once sets and notes are both loaded, starts reading in changes other programs make to the
+	 * database files. Only the rows of the home tables that changed are updated.
+	 */
+	private void watchDatabase() {
+		if (setsLoading.get() || notesLoading.get()) { return; }
+		Database.watchExternalChanges(
+				changes -> Platform.runLater(() -> showExternalChanges(setRows, changes)),
+				changes -> Platform.runLater(() -> showExternalChanges(noteRows, changes)));
+	}
+	
+	
+	/**
+	 * Shows sets or notes changed by another program in a home table, leaving its other rows as they are
+	 * @param rows the rows of the table
+	 * @param changes the sets or notes that changed
+	 */
+	private <T> void showExternalChanges(StoreBinding<T> rows, ExternalChanges<T> changes) {
+		// Rows showing every set or note have already followed the changes
+		if (!rows.isBound()) { changes.applyTo(rows.getRows()); }
+	}
+	
+	
+	/**
+	 * Runs a change to the database through DatabaseService, then the next step on the application
+	 * thread once it is saved. Changes are saved in the order they are made.
+	 * @param operation the change
+	 * @param then called with the result of the change
+	 * @param failure printed if the change could not be saved
+	 */
+	private <T> void runWrite(DatabaseService.Operation<T> operation, Consumer<T> then, String failure) {
+		DatabaseService.Job<T> job = DatabaseService.write(operation);
+		job.setOnSucceeded(e -> { then.accept(job.getValue()); });
+		job.setOnFailed(e -> { System.out.println(failure); });
+	}
+	
+	
+	/**
+	 * Runs a change to the database through DatabaseService like runWrite, with a control disabled
+	 * until the change is saved or fails, eg. so a button cannot queue the same change twice
+	 * @param operation the change
+	 * @param then called with the result of the change
+	 * @param failure printed if the change could not be saved
+	 * @param busy the control
+	 */
+	private <T> void runWrite(DatabaseService.Operation<T> operation, Consumer<T> then, String failure, Node busy) {
+		busy.setDisable(true);
+		DatabaseService.Job<T> job = DatabaseService.write(operation);
+		job.setOnSucceeded(e -> {
+			busy.setDisable(false);
+			then.accept(job.getValue());
+		});
+		job.setOnFailed(e -> {
+			busy.setDisable(false);
+			System.out.println(failure);
+		});
+	}
+	
+	
+	/**
+	 * Prints how long after the JVM started the first frame was laid out, ready to be drawn
+	 */
+	private void reportFirstFrame() {
+		scene.addPostLayoutPulseListener(new Runnable() {
+			public void run() {
+				scene.removePostLayoutPulseListener(this);
+				System.out.println("First Frame After " + millisSinceLaunch() + "ms");
+			}
+		});
+	}
+	
+	
+	/**
+	 * Gets the time since the JVM started
+	 * @return the time in milliseconds
+	 */
+	private long millisSinceLaunch() {
+		return System.currentTimeMillis() - ManagementFactory.getRuntimeMXBean().getStartTime();
+	}
+	
+	
+	/**
+	 * Creates a loading indicator that shows while something is loading
+	 * @param text what is loading
+	 * @param loading true while loading
+	 * @return the loading indicator
+	 */
+	private HBox createLoadingIndicator(String text, BooleanProperty loading) {
+		ProgressIndicator progress = new ProgressIndicator();
+		progress.setPrefSize(20, 20);
+		HBox loadingHBox = new HBox(10, progress, new Label(text));
+		loadingHBox.setAlignment(Pos.CENTER);
+		loadingHBox.visibleProperty().bind(loading);
+		loadingHBox.managedProperty().bind(loading);
+		return loadingHBox;
+	}
+	
+	
+	/**
+	 * Saves any changes still waiting to be written when the application closes
+	 */
+	public void stop() {
+		DatabaseService.awaitWrites();
+		Database.flush();
+	}
+	
+	
+	/**
+	 * Create the tabs
+	 */
+	private void initializeUI() {
+		// Initial content box
+		VBox vbox = new VBox();
+		
+		// Create tabs
+		tabPane = new TabPane();
+		studySetTab = new Tab("Study Sets");
+		noteTab = new Tab("Notes");
+		tabPane.setTabClosingPolicy(TabClosingPolicy.UNAVAILABLE);
+		
+		// Set content for tabs to home
+		setNoteHome();
+		setStudyHome();
+		
+		tabPane.getTabs().addAll(studySetTab, noteTab);
+		vbox.getChildren().add(tabPane);
+		
+		// Create scene and add CSS
+		scene = new Scene(vbox, 1000, 600);
+		String css = this.getClass().getResource("style.css").toExternalForm();
+		scene.getStylesheets().add(css);
+	}
+	
+	
+	/**
+	 * Create a pop-up error warning
+	 * @param msg is the content to display on the warning
+	 */
+	private void getErrorAlert(String msg) {
+		Alert alert = new Alert(AlertType.ERROR);
+		alert.setContentText(msg);
+		alert.show();
+	}
+	/**
+	 * Create a pop-up confirmation message
+	 * @param msg is the content to display on the confirmation
+	 * @return an optional containing the action the user took
+	 */
+	private Optional<ButtonType> getConfirmationAlert(String msg) {
+		Alert alert = new Alert(AlertType.CONFIRMATION);
+		alert.setContentText(msg);
+		Optional<ButtonType> result = alert.showAndWait();
+		return result;
+	}
+	
+	
+	/**
+	 * Shows the most recently accessed sets in the StudySet table, or every set, which then
+	 * follows each change to the sets without being filled again
+	 */
+	private void loadSets() {
+		if (setsLoading.get()) { setRows.show(loadingSets); }
+		else if (recentSets) { setRows.show(Database.getRecentSets(RECENT_LIMIT)); }
+		else { setRows.bind(); }
+	}
+	
+	
+	/**
+	 * Shows the sets matching a search in the StudySet table, best match first
+	 * @param query the words to search for, or blank to show the recent sets or every set
+	 */
+	private void searchSets(String query) {
+		if (query.isBlank()) {
+			loadSets();
+		}
+		else {
+			setRows.show(Database.searchSets(query));
+		}
+	}
+	
+	
+	/**
+	 * Update the access date of a set, saved in the background
+	 * @param set the set
+	 */
+	private void updateSetDateAccess(StudySet set) {
+		set.getFlashcards();	// Decoded here, as the page about to open uses them while the write saves the set
+		runWrite(progress -> { Database.updateSetDateAccessed(set); return null; }, result -> { }, "Update Set Access Time Failed");
+	}
+	
+	
+	/**
+	 * Sets the StudySet tab content to home
+	 */
+	@SuppressWarnings("unchecked")
+	private void setStudyHome() {
+		studySetVBox = new VBox(20);
+		studySetVBox.setAlignment(Pos.CENTER);
+		studySetTab.setContent(studySetVBox);
+		
+		// Create table
+		TableView<StudySet> studySetTable = new TableView<StudySet>();
+		
+		TableColumn<StudySet, Long> studySetIDCol = new TableColumn<StudySet, Long>("ID");
+		studySetIDCol.setCellValueFactory(new PropertyValueFactory<StudySet, Long>("id"));
+		
+		TableColumn<StudySet, Date> studySetDateAccessedCol = new TableColumn<StudySet, Date>("Date Accessed");
+		studySetDateAccessedCol.setCellValueFactory(new PropertyValueFactory<StudySet, Date>("dateAccessed"));
+		
+		TableColumn<StudySet, String> studySetTitleCol = new TableColumn<StudySet, String>("Title");
+		studySetTitleCol.setCellValueFactory(new PropertyValueFactory<StudySet, String>("title"));
+		
+		TableColumn<StudySet, String> studySetDescriptionCol = new TableColumn<StudySet, String>("Description");
+		studySetDescriptionCol.setCellValueFactory(new PropertyValueFactory<StudySet, String>("description"));
+		
+		// Initial sizes of columns
+		studySetIDCol.setPrefWidth(50);
+		studySetDateAccessedCol.setPrefWidth(200);
+		studySetTitleCol.setPrefWidth(250);
+		studySetDescriptionCol.setPrefWidth(500);
+
+		// Add columns to table
+		studySetTable.getColumns().addAll(
+				studySetIDCol, 
+				studySetDateAccessedCol, 
+				studySetTitleCol, 
+				studySetDescriptionCol);
+
+		// Several sets can be selected to study together
+		studySetTable.getSelectionModel().setSelectionMode(SelectionMode.MULTIPLE);
+		
+		setRows.showIn(studySetTable);
+		loadSets();
+		
+		// Searching sets, available once the search index is loaded with the sets
+		TextField searchInput = new TextField();
+		searchInput.setPromptText("Search titles, descriptions and flashcards");
+		searchInput.setPrefWidth(400);
+		searchInput.textProperty().addListener((observable, oldQuery, query) -> { searchSets(query); });
+		
+		// Showing the most recently accessed sets or every set
+		ComboBox<String> viewComboBox = new ComboBox<String>();
+		viewComboBox.getItems().addAll("Recent", "All");
+		viewComboBox.setValue(recentSets ? "Recent" : "All");
+		viewComboBox.setOnAction(e -> {
+			recentSets = viewComboBox.getValue().equals("Recent");
+			searchSets(searchInput.getText());
+		});
+		HBox searchHBox = new HBox(10, new Label("Show:"), viewComboBox, new Label("Search:"), searchInput);
+		searchHBox.setAlignment(Pos.CENTER);
+		searchHBox.disableProperty().bind(setsLoading);
+		
+		// Creating a set
+		Button createStudySetButton = new Button("Create Set");
+		createStudySetButton.setOnAction(e -> { setStudyCreate(); });
+		
+		// Studying a set
+		Button studySetButton = new Button("Study");
+		studySetButton.setOnAction(e -> {
+			StudySet set = studySetTable.getSelectionModel().getSelectedItem();
+			if (set != null) { 
+				updateSetDateAccess(set);
+				setStudy(set);
+			}
+			else { getErrorAlert("Select Set First"); }
+		});
+		
+		// Studying every selected set together
+		Button studyTogetherButton = new Button("Study Together");
+		studyTogetherButton.setOnAction(e -> {
+			List<StudySet> sets = new ArrayList<StudySet>(studySetTable.getSelectionModel().getSelectedItems());
+			if (!sets.isEmpty()) { 
+				for (StudySet set : sets) {
+					updateSetDateAccess(set);
+				}
+				setStudyTogether(sets); 
+			}
+			else { getErrorAlert("Select Sets First"); }
+		});
+		
+		// Reviewing the flashcards of a set that are due
+		Button reviewStudySetButton = new Button("Review Due");
+		reviewStudySetButton.setOnAction(e -> {
+			StudySet set = studySetTable.getSelectionModel().getSelectedItem();
+			if (set != null) { 
+				updateSetDateAccess(set);
+				setReview(set);
+			}
+			else { getErrorAlert("Select Set First"); }
+		});
+		
+		// Statistics of a set from the review log
+		Button statisticsButton = new Button("Statistics");
+		statisticsButton.setOnAction(e -> {
+			StudySet set = studySetTable.getSelectionModel().getSelectedItem();
+			if (set != null) { setStatistics(set); }
+			else { getErrorAlert("Select Set First"); }
+		});
+		
+		// Editing a set
+		Button editStudySetButton = new Button("Edit");
+		editStudySetButton.setOnAction(e -> {
+			StudySet set = studySetTable.getSelectionModel().getSelectedItem();
+			if (set != null) { 
+				updateSetDateAccess(set);
+				setEditStudy(set);
+			} 
+			else { getErrorAlert("Select Set First"); }
+		});
+		
+		// Deleting a set
+		Button deleteStudySetButton = new Button("Delete");
+		deleteStudySetButton.setOnAction(e -> {
+			StudySet set = studySetTable.getSelectionModel().getSelectedItem();
+			if (set != null) {
+				Optional<ButtonType> result = getConfirmationAlert("Are you sure you want to delete this set?");
+				if (result.get() == ButtonType.OK) {
+					runWrite(progress -> Database.deleteSet(set), deleted -> { searchSets(searchInput.getText()); }, "Set Delete Failed");
+				}
+			} else { getErrorAlert("Select Set First"); }
+		});
+		
+		HBox buttonsHBox = new HBox(20, createStudySetButton, studySetButton, studyTogetherButton, reviewStudySetButton, statisticsButton, editStudySetButton, deleteStudySetButton);
+		buttonsHBox.setAlignment(Pos.CENTER);
+		buttonsHBox.disableProperty().bind(setsLoading);
+		
+		studySetVBox.getChildren().addAll(createLoadingIndicator("Loading Study Sets", setsLoading), searchHBox, studySetTable, buttonsHBox);
+	}
+	
+	
+	/**
+	 * Creates a button to return to the StudySet home
+	 * @return the StudySet home button
+	 */
+	private Button createStudyHomeButton() {
+		Button homeButton = new Button("Home");
+		homeButton.setOnAction(e -> { setStudyHome(); } );
+		return homeButton;
+	}
+	
+	
+	/**
+	 * Loads flashcards of a set into a selected set
+	 * @param table the Flashcard table
+	 * @param flashcards the set of Flashcards of the set
+	 */
+	private void loadFlashcards(TableView<Flashcard> table, List<Flashcard> flashcards) {
+		table.getItems().clear();
+		for (Flashcard flashcard : flashcards) {
+			table.getItems().add(flashcard);
+		}
+	}
+	
+	
+	/**
+	 * Sets the StudySet tab content to creating a new flashcard
+	 * @param createPage the StudySet creation page
+	 * @param table the Flashcard table
+	 * @param flashcards the set of Flashcards of the set
+	 */
+	private void setFlashcardCreate(VBox createPage, TableView<Flashcard> table, ArrayList<Flashcard> flashcards) {
+		studySetVBox = new VBox(20);
+		studySetVBox.setAlignment(Pos.CENTER);
+		studySetTab.setContent(studySetVBox);
+		
+		Button homeButton = createStudyHomeButton();
+		
+		// Title of page
+		Label title = new Label("New Flashcard");
+		
+		Button backButton = new Button("Cancel");
+		backButton.setOnAction(e -> { 
+			studySetVBox = createPage;
+			studySetTab.setContent(studySetVBox);
+			});
+		HBox topHBox = new HBox(10, title, backButton);
+		
+		// Prompt for priority
+		Label priorityLabel = new Label("Priority");
+		ComboBox<Integer> priorityComboBox = new ComboBox<Integer>();
+		priorityComboBox.getItems().addAll(1, 2, 3);
+		priorityComboBox.setValue(2);
+		HBox priorityHBox = new HBox(10, priorityLabel, priorityComboBox);
+		
+		// Prompt for term
+		Label termLabel = new Label("Term");
+		TextField termInput = new TextField();
+		termInput.setPromptText("Required");
+		addTermCompletion(termInput);
+		VBox termVBox = new VBox(termLabel, termInput);
+		
+		// Prompt for definition
+		Label definitionLabel = new Label("Definition");
+		TextField definitionInput = new TextField();
+		definitionInput.setPromptText("Required");
+		VBox definitionVBox = new VBox(definitionLabel, definitionInput);
+		
+		Button createFlashcardButton = new Button("Create");
+		createFlashcardButton.setOnAction(e -> {
+			// Get flashcard values
+			String term = termInput.getText();
+			String definition = definitionInput.getText();
+			int priority = priorityComboBox.getValue();
+			
+			// Check that required values are there ie. term, definition
+			String isValid = Database.validFlashcard(term, definition);
+			if (isValid == "Valid") {
+				flashcards.add(new Flashcard(term, definition, priority));
+				// Same code as Back button
+				studySetVBox = createPage;
+				loadFlashcards(table, flashcards);
+				studySetTab.setContent(studySetVBox);
+			}
+			else { getErrorAlert(isValid); }
+		});
+		
+		studySetVBox.getChildren().addAll(homeButton, topHBox, priorityHBox, termVBox, definitionVBox, createFlashcardButton);
+	}
+	
+	
+	/**
+	 * Suggests terms already used in other sets below a term field while typing
+	 * @param termInput the term field
+	 */
+	private void addTermCompletion(TextField termInput) {
+		ContextMenu completions = new ContextMenu();
+		termInput.textProperty().addListener((observable, oldTerm, term) -> {
+			completions.getItems().clear();
+			if (!termInput.isFocused() || term.isBlank() || setsLoading.get()) {
+				completions.hide();
+				return;
+			}
+			
+			for (String completion : Database.completeTerm(term, 8)) {
+				if (completion.equals(term)) { continue; }
+				MenuItem item = new MenuItem(completion);
+				item.setOnAction(e -> {
+					termInput.setText(completion);
+					termInput.positionCaret(completion.length());
+				});
+				completions.getItems().add(item);
+			}
+			if (completions.getItems().isEmpty()) { completions.hide(); }
+			else if (!completions.isShowing()) { completions.show(termInput, Side.BOTTOM, 0, 0); }
+		});
+		termInput.focusedProperty().addListener((observable, wasFocused, focused) -> {
+			if (!focused) { completions.hide(); }
+		});
+	}
+	
+	
+	/**
+	 * Editing a flashcard
+	 * @param setPage the page of the set that the flashcard belongs to
+	 * @param table the table of flashcards
+	 * @param flashcards the set of flashcards 
+	 * @param flashcard the flashcard we are editing
+	 */
+	private void setFlashcardEdit(VBox setPage, TableView<Flashcard> table, ArrayList<Flashcard> flashcards, Flashcard flashcard) {
+		studySetVBox = new VBox(20);
+		studySetVBox.setAlignment(Pos.CENTER);
+		studySetTab.setContent(studySetVBox);
+		
+		Button homeButton = createStudyHomeButton();
+		
+		// Title of page
+		Label title = new Label("Editing Flashcard");
+		
+		Button backButton = new Button("Cancel");
+		backButton.setOnAction(e -> { 
+			studySetVBox = setPage;
+			studySetTab.setContent(studySetVBox);
+			});
+		HBox topHBox = new HBox(10, title, backButton);
+		
+		// Prompt for priority
+		Label priorityLabel = new Label("Priority");
+		ComboBox<Integer> priorityComboBox = new ComboBox<Integer>();
+		priorityComboBox.getItems().addAll(1, 2, 3);
+		priorityComboBox.setValue(flashcard.getPriority());
+		HBox priorityHBox = new HBox(10, priorityLabel, priorityComboBox);
+		
+		// Prompt for term
+		Label termLabel = new Label("Term");
+		TextField termInput = new TextField(flashcard.getTerm());
+		termInput.setPromptText("Required");
+		VBox termVBox = new VBox(termLabel, termInput);
+		
+		// Prompt for definition
+		Label definitionLabel = new Label("Definition");
+		TextField definitionInput = new TextField(flashcard.getDefinition());
+		definitionInput.setPromptText("Required");
+		VBox definitionVBox = new VBox(definitionLabel, definitionInput);
+		
+		Button updateButton = new Button("Update Flashcard");
+		updateButton.setOnAction (e -> {
+			// Get flashcard values
+			String term = termInput.getText();
+			String definition = definitionInput.getText();
+			int priority = priorityComboBox.getValue();
+			
+			// Check that required values are there ie. term, definition
+			String isValid = Database.validFlashcard(term, definition);
+			if (isValid == "Valid") {
+				Database.editFlashcard(flashcard, term, definition, priority);
+				// Same code as Back button
+				studySetVBox = setPage;
+				loadFlashcards(table, flashcards);
+				studySetTab.setContent(studySetVBox);
+			} else { getErrorAlert(isValid); }
+		});
+		
+		studySetVBox.getChildren().addAll(homeButton, topHBox, priorityHBox, termVBox, definitionVBox, updateButton);
+	}
+	
+	
+	/**
+	 * Sets the StudySet tab content to creating a new set
+	 */
+	@SuppressWarnings("unchecked")
+	private void setStudyCreate() {
+		studySetVBox = new VBox();
+		studySetVBox.setAlignment(Pos.CENTER);
+		studySetTab.setContent(studySetVBox);
+		
+		Button homeButton = createStudyHomeButton();
+		
+		// Title of page
+		Label title = new Label("New Study Set");
+		HBox topHBox = new HBox(title);
+		
+		// Prompt for title
+		Label titleLabel = new Label("Title");
+		TextField titleInput = new TextField();
+		titleInput.setPromptText("Required");
+		HBox titleHBox = new HBox(titleLabel, titleInput);
+		
+		// Prompt for description
+		Label descriptionLabel = new Label("Description");
+		TextField descriptionInput = new TextField();
+		descriptionInput.setPromptText("Optional");
+		HBox descriptionHBox = new HBox(descriptionLabel, descriptionInput);
+		
+		// Create flashcards table
+		Label flashcardTableLabel = new Label("Flashcards");
+		
+		TableView<Flashcard> flashcardTable = new TableView<Flashcard>();
+		
+		TableColumn<Flashcard, Integer> flashcardPriorityCol = new TableColumn<Flashcard, Integer>("Priority");
+		flashcardPriorityCol.setCellValueFactory(new PropertyValueFactory<Flashcard, Integer>("priority"));
+		
+		TableColumn<Flashcard, String> flashcardTermCol = new TableColumn<Flashcard, String>("Term");
+		flashcardTermCol.setCellValueFactory(new PropertyValueFactory<Flashcard, String>("term"));
+		
+		TableColumn<Flashcard, String> flashcardDefinitionCol = new TableColumn<Flashcard, String>("Definition");
+		flashcardDefinitionCol.setCellValueFactory(new PropertyValueFactory<Flashcard, String>("definition"));
+		
+		// Initialize sizes of columns
+		flashcardPriorityCol.setPrefWidth(100);
+		flashcardTermCol.setPrefWidth(400);
+		flashcardDefinitionCol.setPrefWidth(500);
+		
+		// Add columns to table
+		flashcardTable.getColumns().addAll(flashcardPriorityCol, flashcardTermCol, flashcardDefinitionCol);
+			
+		ArrayList<Flashcard> flashcards = new ArrayList<>();
+		
+		// Prompt for new flashcard
+		Button addButton = new Button("Add");
+		addButton.setOnAction(e -> { 
+			setFlashcardCreate(studySetVBox, flashcardTable, flashcards); 
+		});
+		
+		// Edit a flashcard
+		Button editButton = new Button("Edit");
+		editButton.setOnAction(e -> {
+			Flashcard flashcard = flashcardTable.getSelectionModel().getSelectedItem();
+			if (flashcard != null) { setFlashcardEdit(studySetVBox, flashcardTable, flashcards, flashcard); }
+			else { getErrorAlert("Select Flashcard First"); }
+		});
+		
+		// Delete a flashcard
+		Button deleteButton = new Button("Delete");
+		deleteButton.setOnAction(e -> {
+			Flashcard flashcard = flashcardTable.getSelectionModel().getSelectedItem();
+			if (flashcard != null) {
+				Optional<ButtonType> result = getConfirmationAlert("Are you sure you want to delete this flashcard?");
+				if (result.get() == ButtonType.OK) {
+					flashcards.remove(flashcard);
+					loadFlashcards(flashcardTable, flashcards);
+				}
+			} else { getErrorAlert("Select Flashcard First"); }
+		});
+		
+		HBox flashcardHBox = new HBox(flashcardTableLabel, addButton, editButton, deleteButton);
+		VBox flashcardVBox = new VBox(flashcardHBox, flashcardTable);
+		
+		Button createButton = new Button("Create");
+		createButton.setOnAction (e -> {
+			String inputTitle = titleInput.getText();
+			String inputDescription = descriptionInput.getText();
+			// The set keeps its own copy, as this page can still change the flashcards while it is saved
+			ArrayList<Flashcard> created = Database.copyFlashcards(flashcards);
+			runWrite(progress -> Database.addSet(inputTitle, inputDescription, created), result -> {
+				// Ensure required fields are there, ie. title and > 1 flashcard
+				if (result == "Successful") { setStudyHome(); }
+				else { getErrorAlert(result); }
+			}, "Set Create Failed", createButton);
+		});
+		
+		studySetVBox.getChildren().addAll(homeButton, topHBox, titleHBox, descriptionHBox, flashcardVBox, createButton);
+	}
+	
+	
+	// Needs to be defined here because cannot change values from within button action scope
+	private StudyOrder studyOrder;
+	private Flashcard flashcard;
+	private int count;
+	
+	
+	/**
+	 * Sets the StudySet tab content to studying a selected set, either every flashcard in order
+	 * of priority or flashcards drawn at random with higher priorities drawn more often
+	 * @param set the set to study
+	 */
+	private void setStudy(StudySet set) {
+		studySetVBox = new VBox(20);
+		studySetVBox.setAlignment(Pos.CENTER);
+		studySetTab.setContent(studySetVBox);
+
+		Button homeButton = createStudyHomeButton();
+		
+		// Title of page
+		Label title = new Label(set.getTitle());
+		HBox topHBox = new HBox(title);
+		
+		// Setup flashcard view
+		Label flashcardDetail = new Label();
+		Label flashcardPriority = new Label();
+		TextArea flashcardText = new TextArea();
+			flashcardText.setEditable(false);
+			flashcardText.setPrefWidth(500);
+			flashcardText.setPrefHeight(300);
+			flashcardText.setWrapText(true);
+		Label flashcardNumber = new Label();
+		
+		VBox flashcardInfoVBox = new VBox(flashcardDetail, flashcardPriority);
+		
+		// Choosing how flashcards are ordered
+		ComboBox<String> orderComboBox = new ComboBox<String>();
+		orderComboBox.getItems().addAll("Priority Order", "Weighted Random");
+		orderComboBox.setValue("Priority Order");
+		HBox orderHBox = new HBox(10, new Label("Order:"), orderComboBox);
+		orderHBox.setAlignment(Pos.CENTER);
+		
+		// Get flashcards, kept in the same order object when the set is studied again
+		studyOrder = new StudyOrder(set.getFlashcards());
+		int total = set.getSize();
+		
+		// Flipping the flashcard
+		Button flipButton = new Button("Flip");
+		flipButton.setOnAction(e -> { 
+			recordFlip();
+			// Flip to definition
+			if (flashcardDetail.getText().equals("Term")) {
+				flashcardDetail.setText("Definition");
+				flashcardText.setText(flashcard.getDefinition());
+			}
+			// Flip to term
+			else {
+				flashcardDetail.setText("Term");
+				flashcardText.setText(flashcard.getTerm());
+			}			
+		});
+		
+		// Next flashcard
+		Button nextButton = new Button("Next");
+		
+		HBox buttonsHBox = new HBox(50, flipButton, nextButton);
+		buttonsHBox.setAlignment(Pos.CENTER);
+		
+		// Shows the current flashcard
+		Runnable showFlashcard = () -> {
+			boolean weighted = orderComboBox.getValue().equals("Weighted Random");
+			flashcardDetail.setText("Term");
+			flashcardPriority.setText("Priority: " + Integer.toString(flashcard.getPriority()));
+			flashcardText.setText(flashcard.getTerm());
+			flashcardNumber.setText(weighted ? Integer.toString(count) + " studied" : Integer.toString(count) + " / " + Integer.toString(total));
+			startTiming();
+		};
+		
+		// Starts the set from the beginning, reshuffling in place
+		Runnable restart = () -> {
+			boolean weighted = orderComboBox.getValue().equals("Weighted Random");
+			count = 1;
+			if (weighted) {
+				flashcard = studyOrder.draw();
+			}
+			else {
+				studyOrder.shuffle();
+				flashcard = studyOrder.get(0);
+			}
+			nextButton.setText("Next");
+			if (!buttonsHBox.getChildren().contains(flipButton)) { buttonsHBox.getChildren().add(0, flipButton); }
+			showFlashcard.run();
+		};
+		orderComboBox.setOnAction(e -> { restart.run(); });
+		
+		// Styling to put the buttons directly underneath the flashcard
+		VBox centerVBox = new VBox(flashcardText, buttonsHBox);
+		
+		HBox flashcardHBox = new HBox(flashcardInfoVBox, centerVBox, flashcardNumber);
+		flashcardHBox.setAlignment(Pos.CENTER);
+		
+		nextButton.setOnAction(e -> {
+			boolean weighted = orderComboBox.getValue().equals("Weighted Random");
+			// "Again" shows once the set is finished, when there is no flashcard to record
+			if (nextButton.getText().equals("Next") && flashcard != null) { recordReview(flashcard, set, ReviewLog.SEEN); }
+			// Weighted draws never reach the end of the set
+			if (weighted) {
+				flashcard = studyOrder.draw();
+				count++;
+				showFlashcard.run();
+			}
+			// Haven't reached end of set
+			else if (count < total) {
+				// Get next flashcard
+				flashcard = studyOrder.get(count);
+				// Update flashcard count
+				count++;
+				showFlashcard.run();
+			}
+			// Reached end of set
+			else {
+				if (nextButton.getText().equals("Again")) {
+					restart.run();
+				}
+				else {
+					flashcardText.setText("Reached end of set");
+					nextButton.setText("Again");
+					flashcardDetail.setText("");
+					flashcardPriority.setText("");
+					buttonsHBox.getChildren().remove(flipButton);
+				}
+			}
+		});
+		
+		restart.run();
+		studySetVBox.getChildren().addAll(homeButton, topHBox, orderHBox, flashcardHBox);
+	}
+	
+
+	// Needs to be defined here because cannot change values from within button action scope
+	private MergedStudyOrder mergedOrder;
+	
+	
+	/**
+	 * Sets the StudySet tab content to studying several sets together, taking flashcards from
+	 * every set in order of priority and then of when they are due for review
+	 * @param sets the sets to study
+	 */
+	private void setStudyTogether(List<StudySet> sets) {
+		studySetVBox = new VBox(20);
+		studySetVBox.setAlignment(Pos.CENTER);
+		studySetTab.setContent(studySetVBox);
+
+		Button homeButton = createStudyHomeButton();
+		
+		// Title of page
+		Label title = new Label(Integer.toString(sets.size()) + " sets");
+		HBox topHBox = new HBox(title);
+		
+		// Setup flashcard view
+		Label flashcardSet = new Label();
+		Label flashcardDetail = new Label();
+		Label flashcardPriority = new Label();
+		TextArea flashcardText = new TextArea();
+			flashcardText.setEditable(false);
+			flashcardText.setPrefWidth(500);
+			flashcardText.setPrefHeight(300);
+			flashcardText.setWrapText(true);
+		Label flashcardNumber = new Label();
+		
+		VBox flashcardInfoVBox = new VBox(flashcardSet, flashcardDetail, flashcardPriority);
+		
+		// Flipping the flashcard
+		Button flipButton = new Button("Flip");
+		flipButton.setOnAction(e -> { 
+			recordFlip();
+			// Flip to definition
+			if (flashcardDetail.getText().equals("Term")) {
+				flashcardDetail.setText("Definition");
+				flashcardText.setText(flashcard.getDefinition());
+			}
+			// Flip to term
+			else {
+				flashcardDetail.setText("Term");
+				flashcardText.setText(flashcard.getTerm());
+			}			
+		});
+		
+		// Next flashcard
+		Button nextButton = new Button("Next");
+		
+		HBox buttonsHBox = new HBox(50, flipButton, nextButton);
+		buttonsHBox.setAlignment(Pos.CENTER);
+		
+		// Shows the next flashcard, or the end of the session once every set is finished
+		Runnable showNext = () -> {
+			if (!mergedOrder.hasNext()) {
+				flashcard = null;
+				flashcardText.setText("Reached end of sets");
+				nextButton.setText("Again");
+				flashcardSet.setText("");
+				flashcardDetail.setText("");
+				flashcardPriority.setText("");
+				buttonsHBox.getChildren().remove(flipButton);
+				return;
+			}
+			flashcard = mergedOrder.next();
+			flashcardSet.setText(mergedOrder.getSet().getTitle());
+			flashcardDetail.setText("Term");
+			flashcardPriority.setText("Priority: " + Integer.toString(flashcard.getPriority()));
+			flashcardText.setText(flashcard.getTerm());
+			flashcardNumber.setText(Integer.toString(mergedOrder.getStudied()) + " studied");
+			startTiming();
+		};
+		
+		// Starts the sets from the beginning
+		Runnable restart = () -> {
+			mergedOrder = new MergedStudyOrder(sets, ReviewScheduler::getDue);
+			nextButton.setText("Next");
+			if (!buttonsHBox.getChildren().contains(flipButton)) { buttonsHBox.getChildren().add(0, flipButton); }
+			showNext.run();
+		};
+		
+		nextButton.setOnAction(e -> {
+			if (flashcard == null) {
+				restart.run();
+				return;
+			}
+			recordReview(flashcard, mergedOrder.getSet(), ReviewLog.SEEN);
+			showNext.run();
+		});
+		
+		// Styling to put the buttons directly underneath the flashcard
+		VBox centerVBox = new VBox(flashcardText, buttonsHBox);
+		
+		HBox flashcardHBox = new HBox(flashcardInfoVBox, centerVBox, flashcardNumber);
+		flashcardHBox.setAlignment(Pos.CENTER);
+		
+		restart.run();
+		studySetVBox.getChildren().addAll(homeButton, topHBox, flashcardHBox);
+	}
+	
+
+	/**
+	 * Sets the StudySet tab content to reviewing the due flashcards of a set, graded on how well
+	 * each one was remembered so it comes back when it is next due
+	 * @param set the set to review
+	 */
+	private void setReview(StudySet set) {
+		studySetVBox = new VBox(20);
+		studySetVBox.setAlignment(Pos.CENTER);
+		studySetTab.setContent(studySetVBox);
+
+		Button homeButton = createStudyHomeButton();
+		
+		// Title of page
+		Label title = new Label(set.getTitle());
+		HBox topHBox = new HBox(title);
+		
+		// Setup flashcard view
+		Label flashcardDetail = new Label();
+		Label flashcardPriority = new Label();
+		TextArea flashcardText = new TextArea();
+			flashcardText.setEditable(false);
+			flashcardText.setPrefWidth(500);
+			flashcardText.setPrefHeight(300);
+			flashcardText.setWrapText(true);
+		Label flashcardNumber = new Label();
+		
+		VBox flashcardInfoVBox = new VBox(flashcardDetail, flashcardPriority);
+		
+		// Get the due flashcards
+		ReviewScheduler.Session session = ReviewScheduler.startSession(set, System.currentTimeMillis());
+		
+		// Flipping the flashcard
+		Button flipButton = new Button("Flip");
+		
+		// Grading the flashcard, shown once it is flipped
+		Button againButton = new Button("Again");
+		Button hardButton = new Button("Hard");
+		Button goodButton = new Button("Good");
+		Button easyButton = new Button("Easy");
+		HBox gradesHBox = new HBox(20, againButton, hardButton, goodButton, easyButton);
+		gradesHBox.setAlignment(Pos.CENTER);
+		gradesHBox.setVisible(false);
+		
+		// Shows the next due flashcard, or when the set is next due once none are left
+		Runnable showNext = () -> {
+			Flashcard next = session.next(System.currentTimeMillis());
+			gradesHBox.setVisible(false);
+			flashcardNumber.setText(Integer.toString(session.getReviewed()) + " reviewed, " + Integer.toString(session.getRemaining()) + " due");
+			if (next == null) {
+				long nextDue = session.getNextDue();
+				flashcardText.setText(nextDue == Long.MAX_VALUE ? "No flashcards due" : "No flashcards due until " + new Date(nextDue));
+				flashcardDetail.setText("");
+				flashcardPriority.setText("");
+				flipButton.setVisible(false);
+				return;
+			}
+			flashcardDetail.setText("Term");
+			flashcardPriority.setText("Priority: " + Integer.toString(next.getPriority()));
+			flashcardText.setText(next.getTerm());
+			startTiming();
+		};
+		
+		flipButton.setOnAction(e -> { 
+			Flashcard current = session.next(System.currentTimeMillis());
+			if (current == null) { return; }
+			recordFlip();
+			// Flip to definition
+			if (flashcardDetail.getText().equals("Term")) {
+				flashcardDetail.setText("Definition");
+				flashcardText.setText(current.getDefinition());
+				gradesHBox.setVisible(true);
+			}
+			// Flip to term
+			else {
+				flashcardDetail.setText("Term");
+				flashcardText.setText(current.getTerm());
+			}			
+		});
+		IntConsumer grade = g -> {
+			long now = System.currentTimeMillis();
+			Flashcard current = session.next(now);
+			if (current == null) { return; }
+			recordReview(current, set, g);
+			session.grade(g, now);
+			showNext.run();
+		};
+		againButton.setOnAction(e -> { grade.accept(ReviewScheduler.AGAIN); });
+		hardButton.setOnAction(e -> { grade.accept(ReviewScheduler.HARD); });
+		goodButton.setOnAction(e -> { grade.accept(ReviewScheduler.GOOD); });
+		easyButton.setOnAction(e -> { grade.accept(ReviewScheduler.EASY); });
+		
+		// Styling to put the buttons directly underneath the flashcard
+		VBox centerVBox = new VBox(10, flashcardText, flipButton, gradesHBox);
+		centerVBox.setAlignment(Pos.CENTER);
+		
+		HBox flashcardHBox = new HBox(flashcardInfoVBox, centerVBox, flashcardNumber);
+		flashcardHBox.setAlignment(Pos.CENTER);
+		
+		showNext.run();
+		studySetVBox.getChildren().addAll(homeButton, topHBox, flashcardHBox);
+	}
+	
+	
+	/**
+	 * Starts timing a flashcard that has just been shown
+	 */
+	private void startTiming() {
+		shownAt = System.currentTimeMillis();
+		flipMillis = -1;
+	}
+	
+	
+	/**
+	 * Notes how long the shown flashcard took to flip, the first time it is flipped
+	 */
+	private void recordFlip() {
+		if (flipMillis < 0) { flipMillis = (int) Math.min(Integer.MAX_VALUE, System.currentTimeMillis() - shownAt); }
+	}
+	
+	
+	/**
+	 * Adds the shown flashcard to the review log as it is left
+	 * @param flashcard the flashcard
+	 * @param set the set being studied
+	 * @param outcome ReviewLog.SEEN, or the grade it was given
+	 */
+	private void recordReview(Flashcard flashcard, StudySet set, int outcome) {
+		int shownMillis = (int) Math.min(Integer.MAX_VALUE, System.currentTimeMillis() - shownAt);
+		ReviewLog.record(flashcard, set, shownAt, flipMillis, shownMillis, outcome);
+	}
+	
+	
+	/**
+	 * Sets the StudySet tab content to the statistics of a set and each of its flashcards
+	 * @param set the set
+	 */
+	@SuppressWarnings("unchecked")
+	private void setStatistics(StudySet set) {
+		studySetVBox = new VBox(20);
+		studySetVBox.setAlignment(Pos.CENTER);
+		studySetTab.setContent(studySetVBox);
+
+		Button homeButton = createStudyHomeButton();
+		
+		// Title of page
+		Label title = new Label(set.getTitle());
+		HBox topHBox = new HBox(title);
+		Label setStats = new Label();
+		
+		// Create table
+		TableView<Flashcard> flashcardTable = new TableView<Flashcard>();
+		
+		TableColumn<Flashcard, String> flashcardTermCol = new TableColumn<Flashcard, String>("Term");
+		flashcardTermCol.setCellValueFactory(new PropertyValueFactory<Flashcard, String>("term"));
+		
+		TableColumn<Flashcard, Integer> flashcardReviewsCol = new TableColumn<Flashcard, Integer>("Reviews");
+		TableColumn<Flashcard, String> flashcardAccuracyCol = new TableColumn<Flashcard, String>("Accuracy");
+		TableColumn<Flashcard, String> flashcardTimeCol = new TableColumn<Flashcard, String>("Avg Time");
+		TableColumn<Flashcard, String> flashcardFlipCol = new TableColumn<Flashcard, String>("Avg Flip");
+		TableColumn<Flashcard, Integer> flashcardStreakCol = new TableColumn<Flashcard, Integer>("Streak");
+		TableColumn<Flashcard, Integer> flashcardBestStreakCol = new TableColumn<Flashcard, Integer>("Best Streak");
+		
+		// Initial sizes of columns
+		flashcardTermCol.setPrefWidth(300);
+		flashcardReviewsCol.setPrefWidth(80);
+		flashcardAccuracyCol.setPrefWidth(80);
+		flashcardTimeCol.setPrefWidth(80);
+		flashcardFlipCol.setPrefWidth(80);
+		flashcardStreakCol.setPrefWidth(80);
+		flashcardBestStreakCol.setPrefWidth(100);
+		
+		// Add columns to table
+		flashcardTable.getColumns().addAll(
+				flashcardTermCol, 
+				flashcardReviewsCol, 
+				flashcardAccuracyCol, 
+				flashcardTimeCol, 
+				flashcardFlipCol, 
+				flashcardStreakCol, 
+				flashcardBestStreakCol);
+		
+		// The log is read on a background thread, and the table filled once it is summarized
+		BooleanProperty summarizing = new SimpleBooleanProperty(true);
+		DatabaseService.Job<ReviewLog.Summary> summarizer = DatabaseService.read(progress -> ReviewLog.summarize());
+		summarizer.setOnSucceeded(e -> {
+			ReviewLog.Summary summary = summarizer.getValue();
+			flashcardReviewsCol.setCellValueFactory(c -> new SimpleObjectProperty<Integer>(summary.getFlashcard(c.getValue()).getReviews()));
+			flashcardAccuracyCol.setCellValueFactory(c -> new SimpleStringProperty(formatAccuracy(summary.getFlashcard(c.getValue()))));
+			flashcardTimeCol.setCellValueFactory(c -> new SimpleStringProperty(formatSeconds(summary.getFlashcard(c.getValue()).getAverageMillis())));
+			flashcardFlipCol.setCellValueFactory(c -> new SimpleStringProperty(formatSeconds(summary.getFlashcard(c.getValue()).getAverageFlipMillis())));
+			flashcardStreakCol.setCellValueFactory(c -> new SimpleObjectProperty<Integer>(summary.getFlashcard(c.getValue()).getStreak()));
+			flashcardBestStreakCol.setCellValueFactory(c -> new SimpleObjectProperty<Integer>(summary.getFlashcard(c.getValue()).getBestStreak()));
+			loadFlashcards(flashcardTable, set.getFlashcards());
+			
+			ReviewLog.Stats stats = summary.getSet(set);
+			setStats.setText(String.format("Reviews: %d    Accuracy: %s    Avg Time: %s    Streak: %d    Best Streak: %d",
+					stats.getReviews(), formatAccuracy(stats), formatSeconds(stats.getAverageMillis()), stats.getStreak(), stats.getBestStreak()));
+			summarizing.set(false);
+		});
+		summarizer.setOnFailed(e -> {
+			System.out.println("Review Log Read Failed");
+			summarizing.set(false);
+			getErrorAlert("Could not read the review log");
+		});
+		
+		studySetVBox.getChildren().addAll(homeButton, topHBox, createLoadingIndicator("Loading Statistics", summarizing), setStats, flashcardTable);
+	}
+	
+	
+	/**
+	 * Formats the accuracy of a flashcard or set
+	 * @param stats the statistics
+	 * @return the accuracy as a percentage, or "-" if nothing was graded
+	 */
+	private String formatAccuracy(ReviewLog.Stats stats) {
+		return stats.getGraded() == 0 ? "-" : String.format("%.0f%%", stats.getAccuracy() * 100);
+	}
+	
+	
+	/**
+	 * Formats a time in seconds
+	 * @param millis the time in milliseconds
+	 * @return the time, eg. "2.5s"
+	 */
+	private String formatSeconds(long millis) {
+		return String.format("%.1fs", millis / 1000.0);
+	}
+	
+
+	/**
+	 * Sets the StudySet tab content to editing a selected set
+	 * @param set the set to edit
+	 */
+	@SuppressWarnings("unchecked")
+	private void setEditStudy(StudySet set) {
+		studySetVBox = new VBox();
+		studySetVBox.setAlignment(Pos.CENTER);
+		studySetTab.setContent(studySetVBox);
+		
+		Button homeButton = createStudyHomeButton();
+		
+		// Title of page
+		Label title = new Label("Edit Set");
+		HBox topHBox = new HBox(title);
+		
+		// Prompt for title
+		Label titleLabel = new Label("Title");
+		TextField titleInput = new TextField(set.getTitle());
+		titleInput.setPromptText("Required");
+		HBox titleHBox = new HBox(titleLabel, titleInput);
+		
+		// Prompt for description
+		Label descriptionLabel = new Label("Description");
+		TextField descriptionInput = new TextField(set.getDescription());
+		descriptionInput.setPromptText("Optional");
+		HBox descriptionHBox = new HBox(descriptionLabel, descriptionInput);
+		
+		// Create flashcards table
+		Label flashcardTableLabel = new Label("Flashcards");
+		
+		TableView<Flashcard> flashcardTable = new TableView<Flashcard>();
+		
+		TableColumn<Flashcard, Integer> flashcardPriorityCol = new TableColumn<Flashcard, Integer>("Priority");
+		flashcardPriorityCol.setCellValueFactory(new PropertyValueFactory<Flashcard, Integer>("priority"));
+		
+		TableColumn<Flashcard, String> flashcardTermCol = new TableColumn<Flashcard, String>("Term");
+		flashcardTermCol.setCellValueFactory(new PropertyValueFactory<Flashcard, String>("term"));
+		
+		TableColumn<Flashcard, String> flashcardDefinitionCol = new TableColumn<Flashcard, String>("Definition");
+		flashcardDefinitionCol.setCellValueFactory(new PropertyValueFactory<Flashcard, String>("definition"));
+		
+		// Initialize sizes of columns
+		flashcardPriorityCol.setPrefWidth(100);
+		flashcardTermCol.setPrefWidth(400);
+		flashcardDefinitionCol.setPrefWidth(500);
+		
+		// Add columns to table
+		flashcardTable.getColumns().addAll(flashcardPriorityCol, flashcardTermCol, flashcardDefinitionCol);
+		
+		// Get a copy of the set flashcards, so the set only changes once the edit is saved
+		ArrayList<Flashcard> flashcards = Database.copyFlashcards(set.getFlashcards());
+		loadFlashcards(flashcardTable, flashcards);
+		
+		// Prompt for new flashcard
+		Button addButton = new Button("Add");
+		addButton.setOnAction(e -> { 
+			setFlashcardCreate(studySetVBox, flashcardTable, flashcards); 
+		});
+		
+		// Edit a flashcard
+		Button editButton = new Button("Edit");
+		editButton.setOnAction (e -> {
+			Flashcard flashcard = flashcardTable.getSelectionModel().getSelectedItem();
+			if (flashcard != null) { setFlashcardEdit(studySetVBox, flashcardTable, flashcards, flashcard); }
+			else { getErrorAlert("Select Flashcard First"); }
+		});
+		
+		// Delete a flashcard
+		Button deleteButton = new Button("Delete");
+		deleteButton.setOnAction(e -> {
+			Flashcard flashcard = flashcardTable.getSelectionModel().getSelectedItem();
+			if (flashcard != null) {
+				// Get confirmation message
+				Optional<ButtonType> result = getConfirmationAlert("Are you sure you want to delete this flashcard?");
+				if (result.get() == ButtonType.OK) {
+					flashcards.remove(flashcard);
+					// Reload table with changes
+					loadFlashcards(flashcardTable, flashcards);
+				}
+			} else { getErrorAlert("Select Flashcard First"); }
+		});
+		
+		HBox flashcardHBox = new HBox(flashcardTableLabel, addButton, editButton, deleteButton);
+		VBox flashcardVBox = new VBox(flashcardHBox, flashcardTable, createDuplicatesVBox(set, flashcardTable, flashcards));
+		
+		Button editSetButton = new Button("Update");
+		editSetButton.setOnAction (e -> {
+			String inputTitle = titleInput.getText();
+			String inputDescription = descriptionInput.getText();
+			ArrayList<Flashcard> edited = Database.copyFlashcards(flashcards);
+			runWrite(progress -> Database.editSet(set, inputTitle, inputDescription, edited), result -> {
+				// Ensure all required fields are there ie. title, description
+				if (result == "Successful") { setStudyHome(); }
+				else { getErrorAlert(result); }
+			}, "Set Edit Failed", editSetButton);
+		});
+		
+		studySetVBox.getChildren().addAll(homeButton, topHBox, titleHBox, descriptionHBox, flashcardVBox, editSetButton);
+	}
+		
+	
+	/**
+	 * Lists the near duplicates of a set's flashcards found across every set, with a button to merge
+	 * each group into the flashcard of this set
+	 * @param set the set being edited
+	 * @param table the table of flashcards of the set
+	 * @param flashcards the copy of the set's flashcards being edited
+	 * @return the list, empty if there are no duplicates
+	 */
+	private VBox createDuplicatesVBox(StudySet set, TableView<Flashcard> table, ArrayList<Flashcard> flashcards) {
+		VBox duplicatesVBox = new VBox(5);
+		List<List<DuplicateFinder.Card>> clusters = Database.getDuplicates(set);
+		if (clusters.isEmpty()) { return duplicatesVBox; }
+		
+		duplicatesVBox.getChildren().add(new Label("Possible Duplicates"));
+		for (List<DuplicateFinder.Card> cluster : clusters) {
+			StringBuilder text = new StringBuilder();
+			for (DuplicateFinder.Card card : cluster) {
+				if (text.length() > 0) { text.append("\n"); }
+				text.append(card.getTerm()).append(" (").append(card.getSet().getTitle()).append(")");
+			}
+			
+			// Merging keeps this set's flashcard and deletes the others
+			Button mergeButton = new Button("Merge");
+			HBox clusterHBox = new HBox(10, new Label(text.toString()), mergeButton);
+			mergeButton.setOnAction(e -> {
+				DuplicateFinder.Card keptCard = cluster.stream().filter(card -> card.getSet() == set).findFirst().get();
+				Flashcard kept = keptCard.findFlashcard();
+				if (kept == null) {
+					getErrorAlert("Flashcard was changed, reopen the set to check again");
+					return;
+				}
+				Optional<ButtonType> result = getConfirmationAlert("Keep \"" + kept.getTerm() + "\" and delete the other flashcards?");
+				if (result.get() == ButtonType.OK) {
+					// The flashcards of this set that the merge may delete, to take out of the copy being edited
+					ArrayList<Long> mergedIds = new ArrayList<>();
+					for (DuplicateFinder.Card card : cluster) {
+						Flashcard flashcard = card.getSet() == set ? card.findFlashcard() : null;
+						if (flashcard != null && flashcard != kept) { mergedIds.add(flashcard.getId()); }
+					}
+					runWrite(progress -> Database.mergeDuplicates(kept, cluster), merged -> {
+						flashcards.removeIf(flashcard -> mergedIds.contains(flashcard.getId()) && set.getFlashcard(flashcard.getId()) == null);
+						loadFlashcards(table, flashcards);
+						duplicatesVBox.getChildren().remove(clusterHBox);
+					}, "Flashcard Merge Failed");
+				}
+			});
+			duplicatesVBox.getChildren().add(clusterHBox);
+		}
+		return duplicatesVBox;
+	}
+	
+	
+	/**
+	 * Shows the most recently accessed notes in the Note table, or every note, which then
+	 * follows each change to the notes without being filled again
+	 */
+	private void loadNotes() {
+		if (notesLoading.get()) { noteRows.show(loadingNotes); }
+		else if (recentNotes) { noteRows.show(Database.getRecentNotes(RECENT_LIMIT)); }
+		else { noteRows.bind(); }
+	}
+	
+	
+	/**
+	 * Shows the notes matching a search in the Note table, best match first
+	 * @param query the words to search for, or blank to show the recent notes or every note
+	 */
+	private void searchNotes(String query) {
+		if (query.isBlank()) {
+			loadNotes();
+		}
+		else {
+			noteRows.show(Database.searchNotes(query));
+		}
+	}
+	
+	
+	/**
+	 * Update the access date of a note, saved in the background
+	 * @param note the note
+	 */
+	private void updateNoteDateAccess(Note note) {
+		runWrite(progress -> { Database.updateNoteDateAccessed(note); return null; }, result -> { }, "Update Note Access Time Failed");
+	}
+	
+	
+	/**
+	 * Sets the Note tab content to home
+	 */
+	@SuppressWarnings("unchecked")
+	private void setNoteHome() {
+		noteVBox = new VBox(20);
+		noteVBox.setAlignment(Pos.CENTER);
+		noteTab.setContent(noteVBox);
+		
+		// Create table
+		TableView<Note> noteTable = new TableView<Note>();
+		
+		TableColumn<Note, Long> noteIDCol = new TableColumn<Note, Long>("ID");
+		noteIDCol.setCellValueFactory(new PropertyValueFactory<Note, Long>("id"));
+		
+		TableColumn<Note, Date> noteDateAccessedCol = new TableColumn<Note, Date>("Date Accessed");
+		noteDateAccessedCol.setCellValueFactory(new PropertyValueFactory<Note, Date>("dateAccessed"));
+		
+		TableColumn<Note, String> noteTitleCol = new TableColumn<Note, String>("Title");
+		noteTitleCol.setCellValueFactory(new PropertyValueFactory<Note, String>("title"));
+		
+		TableColumn<Note, String> noteDescriptionCol = new TableColumn<Note, String>("Description");
+		noteDescriptionCol.setCellValueFactory(new PropertyValueFactory<Note, String>("description"));
+		
+		// Initial sizes of columns
+		noteIDCol.setPrefWidth(50);
+		noteDateAccessedCol.setPrefWidth(200);
+		noteTitleCol.setPrefWidth(250);
+		noteDescriptionCol.setPrefWidth(500);
+		
+		// Add columns to table
+		noteTable.getColumns().addAll(
+				noteIDCol, 
+				noteDateAccessedCol, 
+				noteTitleCol, 
+				noteDescriptionCol);
+		
+		noteRows.showIn(noteTable);
+		loadNotes();
+		
+		// Searching notes, available once the search index is loaded with the notes
+		TextField searchInput = new TextField();
+		searchInput.setPromptText("Search titles, descriptions and text");
+		searchInput.setPrefWidth(400);
+		searchInput.textProperty().addListener((observable, oldQuery, query) -> { searchNotes(query); });
+		
+		// Showing the most recently accessed notes or every note
+		ComboBox<String> viewComboBox = new ComboBox<String>();
+		viewComboBox.getItems().addAll("Recent", "All");
+		viewComboBox.setValue(recentNotes ? "Recent" : "All");
+		viewComboBox.setOnAction(e -> {
+			recentNotes = viewComboBox.getValue().equals("Recent");
+			searchNotes(searchInput.getText());
+		});
+		HBox searchHBox = new HBox(10, new Label("Show:"), viewComboBox, new Label("Search:"), searchInput);
+		searchHBox.setAlignment(Pos.CENTER);
+		searchHBox.disableProperty().bind(notesLoading);
+		
+		// Creating a note
+		Button createNoteButton = new Button("Create Note");
+		createNoteButton.setOnAction(e -> { setNoteCreate(); });
+		
+		// Viewing a note
+		Button viewNoteButton = new Button("View");
+		viewNoteButton.setOnAction(e -> {
+			Note note = noteTable.getSelectionModel().getSelectedItem();
+			if (note != null) { 
+				updateNoteDateAccess(note);
+				viewNote(note);
+			}
+			else { getErrorAlert("Select Note First"); }
+		});
+		
+		// Editing a note
+		Button editNoteButton = new Button("Edit");
+		editNoteButton.setOnAction(e -> {
+			Note note = noteTable.getSelectionModel().getSelectedItem();
+			if (note != null) { 
+				updateNoteDateAccess(note);
+				setEditNote(note);
+			}
+			else { getErrorAlert("Select Note First"); }
+		});
+		
+		// Deleting a note
+		Button deleteNoteButton = new Button("Delete");
+		deleteNoteButton.setOnAction(e -> {
+			Note note = noteTable.getSelectionModel().getSelectedItem();
+			if (note != null) {
+				// Get confirmation message
+				Optional<ButtonType> result = getConfirmationAlert("Are you sure you want to delete this note?");
+				if (result.get() == ButtonType.OK) {
+					runWrite(progress -> Database.deleteNote(note), deleted -> { searchNotes(searchInput.getText()); }, "Note Delete Failed");
+				}
+			}
+			else { getErrorAlert("Select Note First"); }
+		});
+		
+		HBox buttonsHBox = new HBox(20, createNoteButton, viewNoteButton, editNoteButton, deleteNoteButton);
+		buttonsHBox.setAlignment(Pos.CENTER);
+		buttonsHBox.disableProperty().bind(notesLoading);
+		
+		noteVBox.getChildren().addAll(createLoadingIndicator("Loading Notes", notesLoading), searchHBox, noteTable, buttonsHBox);
+	}
+	
+	
+	/**
+	 * Creates a button to return to the Note home
+	 * @return
+	 */
+	private Button createNoteHomeButton() {
+		Button homeButton = new Button("Home");
+		homeButton.setOnAction(e -> { setNoteHome(); } );
+		return homeButton;
+	}
+	
+	
+	/**
+	 * Sets the Note tab content to creating a new note
+	 */
+	private void setNoteCreate() {
+		noteVBox = new VBox();
+		noteVBox.setAlignment(Pos.CENTER);
+		noteTab.setContent(noteVBox);
+		
+		Button homeButton = createNoteHomeButton();
+		
+		// Title of page
+		Label title = new Label("New Note");
+		HBox topHBox = new HBox(title);
+		
+		// Prompt for title
+		Label titleLabel = new Label("Title");
+		TextField titleInput = new TextField();
+		titleInput.setPromptText("Required");
+		HBox titleHBox = new HBox(titleLabel, titleInput);
+		
+		// Prompt for description
+		Label descriptionLabel = new Label("Description");
+		TextField descriptionInput = new TextField();
+		descriptionInput.setPromptText("Optional");
+		HBox descriptionHBox = new HBox(descriptionLabel, descriptionInput);
+		
+		// Prompt for text
+		Label textLabel = new Label("Text");
+		TextArea textInput = new TextArea();
+		textInput.setPromptText("Optional");
+		textInput.setWrapText(true);
+		VBox textVBox = new VBox(textLabel, textInput);
+		
+		// Creating a note
+		Button createButton = new Button("Create");
+		createButton.setOnAction(e -> {
+			String inputTitle = titleInput.getText();
+			String inputDescription = descriptionInput.getText();
+			String inputText = textInput.getText();
+			runWrite(progress -> Database.addNote(inputTitle, inputDescription, inputText), result -> {
+				// Ensure required fields are there, ie. title
+				if (result == "Successful") { setNoteHome(); }
+				else { getErrorAlert(result); }
+			}, "Note Create Failed");
+		});
+		
+		noteVBox.getChildren().addAll(homeButton, topHBox, titleHBox, descriptionHBox, textVBox, createButton);
+	}
+	
+	
+	/**
+	 * Sets the Note tab content to viewing a selected note
+	 * @param note the note to view
+	 */
+	private void viewNote(Note note) {
+		noteVBox = new VBox(20);
+		noteVBox.setAlignment(Pos.CENTER);
+		noteTab.setContent(noteVBox);
+		
+		Button homeButton = createNoteHomeButton();
+		
+		// Title of page
+		Label title = new Label(note.getTitle());
+		HBox topHBox = new HBox(title);
+		
+		// Get details
+		Label description = new Label(note.getDescription());
+		TextStats stats = note.getTextStats();
+		Label wordCount = new Label(String.format("Word Count: %d    Characters: %d    Lines: %d    Reading Time: %d min",
+				stats.getWords(), stats.getCharacters(), stats.getLines(), stats.getReadingMinutes()));
+		Label text = new Label("\n" + note.getText());
+		text.setPrefWidth(1000);
+		text.setPrefHeight(400);
+		text.setAlignment(Pos.TOP_LEFT);
+
+		// Scroll bar
+		ScrollPane scrollBar = new ScrollPane(text);
+		
+		HBox noteHBox = new HBox(scrollBar, text);
+		
+		noteVBox.getChildren().addAll(homeButton, topHBox, description, wordCount, noteHBox);
+	}
+	
+	
+	/**
+	 * Sets the Note tab to editing a selected note
+	 * @param note the note to edit
+	 */
+	private void setEditNote(Note note) {
+		noteVBox = new VBox();
+		noteVBox.setAlignment(Pos.CENTER);
+		noteTab.setContent(noteVBox);
+		
+		Button homeButton = createNoteHomeButton();
+		
+		// Title of page
+		Label title = new Label("Edit Note");
+		HBox topHBox = new HBox(title);
+
+		// Prompt for title
+		Label titleLabel = new Label("Title");
+		TextField titleInput = new TextField(note.getTitle());
+		titleInput.setPromptText("Required");
+		HBox titleHBox = new HBox(titleLabel, titleInput);
+
+		// Prompt for description
+		Label descriptionLabel = new Label("Description");
+		TextField descriptionInput = new TextField(note.getDescription());
+		descriptionInput.setPromptText("Optional");
+		HBox descriptionHBox = new HBox(descriptionLabel, descriptionInput);
+
+		// Prompt for text
+		Label textLabel = new Label("Text");
+		TextArea textInput = new TextArea(note.getText());
+		textInput.setPromptText("Optional");
+		textInput.setWrapText(true);
+		VBox textVBox = new VBox(textLabel, textInput);
+		
+		// Editing a note
+		Button editButton = new Button("Update");
+		editButton.setOnAction(e -> {
+			String inputTitle = titleInput.getText();
+			String inputDescription = descriptionInput.getText();
+			String inputText = textInput.getText();
+			runWrite(progress -> Database.editNote(note, inputTitle, inputDescription, inputText), result -> {
+				if (result == "Successful") { setNoteHome(); }
+				else { getErrorAlert(result); }
+			}, "Note Edit Failed");
+		});
+		
+		noteVBox.getChildren().addAll(homeButton, topHBox, titleHBox, descriptionHBox, textVBox, editButton);
+	}
+}
@@ -0,0 +1,560 @@
+/**
+ * @author Michelle Nguyen
+ * @version 2026-10-17
+ */
+
+
+/* IMPORT STATEMENTS */
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+
+/**
+ * Keeps sets and notes in the text files the application has always used.
+ *
+ * Sets are stored one file per set by SetShardStore. Notes are stored together in note_database,
+ * which is rewritten in the background by PersistenceService whenever a note changes; the text
+ * of each note is only read from the file when the note is opened (see NoteBodyCache).
+ *
+ * The checksum of each note record is kept as it was last read or written, so after another
+ * program changes note_database only the notes whose records changed are replaced. The file is
+ * not written over until those changes have been read.
+ */
+public class FileStorage implements StorageBackend {
+	/* VARIABLES */
+	static final String NOTE_DATABASE = "note_database";
+	static final int BATCH_SIZE = 64;	// Records passed on at a time while loading
+	// Record checksum of each note by id, and stamp of note_database, as last read or written
+	private static LongMap<Integer> noteChecksums = new LongMap<>();
+	private static long noteStamp;
+	
+	
+	/* STUDYSET METHODS */
+	
+	
+	@Override
+	public ArrayList<StudySet> loadSets(Consumer<List<StudySet>> loaded) throws FileNotFoundException {
+		return SetShardStore.load(loaded);
+	}
+	
+	
+	@Override
+	public boolean loadedEverySet() {
+		return SetShardStore.loadedEverySet();
+	}
+	
+	
+	/**
+	 * Sets are not indexed by access date in the files, so this reads every set
+	 */
+	@Override
+	public ArrayList<StudySet> loadSetsAccessedSince(Date since) throws FileNotFoundException {
+		ArrayList<StudySet> accessed = new ArrayList<>();
+		for (StudySet s : SetShardStore.load(batch -> { })) {
+			if (s.getDateAccessedMillis() >= since.getTime()) { accessed.add(s); }
+		}
+		return accessed;
+	}
+	
+	
+	@Override
+	public void insertSet(StudySet set, List<StudySet> sets) {
+		SetShardStore.saveSet(set);
+		SetShardStore.saveOrder(sets);
+	}
+	
+	
+	@Override
+	public void updateSet(StudySet set) {
+		SetShardStore.saveSet(set);
+	}
+	
+	
+	@Override
+	public void updateSetDateAccessed(StudySet set) {
+		SetShardStore.saveSet(set);
+	}
+	
+	
+	@Override
+	public void deleteSet(StudySet set, List<StudySet> sets) {
+		SetShardStore.deleteSet(set, sets);
+	}
+	
+	
+	@Override
+	public void rewriteSets(List<StudySet> sets) throws FileNotFoundException {
+		SetShardStore.rewrite(sets);
+	}
+	
+	
+	/* FLASHCARD METHODS */
+	
+	
+	// A set's flashcards are stored in the set's file, so each of these saves the whole set
+	
+	
+	@Override
+	public void insertFlashcard(StudySet set, Flashcard flashcard) {
+		SetShardStore.saveSet(set);
+	}
+	
+	
+	@Override
+	public void updateFlashcard(StudySet set, Flashcard flashcard) {
+		SetShardStore.saveSet(set);
+	}
+	
+	
+	@Override
+	public void deleteFlashcard(StudySet set, Flashcard flashcard) {
+		SetShardStore.saveSet(set);
+	}
+	
+	
+	/* NOTE METHODS */
+	
+	
+	/**
+	 * Loads note data from database. Only the location of each note's text is kept,
+	 * the text itself is read through NoteBodyCache when the note is opened.
+	 * Corrupt notes are copied to the quarantine file and skipped.
+	 * @param loaded called with each batch of notes as they are read
+	 * @return the notes in display order
+	 * @throws FileNotFoundException
+	 */
+	@Override
+	public ArrayList<Note> loadNotes(Consumer<List<Note>> loaded) throws FileNotFoundException {
+		ArrayList<Note> notes = new ArrayList<>();
+		ArrayList<Note> batch = new ArrayList<>();
+		File noteData = new File(NOTE_DATABASE);
+		long stamp = Database.stampFiles(new File[] { noteData });
+		LongMap<Integer> checksums = new LongMap<>();
+		DatabaseReader in = new DatabaseReader(noteData);
+		StringBuilder text = new StringBuilder();
+		int version = 1;
+		
+		while (in.hasNextLine()) {
+			long recordStart = in.position();
+			in.resetChecksum();
+			String line = in.nextLine();
+			if (Database.parseVersionLine(line) != -1) {
+				version = Database.parseVersionLine(line);
+				continue;
+			}
+			boolean hasId = line.equals(Database.NOTE_HEADER);
+			boolean hasWordCount = hasId || line.equals(Database.WORD_COUNT_NOTE_HEADER);
+			
+			// Indicates new note (older notes have no length, word count or id stored)
+			if (hasWordCount || line.equals(Database.LEGACY_NOTE_HEADER)) {
+				Note note = readNote(in, recordStart, hasWordCount, hasId, text, checksums, noteData);
+				if (note == null) { continue; }
+				notes.add(note);
+				batch.add(note);
+				if (batch.size() == BATCH_SIZE) {
+					loaded.accept(batch);
+					batch = new ArrayList<>();
+				}
+			}
+		}
+		in.close();
+		if (!batch.isEmpty()) { loaded.accept(batch); }
+		synchronized (FileStorage.class) {
+			noteChecksums = checksums;
+			noteStamp = stamp;
+		}
+		
+		// Older files are rewritten in the current format in the background, copying each text as is
+		if (version < Database.FORMAT_VERSION && !notes.isEmpty()) {
+			PersistenceService.markNotesDirty(notes);
+		}
+		return notes;
+	}
+	
+	
+	/**
+	 * Reads one note after its header line, skipping over its text when the length is known
+	 * @param in the reader, with its checksum reset before the header line
+	 * @param recordStart the position of the header line
+	 * @param hasWordCount true if the note was saved with its word count
+	 * @param hasId true if the note was saved with its id
+	 * @param text reused to hold the text of older notes
+	 * @param checksums given the record checksum of the note by id, if it was saved with its id
+	 * @param source the file being read
+	 * @return the note, or null if the note is corrupt
+	 */
+	private static Note readNote(DatabaseReader in, long recordStart, boolean hasWordCount, boolean hasId, StringBuilder text, LongMap<Integer> checksums, File source) {
+		String reason;
+		try {
+			// Get details of note
+			String title = in.nextLine();
+			String description = in.nextLine();
+			
+			// "TextStart:" followed by the length of the text in bytes and its checksum
+			String line = in.nextLine();
+			if (!line.startsWith("TextStart:")) { throw new IllegalArgumentException("Missing TextStart:"); }
+			String[] textInfo = line.substring(10).split(":");
+			long textOffset = in.position();
+			long textEnd = -1;
+			long textChecksum = textInfo.length > 1 ? Long.parseLong(textInfo[1], 16) : -1;
+			int wordCount = -1;
+			
+			// Skip over the text if its length is known
+			if (!textInfo[0].isEmpty()) {
+				long length = Long.parseLong(textInfo[0]);
+				in.seek(textOffset + length);
+				if (in.hasNextLine() && in.nextLine().isEmpty() && in.hasNextLine() && in.nextLine().equals("TextEnd:")) {
+					textEnd = textOffset + length;
+				}
+				else {
+					in.seek(textOffset);	// Length does not match, eg. file was edited by hand
+				}
+			}
+			
+			// Otherwise read the text, only to find where it ends and count its words
+			if (textEnd == -1) {
+				text.setLength(0);
+				text.append(in.nextLine());
+				long lineStart = in.position();
+				line = in.nextLine();
+				while (!line.equals("TextEnd:")) {
+					text.append("\n").append(line);
+					lineStart = in.position();
+					line = in.nextLine();
+				}
+				textEnd = lineStart - 1;	// Text ends before the line break ahead of "TextEnd:"
+				wordCount = Note.countWords(text);
+				textChecksum = -1;
+			}
+			
+			// Get dates
+			Date dateCreated = Database.parseDate(in.nextLine());
+			Date dateAccessed = Database.parseDate(in.nextLine());
+			
+			// Get word count
+			if (hasWordCount) {
+				int storedCount = Integer.parseInt(in.nextLine());
+				if (wordCount == -1) { wordCount = storedCount; }
+			}
+			
+			// Get id
+			long id = hasId ? Long.parseLong(in.nextLine()) : 0;
+			int recordChecksum = in.checksum();
+			
+			if (in.isTerminated() && in.matchChecksum()) {
+				Note note = new Note(title, description, wordCount, textOffset, (int) (textEnd - textOffset), textChecksum, dateCreated, dateAccessed);
+				if (hasId) {
+					note.updateId(id);
+					checksums.put(id, recordChecksum);
+				}
+				return note;
+			}
+			reason = "Checksum does not match";
+		}
+		catch (NoSuchElementException e) { reason = "Record is incomplete"; }
+		catch (IllegalArgumentException e) { reason = "Record is malformed"; }
+		
+		Database.quarantine(source, recordStart, in.position(), reason);
+		
+		// Continue looking for notes from the line after this header
+		in.seek(recordStart);
+		in.nextLine();
+		return null;
+	}
+	
+	
+	/**
+	 * Reads note_database again after another program changed it, eg. a sync tool. Records are
+	 * matched to notes by id, and a note is only replaced if its record checksum changed; the
+	 * others are kept, with their text now found at its place in the new file. Notes added here
+	 * and not written yet are kept, as are unsaved edits to notes that did not change in the file.
+	 * @param notes every note in memory, in display order
+	 * @return the notes added, removed or changed, to apply to notes
+	 */
+	static synchronized ExternalChanges<Note> rescanNotes(List<Note> notes) {
+		ExternalChanges<Note> changes = new ExternalChanges<>();
+		File noteData = new File(NOTE_DATABASE);
+		long stamp = Database.stampFiles(new File[] { noteData });
+		if (stamp == 0 || stamp == noteStamp) { return changes; }	// Deleted, or last written here
+		
+		ArrayList<Note> found = new ArrayList<>();
+		LongMap<Integer> checksums = new LongMap<>();
+		StringBuilder text = new StringBuilder();
+		DatabaseReader in;
+		try {
+			in = new DatabaseReader(noteData);
+		}
+		catch (FileNotFoundException e) {
+			return changes;
+		}
+		try {
+			while (in.hasNextLine()) {
+				long recordStart = in.position();
+				in.resetChecksum();
+				String line = in.nextLine();
+				boolean hasId = line.equals(Database.NOTE_HEADER);
+				boolean hasWordCount = hasId || line.equals(Database.WORD_COUNT_NOTE_HEADER);
+				if (hasWordCount || line.equals(Database.LEGACY_NOTE_HEADER)) {
+					Note note = readNote(in, recordStart, hasWordCount, hasId, text, checksums, noteData);
+					// A damaged record, eg. the file is still being copied, so wait for the next change
+					if (note == null) { return changes; }
+					found.add(note);
+				}
+			}
+		}
+		finally {
+			in.close();
+		}
+		
+		LongMap<Note> byId = new LongMap<>();
+		for (Note n : notes) {
+			byId.put(n.getId(), n);
+		}
+		// Text is read from the file by location, so the locations change with the file, as in writeNotes()
+		synchronized (NoteBodyCache.class) {
+			for (Note parsed : found) {
+				Note old = byId.get(parsed.getId());
+				Integer known = noteChecksums.get(parsed.getId());
+				if (old == null) {
+					changes.add(parsed);
+				}
+				else if (known != null && known.equals(checksums.get(parsed.getId()))) {
+					old.updateTextLocation(parsed.getTextOffset(), parsed.getTextLength(), parsed.getTextChecksum(), null);
+				}
+				else {
+					changes.replace(old, parsed);
+				}
+			}
+		}
+		for (Note n : notes) {
+			if (noteChecksums.containsKey(n.getId()) && !checksums.containsKey(n.getId())) { changes.remove(n); }
+		}
+		noteChecksums = checksums;
+		noteStamp = stamp;
+		return changes;
+	}
+	
+	
+	@Override
+	public void insertNote(Note note, List<Note> notes) {
+		PersistenceService.markNotesDirty(notes);
+	}
+	
+	
+	@Override
+	public void updateNote(Note note, List<Note> notes) {
+		PersistenceService.markNotesDirty(notes);
+	}
+	
+	
+	@Override
+	public void updateNoteDateAccessed(Note note, List<Note> notes) {
+		PersistenceService.markNotesDirty(notes);
+	}
+	
+	
+	@Override
+	public void deleteNote(Note note, List<Note> notes) {
+		NoteBodyCache.remove(note);
+		PersistenceService.markNotesDirty(notes);
+	}
+	
+	
+	@Override
+	public void rewriteNotes(List<Note> notes) throws FileNotFoundException {
+		writeNotes(notes);
+	}
+	
+	
+	/**
+	 * Writes every note to the note database. Writes to a temporary file first, so the text
+	 * of notes that are not in memory can be copied from the current file, then records where
+	 * each note's text ended up. Runs on the saver thread, so notes is a snapshot that later changes do not affect.
+	 * @param notes the notes to write
+	 * @throws FileNotFoundException if the notes could not be written, or the file was changed by
+	 *                               another program and rescanNotes() has not read it yet
+	 */
+	static synchronized void writeNotes(List<Note> notes) throws FileNotFoundException {
+		File noteData = new File(NOTE_DATABASE);
+		File temp = new File(NOTE_DATABASE + ".tmp");
+		// The text of notes not in memory is copied by location, which only holds for the file as last read
+		long stamp = Database.stampFiles(new File[] { noteData });
+		if (noteStamp != 0 && stamp != 0 && stamp != noteStamp) {
+			throw new FileNotFoundException(noteData + " was changed by another program");
+		}
+		long[] textOffsets = new long[notes.size()];
+		int[] textLengths = new int[notes.size()];
+		long[] textChecksums = new long[notes.size()];
+		String[] texts = new String[notes.size()];
+		LongMap<Integer> checksums = writeNoteFile(notes, temp, textOffsets, textLengths, textChecksums, texts);
+		
+		// Text is read from the file by location, so the file and the locations change together
+		synchronized (NoteBodyCache.class) {
+			try {
+				Database.moveIntoPlace(temp, noteData);
+			}
+			catch (IOException e) {
+				FileNotFoundException notSaved = new FileNotFoundException("Could not replace " + noteData);
+				notSaved.initCause(e);
+				throw notSaved;
+			}
+			
+			// Text is now in the new file, so it can be dropped from memory
+			for (int i = 0; i < notes.size(); i++) {
+				notes.get(i).updateTextLocation(textOffsets[i], textLengths[i], textChecksums[i], texts[i]);
+			}
+		}
+		noteChecksums = checksums;
+		noteStamp = Database.stampFiles(new File[] { noteData });
+	}
+	
+	
+	/**
+	 * Writes notes that could not be saved to a note database in another directory, eg. when the
+	 * application closes, so they can be recovered by hand. The notes still belong to note_database.
+	 * @param notes the notes to write
+	 * @param directory the directory, created if needed
+	 * @throws FileNotFoundException if the notes could not be written
+	 */
+	static synchronized void saveUnsaved(List<Note> notes, File directory) throws FileNotFoundException {
+		directory.mkdirs();
+		writeNoteFile(notes, new File(directory, NOTE_DATABASE), new long[notes.size()], new int[notes.size()],
+				new long[notes.size()], new String[notes.size()]);
+	}
+	
+	
+	/**
+	 * Writes notes in the note database format and makes sure the file is on disk, copying the
+	 * text of notes that are not in memory from the current note database
+	 * @param notes the notes to write
+	 * @param target the file to write
+	 * @param textOffsets filled with where each note's text is in the file
+	 * @param textLengths filled with the length of each note's text
+	 * @param textChecksums filled with the checksum of each note's text
+	 * @param texts filled with the text of each note that was in memory, or null
+	 * @return the record checksum of each note by id
+	 * @throws FileNotFoundException if the file could not be written
+	 */
+	private static LongMap<Integer> writeNoteFile(List<Note> notes, File target, long[] textOffsets, int[] textLengths,
+			long[] textChecksums, String[] texts) throws FileNotFoundException {
+		File noteData = new File(NOTE_DATABASE);
+		LongMap<Integer> checksums = new LongMap<>();
+		try (FileChannel old = noteData.exists() ? FileChannel.open(noteData.toPath(), StandardOpenOption.READ) : null;
+				FileOutputStream file = new FileOutputStream(target);
+				OutputStream writer = new BufferedOutputStream(file)) {
+			long position = write(writer, Database.formatVersionLine(), null);
+			CRC32 checksum = new CRC32();
+			CRC32 textChecksum = new CRC32();
+			for (int i = 0; i < notes.size(); i++) {
+				Note n = notes.get(i);
+				byte[] text;
+				synchronized (NoteBodyCache.class) {
+					texts[i] = n.getLoadedText();
+					text = texts[i] != null || old == null
+							? n.getText().getBytes(StandardCharsets.UTF_8)
+							: NoteBodyCache.read(old, n.getTextOffset(), n.getTextLength());
+				}
+				textChecksum.reset();
+				textChecksum.update(text);
+				
+				// Record checksum covers every line except the text, which has its own checksum
+				checksum.reset();
+				position += write(writer, Database.NOTE_HEADER + "\n", checksum);
+				position += write(writer, n.getTitle() + "\n", checksum);
+				position += write(writer, n.getDescription() + "\n", checksum);
+				position += write(writer, "TextStart:" + text.length + ":" + Long.toHexString(textChecksum.getValue()) + "\n", checksum);
+				textOffsets[i] = position;
+				textLengths[i] = text.length;
+				textChecksums[i] = textChecksum.getValue();
+				writer.write(text);
+				position += text.length;
+				position += write(writer, "\nTextEnd:\n", checksum);
+				position += write(writer, n.getDateCreatedMillis() + "\n", checksum);
+				position += write(writer, n.getDateAccessedMillis() + "\n", checksum);
+				position += write(writer, n.getWordCount() + "\n", checksum);
+				position += write(writer, n.getId() + "\n", checksum);
+				checksums.put(n.getId(), (int) checksum.getValue());
+				position += write(writer, Database.CHECKSUM_LINE + String.format("%08x", checksum.getValue()) + "\n\n", null);
+			}
+			
+			// Make sure the whole file is on disk before it replaces the old one
+			writer.flush();
+			file.getFD().sync();
+		}
+		catch (IOException e) {
+			FileNotFoundException notSaved = new FileNotFoundException("Could not write " + target);
+			notSaved.initCause(e);
+			throw notSaved;
+		}
+		return checksums;
+	}
+	
+	
+	/* EXTERNAL CHANGE METHODS */
+	
+	
+	@Override
+	public ExternalChanges<StudySet> reloadSets(List<StudySet> sets, Collection<Long> keys) throws FileNotFoundException {
+		return SetShardStore.rescan(sets, keys);
+	}
+	
+	
+	@Override
+	public ExternalChanges<Note> reloadNotes(List<Note> notes) {
+		return rescanNotes(notes);
+	}
+	
+	
+	/* STORAGE METHODS */
+	
+	
+	@Override
+	public void flush() {
+		PersistenceService.flush();
+	}
+	
+	
+	@Override
+	public long setsStamp() {
+		return SetShardStore.stamp();
+	}
+	
+	
+	@Override
+	public long notesStamp() {
+		return Database.stampFiles(new File[] { new File(NOTE_DATABASE) });
+	}
+	
+	
+	/* HELPER METHODS */
+	
+	
+	/**
+	 * Writes a string as UTF-8
+	 * @param writer the stream to write to
+	 * @param s the string
+	 * @param checksum the checksum to add the bytes to, or null
+	 * @return the number of bytes written
+	 * @throws IOException
+	 */
+	private static int write(OutputStream writer, String s, CRC32 checksum) throws IOException {
+		byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+		writer.write(bytes);
+		if (checksum != null) { checksum.update(bytes); }
+		return bytes.length;
+	}
+}
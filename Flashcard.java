@@ -1,79 +1,103 @@
-/**
- * @author Umaima Aslam
- * @version 2025-04-04
- */
-
-
-public class Flashcard {
-	private String term;
-	private String definition;
-	private int priority;
-	private static int flashcardCount = 0;
-	private int id;
-	
-	// CONSTRUCTOR ---  
-
-	// creates a flashcard
-    // uses passed in values to initialize class variables
-	public Flashcard(String term, String definition, int priority) {
-		// id is initialized to flashcardCount
-        // flashcardCount is incremented
-        id = flashcardCount;
-        flashcardCount++;
-		
-        // initialize the term, definition, and priority variables;
-		this.term = term;
-		this.definition = definition;
-		this.priority = priority;
-	}
-	
-	// GET METHODS ---
-	
-	// returns term
-    public String getTerm() {
-        return term;
-    }
-
-    // returns definition
-    public String getDefinition() {
-        return definition;
-    }
-
-    // returns priority
-    public int getPriority() {
-        return priority;
-    }
-
-    // returns id
-    public int getId() {
-        return id;
-    }
-    
-    // UPDATE METHODS ---
-    
- 	// updates term
-    public void updateTerm(String term) {
-        this.term = term;
-    }
-
-    // updates definition
-    public void updateDefinition(String definition) {
-        this.definition = definition;
-    }
-
-    // updates id
-    public void updatePriority(int priority) {
-        this.priority = priority;
-    }
-    
-    // OVERRIDE METHODS ---
-    
-    // displays flashcard in the following format:
-    // Term: xxx
-    // Definition: xxx
-    // Priority: xxx
-    public String toString() {
-		return String.format("Term: %s\nDefinition: %s\nPriority: %s", term, definition, priority);
-	}
- 
+/**
+ * @author Umaima Aslam
+ * @version 2026-10-17
+ */
+
+
+public class Flashcard {
+	private String term;
+	private String definition;
+	private int priority;
+	private long id;	// 0 until the id is first needed
+	private long key = -1;
+	
+	// CONSTRUCTOR ---  
+
+	// creates a flashcard
+    // uses passed in values to initialize class variables
+	public Flashcard(String term, String definition, int priority) {
+		// initialize the term, definition, and priority variables;
+		this.term = term;
+		this.definition = definition;
+		this.priority = priority;
+	}
+
+	// creates a copy of a flashcard with the same id and key
+	// (used to edit a set's flashcards without changing the set until the edit is saved)
+	public Flashcard(Flashcard flashcard) {
+		this.term = flashcard.getTerm();
+		this.definition = flashcard.getDefinition();
+		this.priority = flashcard.getPriority();
+		this.id = flashcard.getId();
+		this.key = flashcard.getKey();
+	}
+	
+	// GET METHODS ---
+	
+	// returns term
+    public String getTerm() {
+        return term;
+    }
+
+    // returns definition
+    public String getDefinition() {
+        return definition;
+    }
+
+    // returns priority
+    public int getPriority() {
+        return priority;
+    }
+
+    // returns id, handing out a new one from IdAllocator if the flashcard does not have one yet
+    public synchronized long getId() {
+        if (id == 0) {
+            id = IdAllocator.nextId();
+        }
+        return id;
+    }
+
+    // returns the key of the flashcard's row in storage, -1 if storage does not keep one
+    public long getKey() {
+        return key;
+    }
+    
+    // UPDATE METHODS ---
+    
+ 	// updates term
+    public void updateTerm(String term) {
+        this.term = term;
+    }
+
+    // updates definition
+    public void updateDefinition(String definition) {
+        this.definition = definition;
+    }
+
+    // updates id
+    public void updatePriority(int priority) {
+        this.priority = priority;
+    }
+
+    // updates id, set by storage when the flashcard is loaded
+    public synchronized void updateId(long id) {
+        this.id = id;
+        IdAllocator.observe(id);
+    }
+
+    // updates key, set by storage when the flashcard is saved
+    public void updateKey(long key) {
+        this.key = key;
+    }
+    
+    // OVERRIDE METHODS ---
+    
+    // displays flashcard in the following format:
+    // Term: xxx
+    // Definition: xxx
+    // Priority: xxx
+    public String toString() {
+		return String.format("Term: %s\nDefinition: %s\nPriority: %s", term, definition, priority);
+	}
+ 
 }
\ No newline at end of file
@@ -0,0 +1,90 @@
+/**
+ * @author Michelle Nguyen
+ * @version 2026-10-17
+ */
+
+
+/* IMPORT STATEMENTS */
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+
+
+/**
+ * Hands out the ids of sets, flashcards and notes, so each one keeps the same id between runs.
+ *
+ * Ids are 64-bit and never handed out twice, whichever type they are for. The allocator saves a
+ * high-water mark, the first id it has not reserved, and reserves BLOCK ids at a time so the file
+ * is written once per block rather than once per id. After a restart it carries on from the saved
+ * mark, skipping whatever was left of the last block. The mark is written to a temporary file and
+ * moved into place, so a crash leaves either the old mark or the new one.
+ *
+ * Ids read back from storage are passed to observe(), so an id is never handed out again even if
+ * the mark was lost, eg. the file was deleted or the sets were copied from another computer.
+ */
+public class IdAllocator {
+	/* VARIABLES */
+	private static final File FILE = new File("id_allocator");
+	private static final String HEADER = "IdHighWaterMark:";
+	private static final long BLOCK = 1024;
+
+	private static long next;	// Next id to hand out
+	private static long limit;	// First id not reserved in FILE
+
+	static {
+		limit = readMark();
+		next = limit;
+	}
+
+
+	/**
+	 * Hands out a new id, reserving another block first if the last one is used up
+	 * @return the id, 1 or more
+	 */
+	public static synchronized long nextId() {
+		if (next >= limit) {
+			long newLimit = next + BLOCK;
+			try {
+				String text = HEADER + newLimit + "\n";
+				Database.writeAtomically(FILE, text + Database.checksumLine(text));
+			}
+			catch (IOException e) {
+				// Ids read back from storage are still observed on the next start
+				System.out.println("Id Reservation Failed");
+			}
+			limit = newLimit;
+		}
+		return next++;
+	}
+
+
+	/**
+	 * Makes sure an id read from storage is never handed out again
+	 * @param id the id
+	 */
+	public static synchronized void observe(long id) {
+		if (id >= next) { next = id + 1; }
+	}
+
+
+	/**
+	 * Reads the saved high-water mark
+	 * @return the mark, or 1 if there is none or it is damaged
+	 */
+	private static long readMark() {
+		if (!FILE.isFile()) { return 1; }
+
+		try {
+			List<String> lines = Files.readAllLines(FILE.toPath(), StandardCharsets.UTF_8);
+			String text = lines.get(0) + "\n";
+			if (lines.size() >= 2 && lines.get(0).startsWith(HEADER) && Database.checksumLine(text).equals(lines.get(1) + "\n")) {
+				return Math.max(1, Long.parseLong(lines.get(0).substring(HEADER.length())));
+			}
+		}
+		catch (IOException | RuntimeException e) { }
+		System.out.println("Id Allocator Load Failed");
+		return 1;
+	}
+}
@@ -0,0 +1,219 @@
+/**
+ * @author Michelle Nguyen
+ * @version 2026-10-17
+ */
+
+
+/* IMPORT STATEMENTS */
+import java.util.Arrays;
+
+
+/**
+ * Map from long keys to values, eg. ids to the sets, notes or flashcards they belong to.
+ *
+ * Keys are kept in a plain long array rather than as Long objects, so looking up a key does not
+ * create an object and the map takes a fraction of the memory of a HashMap. Keys are found by open
+ * addressing: a key is stored at the slot its hash points to, or the next free slot after it.
+ * Values cannot be null, since an empty slot is one with a null value.
+ * @param <V> the type of value
+ */
+public class LongMap<V> {
+	/* VARIABLES */
+	private static final int MIN_CAPACITY = 16;
+
+	private long[] keys;
+	private Object[] values;
+	private int size;
+
+
+	/**
+	 * Called with each key and value of the map, without boxing the key
+	 */
+	public interface Visitor<V> {
+		void visit(long key, V value);
+	}
+
+
+	public LongMap() {
+		keys = new long[MIN_CAPACITY];
+		values = new Object[MIN_CAPACITY];
+	}
+
+
+	/* GET METHODS */
+	public int size() { return size; }
+
+
+	/**
+	 * Gets the value of a key
+	 * @param key the key
+	 * @return the value, or null if the key is not in the map
+	 */
+	@SuppressWarnings("unchecked")
+	public V get(long key) {
+		int slot = find(key);
+		return slot < 0 ? null : (V) values[slot];
+	}
+
+
+	/**
+	 * Checks if a key is in the map
+	 * @param key the key
+	 * @return true if the key has a value
+	 */
+	public boolean containsKey(long key) {
+		return find(key) >= 0;
+	}
+
+
+	/**
+	 * Calls a visitor with every key and its value, in no particular order. The map must not be
+	 * changed until every key has been visited.
+	 * @param visitor the visitor
+	 */
+	@SuppressWarnings("unchecked")
+	public void forEach(Visitor<V> visitor) {
+		for (int slot = 0; slot < keys.length; slot++) {
+			if (values[slot] != null) { visitor.visit(keys[slot], (V) values[slot]); }
+		}
+	}
+
+
+	/* UPDATE METHODS */
+
+
+	/**
+	 * Sets the value of a key
+	 * @param key the key
+	 * @param value the value, not null
+	 * @return the value the key had before, or null if it had none
+	 */
+	@SuppressWarnings("unchecked")
+	public V put(long key, V value) {
+		if (value == null) { throw new NullPointerException("LongMap values cannot be null"); }
+
+		int slot = find(key);
+		if (slot >= 0) {
+			V old = (V) values[slot];
+			values[slot] = value;
+			return old;
+		}
+
+		// Grow once more than half full, so runs of used slots stay short
+		if ((size + 1) * 2 > keys.length) {
+			resize(keys.length * 2);
+			slot = find(key);
+		}
+		slot = -slot - 1;
+		keys[slot] = key;
+		values[slot] = value;
+		size++;
+		return null;
+	}
+
+
+	/**
+	 * Removes a key
+	 * @param key the key
+	 * @return the value the key had, or null if it was not in the map
+	 */
+	@SuppressWarnings("unchecked")
+	public V remove(long key) {
+		int slot = find(key);
+		if (slot < 0) { return null; }
+
+		V old = (V) values[slot];
+		values[slot] = null;
+		size--;
+
+		// Move later keys of the run back into the gap, so lookups do not stop at it
+		int mask = keys.length - 1;
+		int gap = slot;
+		for (int next = (slot + 1) & mask; values[next] != null; next = (next + 1) & mask) {
+			int home = hash(keys[next]) & mask;
+			// Move the key if its home slot is not between the gap and where it is now
+			if (((next - home) & mask) >= ((next - gap) & mask)) {
+				keys[gap] = keys[next];
+				values[gap] = values[next];
+				values[next] = null;
+				gap = next;
+			}
+		}
+		return old;
+	}
+
+
+	/**
+	 * Copies the map, eg. to change the copy while other threads read the original
+	 * @return a map with the same keys and values
+	 */
+	public LongMap<V> copy() {
+		LongMap<V> copy = new LongMap<>();
+		copy.keys = keys.clone();
+		copy.values = values.clone();
+		copy.size = size;
+		return copy;
+	}
+
+
+	/**
+	 * Removes every key
+	 */
+	public void clear() {
+		Arrays.fill(values, null);
+		size = 0;
+	}
+
+
+	/* HELPER METHODS */
+
+
+	/**
+	 * Finds the slot of a key
+	 * @param key the key
+	 * @return the slot of the key, or -(the free slot it would go in) - 1 if it is not in the map
+	 */
+	private int find(long key) {
+		int mask = keys.length - 1;
+		int slot = hash(key) & mask;
+		while (values[slot] != null) {
+			if (keys[slot] == key) { return slot; }
+			slot = (slot + 1) & mask;
+		}
+		return -slot - 1;
+	}
+
+
+	/**
+	 * Moves every key into a table of a different size
+	 * @param capacity the new number of slots, a power of 2
+	 */
+	private void resize(int capacity) {
+		long[] oldKeys = keys;
+		Object[] oldValues = values;
+		keys = new long[capacity];
+		values = new Object[capacity];
+		int mask = capacity - 1;
+		for (int i = 0; i < oldKeys.length; i++) {
+			if (oldValues[i] == null) { continue; }
+
+			int slot = hash(oldKeys[i]) & mask;
+			while (values[slot] != null) {
+				slot = (slot + 1) & mask;
+			}
+			keys[slot] = oldKeys[i];
+			values[slot] = oldValues[i];
+		}
+	}
+
+
+	/**
+	 * Spreads the bits of a key, so keys that count up do not all land next to each other
+	 * @param key the key
+	 * @return the hash
+	 */
+	private static int hash(long key) {
+		long h = key * 0x9E3779B97F4A7C15L;
+		return (int) (h ^ (h >>> 32));
+	}
+}
@@ -0,0 +1,193 @@
+/**
+ * @author Michelle Nguyen
+ * @version 2026-10-17
+ */
+
+
+/* IMPORT STATEMENTS */
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.function.ToLongFunction;
+
+
+/**
+ * The flashcards of several sets studied together, in order of priority and then due time.
+ *
+ * The sets are never copied into one list. Each set has a cursor that gives its own flashcards in
+ * order, and a heap holds one cursor per set keyed on the flashcard it would give next, so the
+ * next flashcard of the whole session is at the top of the heap. Taking it moves that one cursor
+ * on and puts it back in the heap, which takes O(log k) for k sets.
+ *
+ * A cursor works through its set one priority level at a time. On reaching a level it finds that
+ * level's flashcards and sorts them by due time, so it only holds one level of one set at once.
+ * Starting a session reads each set once to find its first level, without sorting whole sets.
+ */
+public class MergedStudyOrder implements Iterator<Flashcard> {
+	/* VARIABLES */
+	private final ToLongFunction<Flashcard> due;
+	private final PriorityQueue<Cursor> heap;
+	private StudySet lastSet;	// Set of the flashcard last returned by next()
+	private int studied;
+
+
+	/**
+	 * The flashcards of one set still to be studied, one priority level at a time
+	 */
+	private class Cursor implements Comparable<Cursor> {
+		final StudySet set;
+		final int order;	// Position of the set in the session, to keep ties in a fixed order
+		final List<Flashcard> flashcards;
+		int level = Integer.MIN_VALUE;	// Priority of the level being studied
+		long[] levelCards = new long[0];	// Due second << 32 | position, sorted, for the current level
+		int levelSize;
+		int next;	// Place in levelCards of the next flashcard
+
+
+		Cursor(StudySet set, int order) {
+			this.set = set;
+			this.order = order;
+			this.flashcards = set.getFlashcards();
+		}
+
+
+		/**
+		 * Checks if the set has a flashcard left, moving to the next priority level if it needs to
+		 * @return true if there is a flashcard left
+		 */
+		boolean hasCard() {
+			while (next == levelSize) {
+				if (!nextLevel()) { return false; }
+			}
+			return true;
+		}
+
+
+		Flashcard card() { return flashcards.get((int) levelCards[next]); }
+		long cardDue() { return levelCards[next] >>> 32; }
+
+
+		/**
+		 * Moves to the lowest priority number after the current level and sorts its flashcards by due time
+		 * @return false if there are no more levels
+		 */
+		private boolean nextLevel() {
+			int size = flashcards.size();
+			int found = Integer.MAX_VALUE;
+			int count = 0;
+			for (int i = 0; i < size; i++) {
+				int priority = flashcards.get(i).getPriority();
+				if (priority <= level || priority > found) { continue; }
+				if (priority < found) {
+					found = priority;
+					count = 0;
+				}
+				count++;
+			}
+			if (count == 0) { return false; }
+
+			level = found;
+			if (levelCards.length < count) { levelCards = new long[count]; }
+			levelSize = 0;
+			next = 0;
+			for (int i = 0; i < size; i++) {
+				Flashcard flashcard = flashcards.get(i);
+				if (flashcard.getPriority() == level) { levelCards[levelSize++] = dueSecond(flashcard) << 32 | i; }
+			}
+			Arrays.sort(levelCards, 0, levelSize);
+			return true;
+		}
+
+
+		@Override
+		public int compareTo(Cursor other) {
+			if (level != other.level) { return Integer.compare(level, other.level); }
+			long cardDue = cardDue();
+			long otherCardDue = other.cardDue();
+			if (cardDue != otherCardDue) { return Long.compare(cardDue, otherCardDue); }
+			return Integer.compare(order, other.order);
+		}
+	}
+
+
+	/**
+	 * Studies sets in order of priority only
+	 * @param sets the sets, whose flashcards must not change while they are being studied
+	 */
+	public MergedStudyOrder(List<StudySet> sets) {
+		this(sets, flashcard -> 0);
+	}
+
+
+	/**
+	 * @param sets the sets, whose flashcards must not change while they are being studied
+	 * @param due gets when a flashcard is due in epoch milliseconds, eg. ReviewScheduler::getDue,
+	 *            used to order flashcards of the same priority
+	 */
+	public MergedStudyOrder(List<StudySet> sets, ToLongFunction<Flashcard> due) {
+		this.due = due;
+		heap = new PriorityQueue<>(Math.max(1, sets.size()));
+		for (int i = 0; i < sets.size(); i++) {
+			Cursor cursor = new Cursor(sets.get(i), i);
+			if (cursor.hasCard()) { heap.add(cursor); }
+		}
+	}
+
+
+	/* GET METHODS */
+	public int getStudied() { return studied; }
+
+
+	/**
+	 * Gets the set of the flashcard last returned by next()
+	 * @return the set, or null if next() has not been called
+	 */
+	public StudySet getSet() {
+		return lastSet;
+	}
+
+
+	/* ITERATION */
+
+
+	@Override
+	public boolean hasNext() {
+		return !heap.isEmpty();
+	}
+
+
+	/**
+	 * Gets the next flashcard of the session
+	 * @return the flashcard
+	 * @throws NoSuchElementException if every flashcard has been studied
+	 */
+	@Override
+	public Flashcard next() {
+		Cursor cursor = heap.poll();
+		if (cursor == null) { throw new NoSuchElementException(); }
+
+		Flashcard flashcard = cursor.card();
+		lastSet = cursor.set;
+		studied++;
+		cursor.next++;
+		if (cursor.hasCard()) { heap.add(cursor); }
+		return flashcard;
+	}
+
+
+	/* HELPER METHODS */
+
+
+	/**
+	 * Gets when a flashcard is due in whole seconds, which fits in the top half of a long with the
+	 * flashcard's position below it
+	 * @param flashcard the flashcard
+	 * @return the due time in epoch seconds, from 0 up to 2^31 - 1
+	 */
+	private long dueSecond(Flashcard flashcard) {
+		long seconds = due.applyAsLong(flashcard) / 1000;
+		return Math.max(0, Math.min(Integer.MAX_VALUE, seconds));
+	}
+}
@@ -1,94 +1,177 @@
-/**
- * @author Abigail Louie
- * @version 2025-04-09
- */
-
-
-/* IMPORT CLASSES */ 
-import java.util.Date;
-
-public class Note {
-	private String title;
-	private String description;
-	private String text;
-	private int wordCount;
-	private static int noteCount = 0;
-	private int id;
-	private Date dateCreated;
-	private Date dateAccessed;
-	
-	public Note(String title, String description, String text) {
-		this.title = title;
-		this.description = description;
-		this.text = text;
-		updateWordCount();
-		this.dateCreated = new Date();
-		this.dateAccessed = dateCreated;
-		id = noteCount;
-		noteCount++;
-	}
-	
-	public Note(String title, String description, String text, Date dateCreated, Date dateAccessed) {
-		this.title = title;
-		this.description = description;
-		this.text = text;
-		updateWordCount();
-		id = noteCount;
-		noteCount++;
-		this.dateCreated = dateCreated;
-		this.dateAccessed = dateAccessed;
-	}
-	
-	//GET METHODS
-	public String getTitle() { 
-		return title; 
-	}
-	public String getDescription() { 
-		return description; 
-	}
-	public String getText() { 
-		return text; 
-	}
-	public int getWordCount () {
-		return wordCount;
-	}
-	public int getId() { 
-		return id; 
-	}
-	public Date getDateCreated() { 
-		return dateCreated; 
-	}
-	public Date getDateAccessed() { 
-		return dateAccessed; 
-	}
-	
-	// UPDATE METHODS
-	public void updateTitle(String title) { 
-		this.title = title; 
-	}
-	public void updateDescription(String description) { 
-		this.description = description; 
-	}
-	public void updateText(String text) { 
-		this.text = text; 
-		updateWordCount();
-	}
-	public void updateWordCount () {
-		String newText = text.replaceAll("[^a-zA-Z0-9\\s]", " "); //Remove all characters that are not letters, numbers, or white space
- 		String[] words = newText.trim().split("\\s+"); //Find all words in the text
- 		wordCount = words.length; // Count all words in the text
-	}
-	public void updateDateAccessed () {
-		this.dateAccessed = new Date();
-	}
-	
-	// OVERRIDE METHODS
-	public String toString() {
-		return String.format("Title:\t\t%s\n"
-				+ "Description:\t%s\n"
-				+ "Text:\t\t\n%s"
-				+ "Date Created:\t%s\n"
-				+ "Date Accessed:\t%s", 
-				title, description, text, dateCreated, dateAccessed);
-	}
+/**
+ * @author Abigail Louie
+ * @version 2026-10-17
+ */
+
+
+/* IMPORT CLASSES */ 
+import java.util.Date;
+
+public class Note {
+	private String title;
+	private String description;
+	private volatile String text;	// null while the text is only in note_database
+	private int wordCount;
+	private TextStats stats;	// null until the text is counted, notes are loaded with only a word count
+	private long id;	// 0 until the id is first needed, then saved so it stays the same between runs
+	private long key = -1;
+	private long dateCreated;	// Epoch milliseconds, the same way they are stored
+	private long dateAccessed;
+	// Where the text is stored in note_database, for when the text is not kept in memory
+	private long textOffset = -1;
+	private int textLength;
+	private long textChecksum = -1;
+	
+	public Note(String title, String description, String text) {
+		this.title = title;
+		this.description = description;
+		this.text = text;
+		updateWordCount();
+		this.dateCreated = System.currentTimeMillis();
+		this.dateAccessed = dateCreated;
+	}
+	
+	public Note(String title, String description, String text, Date dateCreated, Date dateAccessed) {
+		this.title = title;
+		this.description = description;
+		this.text = text;
+		updateWordCount();
+		this.dateCreated = dateCreated.getTime();
+		this.dateAccessed = dateAccessed.getTime();
+	}
+	
+	// Text is left in note_database and only read when getText() is called
+	public Note(String title, String description, int wordCount, long textOffset, int textLength, long textChecksum, Date dateCreated, Date dateAccessed) {
+		this.title = title;
+		this.description = description;
+		this.wordCount = wordCount;
+		this.textOffset = textOffset;
+		this.textLength = textLength;
+		this.textChecksum = textChecksum;
+		this.dateCreated = dateCreated.getTime();
+		this.dateAccessed = dateAccessed.getTime();
+	}
+	
+	//GET METHODS
+	public String getTitle() { 
+		return title; 
+	}
+	public String getDescription() { 
+		return description; 
+	}
+	public String getText() { 
+		if (text == null) {
+			return NoteBodyCache.get(this);
+		}
+		return text; 
+	}
+	public long getTextOffset() {
+		return textOffset;
+	}
+	public int getTextLength() {
+		return textLength;
+	}
+	public long getTextChecksum() {
+		return textChecksum;
+	}
+	public boolean isTextLoaded() {
+		return text != null;
+	}
+	public String getLoadedText() {
+		return text;
+	}
+	public int getWordCount () {
+		return wordCount;
+	}
+	// Counts the text the first time it is needed, reading it through NoteBodyCache if it is not in memory
+	public TextStats getTextStats() {
+		if (stats == null) {
+			stats = TextStats.count(getText());
+		}
+		return stats;
+	}
+	public synchronized long getId() { 
+		if (id == 0) {
+			id = IdAllocator.nextId();
+		}
+		return id; 
+	}
+	public long getKey() {
+		return key;
+	}
+	public Date getDateCreated() { 
+		return new Date(dateCreated); 
+	}
+	public Date getDateAccessed() { 
+		return new Date(dateAccessed); 
+	}
+	public long getDateCreatedMillis() {
+		return dateCreated;
+	}
+	public long getDateAccessedMillis() {
+		return dateAccessed;
+	}
+	
+	// UPDATE METHODS
+	public synchronized void updateId(long id) {
+		this.id = id;
+		IdAllocator.observe(id);
+	}
+	public void updateKey(long key) {
+		this.key = key;
+	}
+	public void updateTitle(String title) { 
+		this.title = title; 
+	}
+	public void updateDescription(String description) { 
+		this.description = description; 
+	}
+	public void updateText(String text) { 
+		// Only the changed part is counted if the old text was already counted
+		String oldText = stats == null ? null : getText();
+		synchronized (NoteBodyCache.class) {
+			this.text = text; 
+			NoteBodyCache.remove(this);
+		}
+		stats = oldText == null ? TextStats.count(text) : stats.update(oldText, text);
+		wordCount = stats.getWords();
+	}
+	public void updateWordCount () {
+		stats = TextStats.count(text);
+		wordCount = stats.getWords();
+	}
+	// Text now lives in note_database at the given location, so it no longer has to be kept in memory
+	// savedText is the text that was written, if it was in memory; newer edits are kept until they are saved
+	public void updateTextLocation(long textOffset, int textLength, long textChecksum, String savedText) {
+		synchronized (NoteBodyCache.class) {
+			if (text != null && text != savedText) {
+				return;
+			}
+			if (text != null) {
+				NoteBodyCache.put(this, text);
+				text = null;
+			}
+			this.textOffset = textOffset;
+			this.textLength = textLength;
+			this.textChecksum = textChecksum;
+		}
+	}
+	
+	// HELPER METHODS
+	public static int countWords(CharSequence text) {
+		return TextStats.count(text).getWords(); // Count the runs of letters and numbers in the text
+	}
+	public void updateDateAccessed () {
+		this.dateAccessed = System.currentTimeMillis();
+	}
+	
+	// OVERRIDE METHODS
+	public String toString() {
+		return String.format("Title:\t\t%s\n"
+				+ "Description:\t%s\n"
+				+ "Text:\t\t\n%s"
+				+ "Date Created:\t%s\n"
+				+ "Date Accessed:\t%s", 
+				title, description, getText(), getDateCreated(), getDateAccessed());
+	}
 }
\ No newline at end of file
@@ -0,0 +1,128 @@
+/**
+ * @author Michelle Nguyen
+ * @version 2026-10-17
+ */
+
+
+/* IMPORT STATEMENTS */
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+
+/**
+ * Bounded cache of note text read from note_database.
+ *
+ * Notes are loaded with only the location of their text, so a note's text is read the first
+ * time it is viewed or edited. The least recently used texts are dropped once the cache holds
+ * more than MAX_CHARS characters, so memory does not grow with the total size of all notes.
+ */
+public class NoteBodyCache {
+	/* VARIABLES */
+	private static final long MAX_CHARS = 4 * 1024 * 1024;
+	private static final LinkedHashMap<Note, String> cache = new LinkedHashMap<>(16, 0.75f, true);
+	private static long cachedChars;
+
+
+	/**
+	 * Gets the text of a note, reading it from the database if it is not cached
+	 * @param note the note
+	 * @return the text of the note
+	 */
+	public static synchronized String get(Note note) {
+		String text = cache.get(note);
+		if (text == null) {
+			if (note.getTextOffset() < 0) { return ""; }
+			try (FileChannel channel = FileChannel.open(new File(FileStorage.NOTE_DATABASE).toPath(), StandardOpenOption.READ)) {
+				byte[] bytes = read(channel, note.getTextOffset(), note.getTextLength());
+				CRC32 checksum = new CRC32();
+				checksum.update(bytes);
+				if (note.getTextChecksum() != -1 && checksum.getValue() != note.getTextChecksum()) {
+					// Still show what is there, but keep a copy in case the next save overwrites it
+					Database.quarantine(new File(FileStorage.NOTE_DATABASE), note.getTextOffset(), note.getTextOffset() + note.getTextLength(),
+							"Text of note \"" + note.getTitle() + "\" does not match its checksum");
+				}
+				text = decode(bytes);
+			}
+			catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+			put(note, text);
+		}
+		return text;
+	}
+
+
+	/**
+	 * Caches the text of a note
+	 * @param note the note
+	 * @param text the text of the note
+	 */
+	public static synchronized void put(Note note, String text) {
+		String old = cache.put(note, text);
+		if (old != null) { cachedChars -= old.length(); }
+		cachedChars += text.length();
+
+		// Drop least recently used texts, always keeping the newest one
+		Iterator<Map.Entry<Note, String>> it = cache.entrySet().iterator();
+		while (cachedChars > MAX_CHARS && cache.size() > 1) {
+			cachedChars -= it.next().getValue().length();
+			it.remove();
+		}
+	}
+
+
+	/**
+	 * Removes a note from the cache, eg. when its text is changed or it is deleted
+	 * @param note the note
+	 */
+	public static synchronized void remove(Note note) {
+		String old = cache.remove(note);
+		if (old != null) { cachedChars -= old.length(); }
+	}
+
+
+	/* HELPER METHODS */
+
+
+	/**
+	 * Reads the raw bytes of a note's text
+	 * @param channel the open note database
+	 * @param offset the start of the text
+	 * @param length the length of the text in bytes
+	 * @return the bytes
+	 * @throws IOException
+	 */
+	static byte[] read(FileChannel channel, long offset, int length) throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocate(length);
+		while (buffer.hasRemaining()) {
+			if (channel.read(buffer, offset + buffer.position()) < 0) {
+				throw new IOException("Record is past the end of the file");
+			}
+		}
+		return buffer.array();
+	}
+
+
+	/**
+	 * Decodes note text, turning "\r\n" line endings into "\n"
+	 * @param bytes the UTF-8 bytes of the text
+	 * @return the text
+	 */
+	static String decode(byte[] bytes) {
+		String text = new String(bytes, StandardCharsets.UTF_8);
+		if (text.indexOf('\r') != -1) {
+			text = text.replace("\r\n", "\n");
+			if (text.endsWith("\r")) { text = text.substring(0, text.length() - 1); }
+		}
+		return text;
+	}
+}
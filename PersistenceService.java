@@ -0,0 +1,278 @@
+/**
+ * @author Michelle Nguyen
+ * @version 2026-10-17
+ */
+
+
+/* IMPORT STATEMENTS */
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Write-behind saving for the database files.
+ *
+ * Database methods only mark the sets or notes as changed. The first change schedules a save
+ * on a background thread DELAY_MILLIS later, and every change made before then is written by
+ * that same save. flush() writes everything straight away and is called when the application
+ * closes; a shutdown hook does the same if the JVM is stopped another way.
+ *
+ * A save that fails is tried again, waiting twice as long after each failure in a row up to
+ * MAX_RETRY_MILLIS, and only the first failure is reported. Changes that still cannot be saved
+ * when flush() is called are written to UNSAVED_DIRECTORY instead, so they can be recovered by hand.
+ */
+public class PersistenceService {
+	/* VARIABLES */
+	private static final long DELAY_MILLIS = 500;
+	private static final long MAX_RETRY_MILLIS = 60000;
+	static final File UNSAVED_DIRECTORY = new File("unsaved_changes",
+			LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm-ss")));
+	private static final ScheduledExecutorService saver = Executors.newSingleThreadScheduledExecutor(r -> {
+		Thread thread = new Thread(r, "database-saver");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	private static ScheduledFuture<?> scheduled;
+	private static boolean setsDirty;
+	private static boolean scheduleDirty;
+	private static boolean reviewLogDirty;
+	private static List<Note> pendingNotes;
+	private static long delayMillis = DELAY_MILLIS;	// Grows while saves keep failing
+	private static int failures;	// Saves failed in a row
+
+	static {
+		Runtime.getRuntime().addShutdownHook(new Thread(PersistenceService::flush, "database-flush"));
+	}
+
+
+	/**
+	 * Marks the sets as changed, SetShardStore holds the changes to write
+	 */
+	public static synchronized void markSetsDirty() {
+		setsDirty = true;
+		schedule();
+	}
+
+
+	/**
+	 * Marks the notes as changed
+	 * @param notes every note in the database, a snapshot so later changes are not seen mid-save
+	 */
+	public static synchronized void markNotesDirty(List<Note> notes) {
+		pendingNotes = notes;
+		schedule();
+	}
+
+
+	/**
+	 * Replaces the notes waiting to be saved, if there are any, eg. after some were read in again
+	 * @param notes every note in the database, a snapshot so later changes are not seen mid-save
+	 */
+	public static synchronized void refreshPendingNotes(List<Note> notes) {
+		if (pendingNotes != null) { pendingNotes = notes; }
+	}
+
+
+	/**
+	 * Marks the review schedules as changed, ReviewScheduler holds the changes to write
+	 */
+	public static synchronized void markScheduleDirty() {
+		scheduleDirty = true;
+		schedule();
+	}
+
+
+	/**
+	 * Marks the review log as having events to write, ReviewLog holds them
+	 */
+	public static synchronized void markReviewLogDirty() {
+		reviewLogDirty = true;
+		schedule();
+	}
+
+
+	/**
+	 * Writes every pending change, and waits until it is on disk. Changes that cannot be written
+	 * are reported and kept in UNSAVED_DIRECTORY.
+	 */
+	public static void flush() {
+		try {
+			saver.submit(() -> {
+				save();
+				if (failures > 0) { keepUnsaved(); }
+			}).get();
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		catch (ExecutionException e) {
+			System.out.println("Database Flush Failed");
+		}
+		catch (RuntimeException e) {
+			// Saver already shut down, so everything was flushed or kept
+		}
+	}
+
+
+	/**
+	 * Writes every pending change and stops the background thread
+	 */
+	public static void shutdown() {
+		flush();
+		saver.shutdown();
+	}
+
+
+	/* HELPER METHODS */
+
+
+	/**
+	 * Schedules a save unless one is already waiting, later while saves keep failing
+	 */
+	private static void schedule() {
+		if (scheduled == null && !saver.isShutdown()) {
+			scheduled = saver.schedule(PersistenceService::save, delayMillis, TimeUnit.MILLISECONDS);
+		}
+	}
+
+
+	/**
+	 * Reports a failed save, unless it is part of a run of failures that was already reported
+	 * @param message the failure
+	 */
+	private static void reportFailure(String message) {
+		if (failures == 0) { System.out.println(message + ", Retrying"); }
+	}
+
+
+	/**
+	 * Writes the changes marked so far, runs on the saver thread
+	 */
+	private static void save() {
+		boolean saveSets;
+		boolean saveSchedule;
+		boolean saveReviewLog;
+		List<Note> saveNotes;
+		synchronized (PersistenceService.class) {
+			saveSets = setsDirty;
+			saveSchedule = scheduleDirty;
+			saveReviewLog = reviewLogDirty;
+			saveNotes = pendingNotes;
+			setsDirty = false;
+			scheduleDirty = false;
+			reviewLogDirty = false;
+			pendingNotes = null;
+			if (scheduled != null) {
+				scheduled.cancel(false);	// Unless it is this save, it would find nothing to write
+				scheduled = null;
+			}
+		}
+
+		boolean failed = false;
+		if (saveSets) {
+			try {
+				SetShardStore.flush();
+			}
+			catch (FileNotFoundException e) {
+				reportFailure("Set Save Failed");
+				failed = true;
+				synchronized (PersistenceService.class) {
+					setsDirty = true;	// Shards are still queued
+				}
+			}
+		}
+
+		if (saveNotes != null) {
+			try {
+				FileStorage.writeNotes(saveNotes);
+			}
+			catch (FileNotFoundException e) {
+				reportFailure("Note Save Failed");
+				failed = true;
+				// Tried again with the latest notes, which have any notes read in again since
+				synchronized (PersistenceService.class) {
+					if (pendingNotes == null) { pendingNotes = Database.getNotes(); }
+				}
+			}
+		}
+
+		if (saveSchedule) {
+			try {
+				ReviewScheduler.save();
+			}
+			catch (IOException e) {
+				reportFailure("Review Schedule Save Failed");
+				failed = true;
+				synchronized (PersistenceService.class) {
+					scheduleDirty = true;
+				}
+			}
+		}
+
+		if (saveReviewLog) {
+			try {
+				ReviewLog.flush();
+			}
+			catch (IOException e) {
+				reportFailure("Review Log Save Failed");
+				failed = true;
+				synchronized (PersistenceService.class) {
+					reviewLogDirty = true;
+				}
+			}
+		}
+
+		synchronized (PersistenceService.class) {
+			if (failed) {
+				failures++;
+				delayMillis = Math.min(delayMillis * 2, MAX_RETRY_MILLIS);
+				schedule();
+			}
+			else if (failures > 0 && (saveSets || saveNotes != null || saveSchedule || saveReviewLog)) {
+				System.out.println("Database Saved After " + failures + " Failed Tries");
+				failures = 0;
+				delayMillis = DELAY_MILLIS;
+			}
+		}
+	}
+
+
+	/**
+	 * Writes the changes that could not be saved to UNSAVED_DIRECTORY, runs on the saver thread.
+	 * They stay marked as changed, so they are still saved if a later save works.
+	 */
+	private static void keepUnsaved() {
+		boolean keepSets;
+		boolean keepSchedule;
+		boolean keepReviewLog;
+		List<Note> keepNotes;
+		synchronized (PersistenceService.class) {
+			keepSets = setsDirty;
+			keepSchedule = scheduleDirty;
+			keepReviewLog = reviewLogDirty;
+			keepNotes = pendingNotes;
+		}
+		if (!keepSets && !keepSchedule && !keepReviewLog && keepNotes == null) { return; }
+
+		try {
+			if (keepSets) { SetShardStore.saveUnsaved(UNSAVED_DIRECTORY); }
+			if (keepNotes != null) { FileStorage.saveUnsaved(keepNotes, UNSAVED_DIRECTORY); }
+			if (keepSchedule) { ReviewScheduler.saveUnsaved(UNSAVED_DIRECTORY); }
+			if (keepReviewLog) { ReviewLog.saveUnsaved(UNSAVED_DIRECTORY); }
+			System.out.println("Database Flush Failed, Unsaved Changes Kept in " + UNSAVED_DIRECTORY);
+		}
+		catch (IOException e) {
+			System.out.println("Database Flush Failed, Unsaved Changes Lost");
+		}
+	}
+}
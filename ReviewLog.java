@@ -0,0 +1,340 @@
+/**
+ * @author Michelle Nguyen
+ * @version 2026-10-17
+ */
+
+
+/* IMPORT STATEMENTS */
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+
+/**
+ * Log of every flashcard studied or reviewed, for statistics such as accuracy per card.
+ *
+ * Each event is a fixed size record appended to FILE: the flashcard and set ids, when the card
+ * was shown, how long until it was flipped, how long it was shown and the outcome. Events are
+ * gathered in a buffer and written in one go when it fills or when PersistenceService saves, so
+ * studying does not write to disk on every card. A crash can leave part of a record at the end of
+ * the file, which is cut off the next time the log is opened.
+ *
+ * summarize() reads the log into one array per field and works out the statistics a field at a
+ * time, so each pass reads one array from start to end.
+ */
+public class ReviewLog {
+	/* VARIABLES */
+	public static final byte SEEN = 0;	// Studied without a grade; graded reviews use ReviewScheduler's grades
+	private static final File FILE = new File("review_log");
+	private static final int FILE_MAGIC = 0x4653414C;	// "FSAL"
+	private static final int FILE_VERSION = 1;
+	private static final int HEADER_SIZE = 8;
+	// Flashcard id, set id, time shown, millis to flip, millis shown, outcome
+	private static final int RECORD_SIZE = 8 + 8 + 8 + 4 + 4 + 1;
+	private static final int BUFFER_RECORDS = 2048;
+
+	private static final ByteBuffer buffer = ByteBuffer.allocate(RECORD_SIZE * BUFFER_RECORDS);
+	private static FileChannel channel;	// Opened for appending the first time the buffer is written
+
+
+	/* RECORDING */
+
+
+	/**
+	 * Records that a flashcard was studied or reviewed
+	 * @param flashcard the flashcard
+	 * @param set the set it was studied in
+	 * @param shown when the flashcard was shown, in epoch milliseconds
+	 * @param flipMillis how long until the flashcard was first flipped, or -1 if it was not flipped
+	 * @param shownMillis how long the flashcard was shown
+	 * @param outcome SEEN, or the grade it was given, eg. ReviewScheduler.GOOD
+	 */
+	public static synchronized void record(Flashcard flashcard, StudySet set, long shown, int flipMillis, int shownMillis, int outcome) {
+		buffer.putLong(flashcard.getId());
+		buffer.putLong(set.getId());
+		buffer.putLong(shown);
+		buffer.putInt(flipMillis);
+		buffer.putInt(shownMillis);
+		buffer.put((byte) outcome);
+		if (!buffer.hasRemaining()) {
+			try {
+				flush();
+			}
+			catch (IOException e) {
+				System.out.println("Review Log Save Failed");
+				buffer.clear();	// Statistics are not worth running out of memory for
+			}
+		}
+		PersistenceService.markReviewLogDirty();
+	}
+
+
+	/**
+	 * Writes the buffered events to the end of the log, called by PersistenceService on its saver thread
+	 * @throws IOException if the log could not be written
+	 */
+	static synchronized void flush() throws IOException {
+		if (buffer.position() == 0) { return; }
+
+		if (channel == null) { channel = open(); }
+		buffer.flip();
+		while (buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+		buffer.clear();
+		channel.force(false);
+	}
+
+
+	/**
+	 * Writes the buffered events to a new log in another directory, eg. when they cannot be written
+	 * as the application closes, so they can be recovered by hand. They stay buffered.
+	 * @param directory the directory
+	 * @throws IOException if the log could not be written
+	 */
+	static synchronized void saveUnsaved(File directory) throws IOException {
+		if (buffer.position() == 0) { return; }
+
+		directory.mkdirs();
+		ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).putInt(FILE_MAGIC).putInt(FILE_VERSION);
+		header.flip();
+		ByteBuffer records = buffer.duplicate();
+		records.flip();
+		try (FileChannel unsaved = FileChannel.open(new File(directory, FILE.getName()).toPath(), StandardOpenOption.CREATE,
+				StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+			unsaved.write(header);
+			while (records.hasRemaining()) {
+				unsaved.write(records);
+			}
+			unsaved.force(false);
+		}
+	}
+
+
+	/**
+	 * Opens the log for appending, writing its header if it is new and cutting off any part of a
+	 * record left at the end by a crash
+	 * @return the channel, positioned at the end of the log
+	 * @throws IOException
+	 */
+	private static FileChannel open() throws IOException {
+		FileChannel opened = FileChannel.open(FILE.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+		long size = opened.size();
+		if (size < HEADER_SIZE) {
+			ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).putInt(FILE_MAGIC).putInt(FILE_VERSION);
+			header.flip();
+			opened.truncate(0);
+			opened.write(header, 0);
+			size = HEADER_SIZE;
+		}
+		long whole = HEADER_SIZE + (size - HEADER_SIZE) / RECORD_SIZE * RECORD_SIZE;
+		if (whole < size) { opened.truncate(whole); }
+		opened.position(whole);
+		return opened;
+	}
+
+
+	/* STATISTICS */
+
+
+	/**
+	 * Statistics of one flashcard or set
+	 */
+	public static class Stats {
+		private int reviews;	// Times studied or reviewed
+		private int graded;
+		private int correct;	// Graded HARD or better
+		private long shownMillis;
+		private int flips;
+		private long flipMillis;
+		private int streak;	// Correct grades in a row, up to the latest
+		private int bestStreak;
+		private long lastShown;
+
+
+		public int getReviews() { return reviews; }
+		public int getGraded() { return graded; }
+		public int getCorrect() { return correct; }
+		public int getStreak() { return streak; }
+		public int getBestStreak() { return bestStreak; }
+		public long getLastShown() { return lastShown; }
+
+
+		/**
+		 * Gets the share of graded reviews answered correctly
+		 * @return the accuracy from 0 to 1, or -1 if there are no graded reviews
+		 */
+		public double getAccuracy() {
+			return graded == 0 ? -1 : (double) correct / graded;
+		}
+
+
+		/**
+		 * Gets the average time the flashcard was shown
+		 * @return the time in milliseconds, 0 if it was never shown
+		 */
+		public long getAverageMillis() {
+			return reviews == 0 ? 0 : shownMillis / reviews;
+		}
+
+
+		/**
+		 * Gets the average time until the flashcard was flipped, when it was
+		 * @return the time in milliseconds, 0 if it was never flipped
+		 */
+		public long getAverageFlipMillis() {
+			return flips == 0 ? 0 : flipMillis / flips;
+		}
+	}
+
+
+	/**
+	 * Statistics of every flashcard and set in the log
+	 */
+	public static class Summary {
+		private final LongMap<Stats> flashcards = new LongMap<>();
+		private final LongMap<Stats> sets = new LongMap<>();
+		private int events;
+
+
+		public int getEvents() { return events; }
+
+
+		/**
+		 * Gets the statistics of a flashcard
+		 * @param flashcard the flashcard
+		 * @return the statistics, all 0 if the flashcard was never studied
+		 */
+		public Stats getFlashcard(Flashcard flashcard) {
+			Stats stats = flashcards.get(flashcard.getId());
+			return stats == null ? new Stats() : stats;
+		}
+
+
+		/**
+		 * Gets the statistics of a set, over all of its flashcards
+		 * @param set the set
+		 * @return the statistics, all 0 if the set was never studied
+		 */
+		public Stats getSet(StudySet set) {
+			Stats stats = sets.get(set.getId());
+			return stats == null ? new Stats() : stats;
+		}
+	}
+
+
+	/**
+	 * Works out the statistics of every flashcard and set from the whole log
+	 * @return the statistics
+	 * @throws IOException if the log could not be read
+	 */
+	public static Summary summarize() throws IOException {
+		flush();
+		Summary summary = new Summary();
+		if (!FILE.isFile()) { return summary; }
+
+		// Read the log into one array per field
+		long[] cardIds;
+		long[] setIds;
+		long[] shown;
+		int[] flipMillis;
+		int[] shownMillis;
+		byte[] outcomes;
+		int count;
+		try (FileChannel in = FileChannel.open(FILE.toPath(), StandardOpenOption.READ)) {
+			ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+			while (header.hasRemaining() && in.read(header) >= 0) { }
+			header.flip();
+			if (header.remaining() < HEADER_SIZE || header.getInt() != FILE_MAGIC || header.getInt() != FILE_VERSION) {
+				throw new IOException("Not a review log");
+			}
+
+			count = (int) Math.min(Integer.MAX_VALUE - 8, (in.size() - HEADER_SIZE) / RECORD_SIZE);
+			cardIds = new long[count];
+			setIds = new long[count];
+			shown = new long[count];
+			flipMillis = new int[count];
+			shownMillis = new int[count];
+			outcomes = new byte[count];
+
+			ByteBuffer chunk = ByteBuffer.allocateDirect(RECORD_SIZE * 32768);
+			int i = 0;
+			while (i < count) {
+				chunk.clear();
+				chunk.limit((int) Math.min(chunk.capacity(), (long) (count - i) * RECORD_SIZE));
+				while (chunk.hasRemaining() && in.read(chunk) >= 0) { }
+				chunk.flip();
+				if (chunk.remaining() < RECORD_SIZE) { break; }
+				while (chunk.remaining() >= RECORD_SIZE) {
+					cardIds[i] = chunk.getLong();
+					setIds[i] = chunk.getLong();
+					shown[i] = chunk.getLong();
+					flipMillis[i] = chunk.getInt();
+					shownMillis[i] = chunk.getInt();
+					outcomes[i] = chunk.get();
+					i++;
+				}
+			}
+			count = i;
+		}
+		summary.events = count;
+
+		aggregate(summary.flashcards, cardIds, count, shown, flipMillis, shownMillis, outcomes);
+		aggregate(summary.sets, setIds, count, shown, flipMillis, shownMillis, outcomes);
+		return summary;
+	}
+
+
+	/**
+	 * Works out statistics grouped by one id column, eg. per flashcard
+	 * @param stats filled with the statistics of each id
+	 * @param ids the id column
+	 * @param count the number of events
+	 * @param shown the time each event was shown
+	 * @param flipMillis the time until each event was flipped
+	 * @param shownMillis the time each event was shown for
+	 * @param outcomes the outcome of each event
+	 */
+	private static void aggregate(LongMap<Stats> stats, long[] ids, int count, long[] shown, int[] flipMillis, int[] shownMillis, byte[] outcomes) {
+		// Give each event the statistics of its id
+		Stats[] groups = new Stats[count];
+		for (int i = 0; i < count; i++) {
+			Stats group = stats.get(ids[i]);
+			if (group == null) {
+				group = new Stats();
+				stats.put(ids[i], group);
+			}
+			groups[i] = group;
+			group.reviews++;
+		}
+
+		for (int i = 0; i < count; i++) {
+			groups[i].shownMillis += shownMillis[i];
+			groups[i].lastShown = Math.max(groups[i].lastShown, shown[i]);
+		}
+		for (int i = 0; i < count; i++) {
+			if (flipMillis[i] >= 0) {
+				groups[i].flips++;
+				groups[i].flipMillis += flipMillis[i];
+			}
+		}
+
+		// Events are in the order they happened, so streaks are counted in one pass
+		for (int i = 0; i < count; i++) {
+			if (outcomes[i] == SEEN) { continue; }
+
+			Stats group = groups[i];
+			group.graded++;
+			if (outcomes[i] >= ReviewScheduler.HARD) {
+				group.correct++;
+				group.streak++;
+				group.bestStreak = Math.max(group.bestStreak, group.streak);
+			}
+			else {
+				group.streak = 0;
+			}
+		}
+	}
+}
@@ -0,0 +1,379 @@
+/**
+ * @author Michelle Nguyen
+ * @version 2026-10-17
+ */
+
+
+/* IMPORT STATEMENTS */
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+import java.util.zip.CRC32;
+
+
+/**
+ * Spaced repetition, so a set is studied by reviewing only the flashcards that are due.
+ *
+ * Each flashcard that has been reviewed has a schedule, kept by flashcard id: its ease, the days
+ * until it is due again and when that is. Grades follow SM-2: a card answered well is due again
+ * after 1 day, then 6 days, then its last interval times its ease, and the ease goes up or down
+ * with how easy the answer was. A card that is forgotten starts again and comes back after
+ * RELEARN_MILLIS. Flashcards that have never been reviewed are due straight away.
+ *
+ * A review session keeps the due flashcards of a set in a heap ordered by due time, so the next
+ * card is found in O(log n) and a forgotten card goes back in the heap at its new time.
+ *
+ * Schedules are saved to FILE in the background through PersistenceService.
+ */
+public class ReviewScheduler {
+	/* VARIABLES */
+	// Grades from the study screen, on SM-2's scale of 0 to 5
+	public static final int AGAIN = 1;
+	public static final int HARD = 3;
+	public static final int GOOD = 4;
+	public static final int EASY = 5;
+	private static final double START_EASE = 2.5;
+	private static final double MIN_EASE = 1.3;
+	private static final long DAY_MILLIS = 24 * 60 * 60 * 1000L;
+	private static final long RELEARN_MILLIS = 10 * 60 * 1000L;	// Forgotten cards come back after 10 minutes
+	private static final long LEARN_AHEAD_MILLIS = 20 * 60 * 1000L;	// Shown early rather than ending the session
+	private static final File FILE = new File("review_schedule");
+	private static final int FILE_MAGIC = 0x46534152;	// "FSAR"
+	private static final int FILE_VERSION = 1;
+
+	private static LongMap<Schedule> schedules;	// Loaded the first time it is needed
+
+
+	/**
+	 * How a flashcard is scheduled after its reviews so far
+	 */
+	public static class Schedule {
+		private double ease = START_EASE;
+		private int intervalDays;
+		private int repetitions;	// Reviews answered well in a row
+		private int lapses;	// Times the card was forgotten after being learned
+		private long due;	// Epoch milliseconds
+
+
+		public double getEase() { return ease; }
+		public int getIntervalDays() { return intervalDays; }
+		public int getRepetitions() { return repetitions; }
+		public int getLapses() { return lapses; }
+		public long getDue() { return due; }
+	}
+
+
+	/* SCHEDULING */
+
+
+	/**
+	 * Gets the schedule of a flashcard
+	 * @param flashcard the flashcard
+	 * @return the schedule, or null if the flashcard has never been reviewed
+	 */
+	public static synchronized Schedule getSchedule(Flashcard flashcard) {
+		return schedules().get(flashcard.getId());
+	}
+
+
+	/**
+	 * Gets when a flashcard is due
+	 * @param flashcard the flashcard
+	 * @return the due time in epoch milliseconds, 0 if the flashcard has never been reviewed
+	 */
+	public static synchronized long getDue(Flashcard flashcard) {
+		Schedule schedule = schedules().get(flashcard.getId());
+		return schedule == null ? 0 : schedule.due;
+	}
+
+
+	/**
+	 * Records the answer to a review and works out when the flashcard is due next
+	 * @param flashcard the flashcard that was reviewed
+	 * @param grade how well it was answered, eg. AGAIN or GOOD
+	 * @param now the time of the review, in epoch milliseconds
+	 * @return the new due time, in epoch milliseconds
+	 */
+	public static synchronized long grade(Flashcard flashcard, int grade, long now) {
+		Schedule schedule = schedules().get(flashcard.getId());
+		if (schedule == null) {
+			schedule = new Schedule();
+			schedules.put(flashcard.getId(), schedule);
+		}
+
+		if (grade < 3) {
+			// Forgotten, learn it again from the start
+			if (schedule.repetitions > 0) { schedule.lapses++; }
+			schedule.repetitions = 0;
+			schedule.intervalDays = 0;
+			schedule.due = now + RELEARN_MILLIS;
+		}
+		else {
+			schedule.repetitions++;
+			if (schedule.repetitions == 1) { schedule.intervalDays = 1; }
+			else if (schedule.repetitions == 2) { schedule.intervalDays = 6; }
+			else { schedule.intervalDays = (int) Math.round(schedule.intervalDays * schedule.ease); }
+			schedule.due = now + schedule.intervalDays * DAY_MILLIS;
+		}
+		int miss = 5 - grade;
+		schedule.ease = Math.max(MIN_EASE, schedule.ease + 0.1 - miss * (0.08 + miss * 0.02));
+
+		PersistenceService.markScheduleDirty();
+		return schedule.due;
+	}
+
+
+	/**
+	 * Forgets the schedules of flashcards that were deleted
+	 * @param deleted the flashcards
+	 */
+	public static synchronized void forget(Collection<Flashcard> deleted) {
+		boolean removed = false;
+		for (Flashcard flashcard : deleted) {
+			if (schedules().remove(flashcard.getId()) != null) { removed = true; }
+		}
+		if (removed) { PersistenceService.markScheduleDirty(); }
+	}
+
+
+	/**
+	 * Forgets the schedules of flashcards that no longer exist, eg. after loading the sets. Only
+	 * called when every set was loaded, as the flashcards of a set that was not are not in live.
+	 * @param live the ids of every flashcard
+	 */
+	public static synchronized void retain(LongMap<?> live) {
+		ArrayList<Long> removed = new ArrayList<>();
+		schedules().forEach((id, schedule) -> {
+			if (!live.containsKey(id)) { removed.add(id); }
+		});
+		for (long id : removed) {
+			schedules.remove(id);
+		}
+		if (!removed.isEmpty()) { PersistenceService.markScheduleDirty(); }
+	}
+
+
+	/* SESSIONS */
+
+
+	/**
+	 * Starts reviewing the flashcards of a set that are due
+	 * @param set the set
+	 * @param now the time the session starts, in epoch milliseconds
+	 * @return the session
+	 */
+	public static Session startSession(StudySet set, long now) {
+		return new Session(set.getFlashcards(), now);
+	}
+
+
+	/**
+	 * The due flashcards of a set, in the order they are due. Used on one thread, eg. the study screen.
+	 */
+	public static class Session {
+		private final PriorityQueue<Entry> queue;
+		private long later = Long.MAX_VALUE;	// Earliest due time of the cards not in the queue
+		private int reviewed;
+
+
+		/**
+		 * A flashcard in the queue. Cards due at the same time, eg. new cards, are taken in order
+		 * of priority and then in the order they are in the set.
+		 */
+		private static class Entry implements Comparable<Entry> {
+			final Flashcard flashcard;
+			final long due;
+			final int order;
+
+
+			Entry(Flashcard flashcard, long due, int order) {
+				this.flashcard = flashcard;
+				this.due = due;
+				this.order = order;
+			}
+
+
+			@Override
+			public int compareTo(Entry other) {
+				if (due != other.due) { return Long.compare(due, other.due); }
+				if (flashcard.getPriority() != other.flashcard.getPriority()) { return Integer.compare(flashcard.getPriority(), other.flashcard.getPriority()); }
+				return Integer.compare(order, other.order);
+			}
+		}
+
+
+		/**
+		 * @param flashcards the flashcards of the set
+		 * @param now the time the session starts, in epoch milliseconds
+		 */
+		private Session(List<Flashcard> flashcards, long now) {
+			ArrayList<Entry> dueNow = new ArrayList<>();
+			synchronized (ReviewScheduler.class) {
+				for (int i = 0; i < flashcards.size(); i++) {
+					long due = getDue(flashcards.get(i));
+					if (due <= now) { dueNow.add(new Entry(flashcards.get(i), due, i)); }
+					else { later = Math.min(later, due); }
+				}
+			}
+			queue = new PriorityQueue<>(dueNow);	// Built in one pass rather than one insert per card
+		}
+
+
+		/**
+		 * Gets the flashcard to review next
+		 * @param now the current time, in epoch milliseconds
+		 * @return the flashcard, or null if no flashcard is due
+		 */
+		public Flashcard next(long now) {
+			Entry first = queue.peek();
+			return first != null && first.due <= now + LEARN_AHEAD_MILLIS ? first.flashcard : null;
+		}
+
+
+		/**
+		 * Records the answer to the flashcard from next(), putting it back in the queue if it is
+		 * due again during the session
+		 * @param grade how well it was answered, eg. AGAIN or GOOD
+		 * @param now the time of the answer, in epoch milliseconds
+		 */
+		public void grade(int grade, long now) {
+			Entry answered = queue.poll();
+			if (answered == null) { return; }
+
+			reviewed++;
+			long due = ReviewScheduler.grade(answered.flashcard, grade, now);
+			if (due <= now + LEARN_AHEAD_MILLIS) { queue.add(new Entry(answered.flashcard, due, answered.order)); }
+			else { later = Math.min(later, due); }
+		}
+
+
+		/* GET METHODS */
+		public int getReviewed() { return reviewed; }
+		public int getRemaining() { return queue.size(); }
+
+
+		/**
+		 * Gets when the next flashcard is due, eg. to show once the session is over
+		 * @return the due time in epoch milliseconds, or Long.MAX_VALUE if the set has no flashcards
+		 */
+		public long getNextDue() {
+			Entry first = queue.peek();
+			return first == null ? later : Math.min(first.due, later);
+		}
+	}
+
+
+	/* SAVING */
+
+
+	/**
+	 * Gets the schedules, loading them the first time
+	 * @return the schedules by flashcard id
+	 */
+	private static LongMap<Schedule> schedules() {
+		if (schedules == null) {
+			schedules = load();
+		}
+		return schedules;
+	}
+
+
+	/**
+	 * Saves every schedule, called by PersistenceService on its saver thread
+	 * @throws IOException if the file could not be written
+	 */
+	static synchronized void save() throws IOException {
+		write(FILE);
+	}
+
+
+	/**
+	 * Saves every schedule to another directory, eg. when they cannot be saved as the application
+	 * closes, so they can be recovered by hand
+	 * @param directory the directory
+	 * @throws IOException if the file could not be written
+	 */
+	static synchronized void saveUnsaved(File directory) throws IOException {
+		directory.mkdirs();
+		write(new File(directory, FILE.getName()));
+	}
+
+
+	/**
+	 * Writes every schedule to a file, through a temporary file so a crash leaves the old one whole
+	 * @param file the file
+	 * @throws IOException if the file could not be written
+	 */
+	private static void write(File file) throws IOException {
+		File temp = new File(file.getPath() + ".tmp");
+		CRC32 checksum = new CRC32();
+		try (DataOutputStream out = new DataOutputStream(new CheckedOutputStream(new BufferedOutputStream(new FileOutputStream(temp)), checksum))) {
+			out.writeInt(FILE_MAGIC);
+			out.writeInt(FILE_VERSION);
+			out.writeInt(schedules().size());
+			IOException[] failed = new IOException[1];
+			schedules.forEach((id, schedule) -> {
+				try {
+					out.writeLong(id);
+					out.writeDouble(schedule.ease);
+					out.writeInt(schedule.intervalDays);
+					out.writeInt(schedule.repetitions);
+					out.writeInt(schedule.lapses);
+					out.writeLong(schedule.due);
+				}
+				catch (IOException e) {
+					failed[0] = e;
+				}
+			});
+			if (failed[0] != null) { throw failed[0]; }
+			out.writeLong(checksum.getValue());
+		}
+		Database.moveIntoPlace(temp, file);
+	}
+
+
+	/**
+	 * Reads the saved schedules
+	 * @return the schedules, or none if the file is missing or damaged
+	 */
+	private static LongMap<Schedule> load() {
+		LongMap<Schedule> loaded = new LongMap<>();
+		if (!FILE.isFile()) { return loaded; }
+
+		CRC32 checksum = new CRC32();
+		try (DataInputStream in = new DataInputStream(new CheckedInputStream(new BufferedInputStream(new FileInputStream(FILE)), checksum))) {
+			if (in.readInt() != FILE_MAGIC || in.readInt() != FILE_VERSION) { throw new IOException("Not a schedule file"); }
+			int count = in.readInt();
+			for (int i = 0; i < count; i++) {
+				long id = in.readLong();
+				Schedule schedule = new Schedule();
+				schedule.ease = in.readDouble();
+				schedule.intervalDays = in.readInt();
+				schedule.repetitions = in.readInt();
+				schedule.lapses = in.readInt();
+				schedule.due = in.readLong();
+				loaded.put(id, schedule);
+			}
+			long expected = checksum.getValue();
+			if (in.readLong() != expected) { throw new IOException("Checksum does not match"); }
+			return loaded;
+		}
+		catch (IOException e) {
+			// Includes a file cut short by a crash
+			System.out.println("Review Schedule Load Failed");
+			Database.quarantine(FILE, 0, FILE.length(), "Review schedule is damaged");
+			return new LongMap<>();
+		}
+	}
+}
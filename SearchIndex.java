@@ -0,0 +1,264 @@
+/**
+ * @author Michelle Nguyen
+ * @version 2026-10-17
+ */
+
+
+/* IMPORT STATEMENTS */
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+import java.util.zip.CRC32;
+
+
+/**
+ * Full-text index over sets or notes, kept up to date as they are added, edited and deleted.
+ *
+ * Each document is split into lowercase words, called terms. For every term the index keeps the
+ * documents containing it along with a weight: a word counts three times in the title, twice in
+ * the description and once in the body, ie. the flashcards of a set or the text of a note. A search
+ * finds the documents containing every word of the query, matching the last word as a prefix so
+ * results show while the user is still typing. Results are ranked by the weights of the matching
+ * terms, with rarer terms counting for more.
+ *
+ * The index can be saved along with a stamp of the storage it was built from, and loaded instead
+ * of being rebuilt as long as the storage still has the same stamp.
+ * @param <T> the type of document
+ */
+public class SearchIndex<T> {
+	/* VARIABLES */
+	private static final int TITLE_WEIGHT = 3;
+	private static final int DESCRIPTION_WEIGHT = 2;
+	private static final int BODY_WEIGHT = 1;
+	private static final int MAX_TERM_LENGTH = 100;	// Longer runs are not words, eg. pasted data
+	private static final int FILE_MAGIC = 0x46534149;	// "FSAI"
+	private static final int FILE_VERSION = 1;
+
+	// Sorted, so the terms starting with a prefix are next to each other
+	private final TreeMap<String, HashMap<T, Integer>> postings = new TreeMap<>();
+	// The terms of each document, to take it out of the index again
+	private final HashMap<T, String[]> documentTerms = new HashMap<>();
+
+
+	/* UPDATING */
+
+
+	/**
+	 * Adds a document to the index, replacing what was indexed for it before
+	 * @param document the document
+	 * @param title the title of the document
+	 * @param description the description of the document
+	 * @param body the rest of the text of the document
+	 */
+	public synchronized void put(T document, String title, String description, String body) {
+		remove(document);
+
+		HashMap<String, Integer> weights = new HashMap<>();
+		forEachTerm(title, term -> weights.merge(term, TITLE_WEIGHT, Integer::sum));
+		forEachTerm(description, term -> weights.merge(term, DESCRIPTION_WEIGHT, Integer::sum));
+		forEachTerm(body, term -> weights.merge(term, BODY_WEIGHT, Integer::sum));
+		add(document, weights);
+	}
+
+
+	/**
+	 * Takes a document out of the index
+	 * @param document the document
+	 */
+	public synchronized void remove(T document) {
+		String[] terms = documentTerms.remove(document);
+		if (terms == null) { return; }
+
+		for (String term : terms) {
+			HashMap<T, Integer> documents = postings.get(term);
+			documents.remove(document);
+			if (documents.isEmpty()) { postings.remove(term); }
+		}
+	}
+
+
+	/**
+	 * Takes every document out of the index
+	 */
+	public synchronized void clear() {
+		postings.clear();
+		documentTerms.clear();
+	}
+
+
+	/**
+	 * Adds a document that is not in the index yet
+	 * @param document the document
+	 * @param weights the weight of each of its terms
+	 */
+	private void add(T document, Map<String, Integer> weights) {
+		for (Map.Entry<String, Integer> entry : weights.entrySet()) {
+			postings.computeIfAbsent(entry.getKey(), term -> new HashMap<>()).put(document, entry.getValue());
+		}
+		documentTerms.put(document, weights.keySet().toArray(new String[0]));
+	}
+
+
+	/* SEARCHING */
+
+
+	/**
+	 * Finds the documents containing every word of a query
+	 * @param query the words to look for; the last one also matches longer words it starts, unless
+	 * the query ends with a space
+	 * @param limit the most documents to return
+	 * @return the documents, best match first, or an empty list if the query has no words
+	 */
+	public synchronized List<T> search(String query, int limit) {
+		ArrayList<String> terms = new ArrayList<>();
+		forEachTerm(query, terms::add);
+		boolean prefix = !query.isEmpty() && Character.isLetterOrDigit(query.charAt(query.length() - 1));
+
+		HashMap<T, Double> scores = null;
+		for (int i = 0; i < terms.size() && (scores == null || !scores.isEmpty()); i++) {
+			String term = terms.get(i);
+			Map<String, HashMap<T, Integer>> matches = prefix && i == terms.size() - 1
+					? postings.subMap(term, term + Character.MAX_VALUE)
+					: postings.subMap(term, true, term, true);
+
+			// Score of each document for this word, from every term it matched
+			HashMap<T, Double> termScores = new HashMap<>();
+			for (HashMap<T, Integer> documents : matches.values()) {
+				double rarity = Math.log(1 + (double) documentTerms.size() / documents.size());
+				for (Map.Entry<T, Integer> entry : documents.entrySet()) {
+					termScores.merge(entry.getKey(), entry.getValue() * rarity, Double::sum);
+				}
+			}
+
+			// Keep only the documents that matched every word so far
+			if (scores == null) {
+				scores = termScores;
+			}
+			else {
+				HashMap<T, Double> both = new HashMap<>();
+				for (Map.Entry<T, Double> entry : scores.entrySet()) {
+					Double score = termScores.get(entry.getKey());
+					if (score != null) { both.put(entry.getKey(), entry.getValue() + score); }
+				}
+				scores = both;
+			}
+		}
+		if (scores == null) { return new ArrayList<>(); }
+
+		ArrayList<Map.Entry<T, Double>> ranked = new ArrayList<>(scores.entrySet());
+		ranked.sort((a, b) -> Double.compare(b.getValue(), a.getValue()));
+		ArrayList<T> results = new ArrayList<>();
+		for (int i = 0; i < ranked.size() && i < limit; i++) {
+			results.add(ranked.get(i).getKey());
+		}
+		return results;
+	}
+
+
+	/**
+	 * Splits text into terms, ie. runs of letters and digits in lowercase, skipping very long runs
+	 * @param text the text
+	 * @param action called with each term in order, including repeats
+	 */
+	static void forEachTerm(String text, Consumer<String> action) {
+		int start = -1;
+		for (int i = 0; i <= text.length(); i++) {
+			boolean inWord = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+			if (inWord && start == -1) {
+				start = i;
+			}
+			else if (!inWord && start != -1) {
+				if (i - start <= MAX_TERM_LENGTH) { action.accept(text.substring(start, i).toLowerCase()); }
+				start = -1;
+			}
+		}
+	}
+
+
+	/* SAVING */
+
+
+	/**
+	 * Saves the index, with each document written as its position in a list
+	 * @param file the file to save to
+	 * @param stamp the stamp of the storage the documents were saved to
+	 * @param documents every document in the index
+	 * @throws IOException if the file could not be written
+	 */
+	public synchronized void save(File file, long stamp, List<T> documents) throws IOException {
+		File temp = new File(file.getPath() + ".tmp");
+		CRC32 checksum = new CRC32();
+		try (DataOutputStream out = new DataOutputStream(new CheckedOutputStream(new BufferedOutputStream(new FileOutputStream(temp)), checksum))) {
+			out.writeInt(FILE_MAGIC);
+			out.writeInt(FILE_VERSION);
+			out.writeLong(stamp);
+			out.writeInt(documents.size());
+			for (int position = 0; position < documents.size(); position++) {
+				String[] terms = documentTerms.get(documents.get(position));
+				if (terms == null) { terms = new String[0]; }
+
+				out.writeInt(terms.length);
+				for (String term : terms) {
+					out.writeUTF(term);
+					out.writeInt(postings.get(term).get(documents.get(position)));
+				}
+			}
+			out.writeLong(checksum.getValue());
+		}
+		Database.moveIntoPlace(temp, file);
+	}
+
+
+	/**
+	 * Replaces the index with a saved one, if it was saved from the same storage
+	 * @param file the file to load from
+	 * @param stamp the stamp of the storage the documents were loaded from, or 0 if it has none
+	 * @param documents the documents, in the same order as when the index was saved
+	 * @return true if the index was loaded, false if it is missing, out of date or damaged and
+	 * has to be rebuilt
+	 */
+	public synchronized boolean load(File file, long stamp, List<T> documents) {
+		if (stamp == 0 || !file.isFile()) { return false; }
+
+		CRC32 checksum = new CRC32();
+		try (DataInputStream in = new DataInputStream(new CheckedInputStream(new BufferedInputStream(new FileInputStream(file)), checksum))) {
+			if (in.readInt() != FILE_MAGIC || in.readInt() != FILE_VERSION || in.readLong() != stamp || in.readInt() != documents.size()) {
+				return false;
+			}
+
+			ArrayList<HashMap<String, Integer>> saved = new ArrayList<>(documents.size());
+			for (int position = 0; position < documents.size(); position++) {
+				int count = in.readInt();
+				HashMap<String, Integer> weights = new HashMap<>();
+				for (int i = 0; i < count; i++) {
+					weights.put(in.readUTF(), in.readInt());
+				}
+				saved.add(weights);
+			}
+			long expected = checksum.getValue();
+			if (in.readLong() != expected) { return false; }
+
+			clear();
+			for (int position = 0; position < documents.size(); position++) {
+				add(documents.get(position), saved.get(position));
+			}
+			return true;
+		}
+		catch (IOException e) {
+			return false;	// Includes a file cut short by a crash
+		}
+	}
+}
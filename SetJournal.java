@@ -0,0 +1,205 @@
+/**
+ * @author Michelle Nguyen
+ * @version 2026-10-17
+ */
+
+
+/* IMPORT STATEMENTS */
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.NoSuchElementException;
+
+
+/**
+ * Reads the journal of study set mutations written by earlier versions.
+ *
+ * study_set_database used to be a single file, with each mutation appended to a numbered
+ * journal segment (study_set_database.journal.N) instead of rewriting the whole file. The base
+ * file starts with a "JournalSegment:N" line recording the last segment already folded into it,
+ * so its sets are the base file plus every newer segment replayed in order. Sets are now stored
+ * one file per set by SetShardStore, which uses this class once to move the old sets across.
+ *
+ * Every record ends with a checksum line, so a record torn by a crash is recognised and dropped.
+ */
+public class SetJournal {
+	/* VARIABLES */
+	private static final String SET_DATABASE = "study_set_database";
+	private static final String SEGMENT_PREFIX = SET_DATABASE + ".journal.";
+	private static final String SEGMENT_LINE = "JournalSegment:";
+
+
+	/* LOADING */
+
+
+	/**
+	 * Reads the segment number stored on the first line of the base file
+	 * @param line a line of the base file
+	 * @return the segment number if the line is a segment line, -1 otherwise
+	 */
+	static long parseSegmentLine(String line) {
+		if (line.startsWith(SEGMENT_LINE)) {
+			return Long.parseLong(line.substring(SEGMENT_LINE.length()));
+		}
+		return -1;
+	}
+
+
+	/**
+	 * Replays every journal segment newer than the base file onto the loaded sets
+	 * @param sets the sets loaded from the base file
+	 * @param baseSegment the last segment already folded into the base file
+	 * @return the last segment replayed
+	 * @throws FileNotFoundException
+	 */
+	static long replay(ArrayList<StudySet> sets, long baseSegment) throws FileNotFoundException {
+		long last = baseSegment;
+		for (long segment : listSegments()) {
+			// Leftover from a compaction that finished writing the base file but not cleaning up
+			if (segment <= baseSegment) {
+				segmentFile(segment).delete();
+				continue;
+			}
+
+			readSegment(segment, (op, index, lines, dates) -> {
+				if (op.equals("SetAdd:")) {
+					sets.add(Database.parseSet(lines, dates));
+				}
+				else if (op.equals("SetEdit:")) {
+					StudySet edited = Database.parseSet(lines, dates);
+					StudySet set = sets.get(index);
+					set.updateTitle(edited.getTitle());
+					set.updateDescription(edited.getDescription());
+					set.updateFlashcards(new ArrayList<>(edited.getFlashcards()));
+				}
+				else if (op.equals("SetDelete:")) {
+					sets.remove(index);
+				}
+				else if (op.equals("SetAccess:")) {
+					sets.get(index).updateDateAccessed(dates[1]);
+				}
+			});
+			
+			last = segment;
+		}
+		return last;
+	}
+
+
+	/**
+	 * Deletes every journal segment, once their changes are saved elsewhere
+	 */
+	static void discard() {
+		for (long segment : listSegments()) {
+			segmentFile(segment).delete();
+		}
+	}
+
+
+	/* HELPER METHODS */
+
+
+	/**
+	 * Receives the records of a journal segment
+	 */
+	private interface RecordHandler {
+		/**
+		 * Applies one record
+		 * @param op the record type, eg. "SetAdd:"
+		 * @param index the position of the set, or -1 for SetAdd:
+		 * @param lines the lines of the set for SetAdd: and SetEdit:, the date line for SetAccess:
+		 * @param dates the dates of the set, or the new access date in dates[1] for SetAccess:
+		 */
+		void apply(String op, int index, ArrayList<String> lines, Date[] dates);
+	}
+
+
+	/**
+	 * Reads the records of a journal segment in order. Records are checked against their
+	 * checksums, and reading stops at the first bad one, since every later record may refer
+	 * to sets by a position it changed. A crash mid-append leaves such a torn record at the end.
+	 * @param segment the segment number
+	 * @param handler receives each valid record
+	 * @throws FileNotFoundException
+	 */
+	private static void readSegment(long segment, RecordHandler handler) throws FileNotFoundException {
+		File file = segmentFile(segment);
+		DatabaseReader in = new DatabaseReader(file);
+		ArrayList<String> lines = new ArrayList<>();
+		Date[] dates = new Date[2];
+		try {
+			while (in.hasNextLine()) {
+				long recordStart = in.position();
+				in.resetChecksum();
+				String line = in.nextLine();
+				String op = line.substring(0, line.indexOf(':') + 1);
+				if (!op.equals("SetAdd:") && !op.equals("SetEdit:") && !op.equals("SetDelete:") && !op.equals("SetAccess:")) {
+					continue;
+				}
+				int index = op.length() < line.length() ? Integer.parseInt(line.substring(op.length())) : -1;
+				
+				if (op.equals("SetAdd:") || op.equals("SetEdit:")) {
+					// Set records carry their own checksum
+					long setStart = in.position();
+					in.resetChecksum();
+					if (!in.nextLine().equals(Database.LEGACY_SET_HEADER) || !Database.readSetRecord(in, setStart, false, lines, dates, file)) {
+						break;
+					}
+				}
+				else {
+					lines.clear();
+					if (op.equals("SetAccess:")) {
+						lines.add(in.nextLine());
+						dates[1] = Database.parseDate(lines.get(0));
+					}
+					if (!in.isTerminated() || !in.matchChecksum()) {
+						Database.quarantine(file, recordStart, in.position(), "Checksum does not match");
+						break;
+					}
+				}
+				handler.apply(op, index, lines, dates);
+			}
+		}
+		catch (NoSuchElementException | IllegalArgumentException | IndexOutOfBoundsException e) {
+			// Torn record at the end of the segment, drop it
+		}
+		in.close();
+	}
+
+
+	/**
+	 * Gets the file of a journal segment
+	 * @param segment the segment number
+	 * @return the segment file
+	 */
+	private static File segmentFile(long segment) {
+		return new File(SEGMENT_PREFIX + segment);
+	}
+
+
+	/**
+	 * Finds every journal segment on disk
+	 * @return the segment numbers in ascending order
+	 */
+	private static long[] listSegments() {
+		File[] files = new File(".").listFiles((dir, name) -> name.startsWith(SEGMENT_PREFIX));
+		if (files == null) { return new long[0]; }
+
+		long[] segments = new long[files.length];
+		int count = 0;
+		for (File f : files) {
+			try {
+				segments[count] = Long.parseLong(f.getName().substring(SEGMENT_PREFIX.length()));
+				count++;
+			}
+			catch (NumberFormatException e) {
+				// Not a segment, eg. a file left by a text editor
+			}
+		}
+		segments = Arrays.copyOf(segments, count);
+		Arrays.sort(segments);
+		return segments;
+	}
+}
@@ -0,0 +1,852 @@
+/**
+ * @author Michelle Nguyen
+ * @version 2026-10-17
+ */
+
+
+/* IMPORT STATEMENTS */
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+
+/**
+ * Stores each study set in its own file, so saving a change to one set only writes that set.
+ *
+ * Sets live in the study_sets directory as <key>.set, where the key is a number given to the
+ * set when it is first saved and kept for as long as the set exists. A small manifest file lists
+ * the keys in display order along with the next key to give out; it is only rewritten when a set
+ * is added or deleted. The manifest is written after the shards it lists, so it decides which sets
+ * exist: a shard it does not list, eg. left by a crash or copied in by a sync tool before the
+ * manifest, is moved aside as <key>.set.orphan on the next load so it can be recovered by hand.
+ * A shard the manifest lists that is missing or corrupt, eg. still being copied by a sync tool,
+ * keeps its place in the manifest until the manifest stops listing it, and is read in by rescan()
+ * once it arrives.
+ *
+ * Loading reads the manifest, then reads the shards in parallel. Flashcards are only created
+ * when a set is opened, on the thread that opens it. Files start with a format version line;
+ * shards and manifests from older versions are rewritten in the current format once loaded.
+ *
+ * The CRC32 of each file is kept as it was last read or written, so rescan() can tell which files
+ * another program changed, eg. a sync tool, and flush() never overwrites such a file before
+ * rescan() has read it.
+ *
+ * exportText() and importText() convert between the shards and one text file in the format of
+ * study_set_database, eg. to edit the sets by hand; main() runs them from the command line.
+ */
+public class SetShardStore {
+	/* VARIABLES */
+	static final File DIRECTORY = new File("study_sets");
+	static final File MANIFEST = new File(DIRECTORY, "manifest");
+	private static final String MANIFEST_HEADER = "NextKey;Keys";
+	static final String SHARD_SUFFIX = ".set";
+	private static final File LEGACY_DATABASE = new File("study_set_database");
+
+	private static final Object pendingLock = new Object();
+	private static final LinkedHashMap<Long, String> pendingShards = new LinkedHashMap<>();	// null value deletes the shard
+	private static String pendingManifest;
+	private static final LinkedHashSet<Long> unreadKeys = new LinkedHashSet<>();	// Listed shards that could not be read, kept in the manifest
+	private static long nextKey;
+	private static int manifestVersion;
+	// CRC32 of each file as last read or written, guarded by the class
+	private static final LongMap<Long> shardChecksums = new LongMap<>();
+	private static long manifestChecksum = -1;
+
+
+	/* LOADING */
+
+
+	/**
+	 * Loads every set, moving the sets out of study_set_database the first time
+	 * @param loaded called with each batch of sets as they are read, in display order
+	 * @return the sets in display order
+	 * @throws FileNotFoundException if there is no set database at all
+	 */
+	static ArrayList<StudySet> load(Consumer<List<StudySet>> loaded) throws FileNotFoundException {
+		flush();	// Anything still queued from before would otherwise look like an orphan
+		if (!MANIFEST.exists()) {
+			if (!LEGACY_DATABASE.exists()) { throw new FileNotFoundException(MANIFEST.getPath()); }
+			migrate();
+		}
+
+		synchronized (pendingLock) {
+			unreadKeys.clear();
+		}
+		long[] keys = readManifest();
+		boolean rebuilt = keys == null;
+		if (rebuilt) {
+			// Manifest is damaged, every shard on disk is a set, in the order they were added
+			keys = listShards();
+			nextKey = keys.length == 0 ? 0 : keys[keys.length - 1] + 1;
+		}
+
+		// Shards are read in parallel, and sets are created in order as their shards arrive
+		int threads = Math.max(1, Math.min(keys.length, Runtime.getRuntime().availableProcessors()));
+		ExecutorService loaders = Executors.newFixedThreadPool(threads, r -> {
+			Thread thread = new Thread(r, "set-shard-loader");
+			thread.setDaemon(true);
+			return thread;
+		});
+		ArrayList<StudySet> sets = new ArrayList<>(keys.length);
+		try {
+			ArrayList<Future<Shard>> shards = new ArrayList<>(keys.length);
+			for (long key : keys) {
+				shards.add(loaders.submit(() -> readShard(key)));
+			}
+
+			ArrayList<StudySet> batch = new ArrayList<>();
+			ArrayList<StudySet> outdated = new ArrayList<>();
+			for (int i = 0; i < keys.length; i++) {
+				Shard shard;
+				try {
+					shard = shards.get(i).get();
+				}
+				catch (ExecutionException e) {
+					System.out.println("Set Shard Load Failed");
+					shard = null;
+				}
+				if (shard == null) {
+					long checksum = checksumFile(shardFile(keys[i]));
+					// Kept so rescan() only reads it again once it arrives or changes
+					synchronized (SetShardStore.class) {
+						if (checksum != -1) { shardChecksums.put(keys[i], checksum); }
+						else { shardChecksums.remove(keys[i]); }
+					}
+					synchronized (pendingLock) {
+						unreadKeys.add(keys[i]);
+					}
+					continue;
+				}
+				synchronized (SetShardStore.class) {
+					shardChecksums.put(shard.key, shard.checksum);
+				}
+				StudySet set = toSet(shard);
+				sets.add(set);
+				if (shard.version < Database.FORMAT_VERSION) { outdated.add(set); }
+
+				batch.add(set);
+				if (batch.size() == FileStorage.BATCH_SIZE) {
+					loaded.accept(batch);
+					batch = new ArrayList<>();
+				}
+			}
+			if (!batch.isEmpty()) { loaded.accept(batch); }
+			
+			// Shards from older versions are rewritten in the current format. This waits until
+			// every shard is read, so sets without ids are only given new ones once every saved id
+			// has been seen
+			for (StudySet set : outdated) {
+				saveSet(set);
+			}
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new FileNotFoundException("Loading " + DIRECTORY + " was interrupted");
+		}
+		finally {
+			loaders.shutdown();
+		}
+
+		synchronized (SetShardStore.class) {
+			manifestChecksum = checksumFile(MANIFEST);
+		}
+		if (rebuilt || manifestVersion < Database.FORMAT_VERSION) { saveOrder(sets); }
+		setAsideOrphans(keys);
+		return sets;
+	}
+
+
+	/**
+	 * Checks if every shard the manifest lists has been read, by load() or since by rescan()
+	 * @return true if no listed shard is missing or corrupt
+	 */
+	static boolean loadedEverySet() {
+		synchronized (pendingLock) {
+			return unreadKeys.isEmpty();
+		}
+	}
+
+
+	/**
+	 * Reads the shards and manifest that another program changed since they were last read or
+	 * written. Files that are unchanged are skipped, and a shard that changed is only read into a
+	 * new set if its set is different. Sets saved here but not yet written are kept, while a set
+	 * changed here and in the file takes the file's version.
+	 * @param sets every set in memory, in display order
+	 * @param keys the keys of the shards that may have changed, or null to check every shard
+	 * @return the sets added, removed or changed, to apply to sets
+	 * @throws FileNotFoundException
+	 */
+	static synchronized ExternalChanges<StudySet> rescan(List<StudySet> sets, Collection<Long> keys) throws FileNotFoundException {
+		ExternalChanges<StudySet> changes = new ExternalChanges<>();
+		LongMap<StudySet> byKey = new LongMap<>();
+		for (StudySet s : sets) {
+			if (s.getKey() != -1) { byKey.put(s.getKey(), s); }
+		}
+
+		// The manifest decides which sets exist
+		long[] listed = null;
+		long listedChecksum = checksumFile(MANIFEST);
+		if (listedChecksum != -1 && listedChecksum != manifestChecksum) {
+			synchronized (pendingLock) {
+				long ownNextKey = nextKey;
+				try {
+					listed = readManifest();
+				}
+				catch (FileNotFoundException e) {
+					listed = null;	// Deleted since, the next change will say what happened
+				}
+				nextKey = Math.max(ownNextKey, nextKey);
+			}
+		}
+		if (listed != null) {
+			boolean complete = true;	// False if a listed shard has not arrived yet, to read it on a later change
+			HashSet<Long> listedKeys = new HashSet<>();
+			for (long key : listed) {
+				listedKeys.add(key);
+				// New sets, unless deleted here and not written yet
+				if (byKey.containsKey(key) || deletedHere(key)) { continue; }
+
+				Shard shard = readShard(key);
+				synchronized (pendingLock) {
+					if (shard != null) {
+						shardChecksums.put(key, shard.checksum);
+						changes.add(toSet(shard));
+						unreadKeys.remove(key);
+					}
+					else {
+						complete = false;
+						unreadKeys.add(key);
+						shardChecksums.remove(key);
+					}
+					nextKey = Math.max(nextKey, key + 1);
+				}
+			}
+			// Shards that never arrived are dropped once the manifest stops listing them
+			synchronized (pendingLock) {
+				unreadKeys.retainAll(listedKeys);
+			}
+			// Deleted sets, but not ones that were added here and have never been written
+			for (StudySet s : sets) {
+				if (s.getKey() != -1 && !listedKeys.contains(s.getKey()) && shardChecksums.containsKey(s.getKey())) {
+					changes.remove(s);
+					shardChecksums.remove(s.getKey());
+					synchronized (pendingLock) {
+						pendingShards.remove(s.getKey());
+					}
+				}
+			}
+			if (complete) { manifestChecksum = listedChecksum; }
+		}
+
+		// Changed sets
+		Collection<Long> changed = keys;
+		if (changed == null) {
+			changed = new ArrayList<>();
+			for (StudySet s : sets) {
+				changed.add(s.getKey());
+			}
+			synchronized (pendingLock) {
+				changed.addAll(unreadKeys);
+			}
+		}
+		for (long key : changed) {
+			StudySet old = byKey.get(key);
+			boolean unread;
+			synchronized (pendingLock) {
+				unread = old == null && unreadKeys.contains(key);
+			}
+			if (unread) {
+				// A listed shard that has arrived or changed since it could not be read
+				long checksum = checksumFile(shardFile(key));
+				Long tried = shardChecksums.get(key);
+				if (checksum == -1 || (tried != null && tried == checksum)) { continue; }
+				Shard shard = readShard(key);
+				if (shard == null) {
+					shardChecksums.put(key, checksum);	// Corrupt, so only read again once it changes
+					continue;
+				}
+				shardChecksums.put(key, shard.checksum);
+				changes.add(toSet(shard));
+				synchronized (pendingLock) {
+					unreadKeys.remove(key);
+				}
+				continue;
+			}
+			long checksum = checksumFile(shardFile(key));
+			if (old == null) {
+				// Deleted here and not written yet, the deletion goes ahead
+				if (checksum != -1 && deletedHere(key)) { shardChecksums.put(key, checksum); }
+				continue;
+			}
+			if (changes.getRemoved().contains(old)) { continue; }
+			Long known = shardChecksums.get(key);
+			if (checksum == -1 || (known != null && known == checksum)) { continue; }
+
+			Shard shard = readShard(key);
+			if (shard == null) { continue; }
+			shardChecksums.put(key, shard.checksum);
+			StudySet updated = toSet(shard);
+			if (known == null) {
+				// The shard was never read or written here, so another machine gave a new set the same
+				// key as one added here, which moves to a new key
+				synchronized (pendingLock) {
+					String record = pendingShards.remove(key);
+					old.updateKey(nextKey++);
+					if (record != null) { pendingShards.put(old.getKey(), record); }
+				}
+				changes.add(updated);
+				continue;
+			}
+			synchronized (pendingLock) {
+				pendingShards.remove(key);
+			}
+			if (!Database.formatSet(updated).equals(Database.formatSet(old))) { changes.replace(old, updated); }
+		}
+
+		// A manifest waiting to be written is worked out again, to keep the sets added elsewhere
+		boolean manifestPending;
+		synchronized (pendingLock) {
+			manifestPending = pendingManifest != null;
+		}
+		if (manifestPending && !changes.isEmpty()) {
+			ArrayList<StudySet> updated = new ArrayList<>(sets);
+			changes.applyTo(updated);
+			saveOrder(updated);
+		}
+		return changes;
+	}
+
+
+	/**
+	 * The lines of one shard, read on a loader thread
+	 */
+	private static class Shard {
+		long key;
+		int version;
+		long checksum;	// CRC32 of the whole file
+		ArrayList<String> lines = new ArrayList<>();
+		Date[] dates = new Date[2];
+	}
+
+
+	/**
+	 * Reads one shard
+	 * @param key the key of the set
+	 * @return the shard, or null if it is missing or corrupt
+	 * @throws FileNotFoundException
+	 */
+	private static Shard readShard(long key) throws FileNotFoundException {
+		File file = shardFile(key);
+		if (!file.exists()) {
+			System.out.println("Missing Set Shard " + file);
+			return null;
+		}
+
+		Shard shard = new Shard();
+		shard.key = key;
+		shard.version = 1;
+		shard.checksum = checksumFile(file);
+		DatabaseReader in = new DatabaseReader(file);
+		try {
+			long recordStart = 0;
+			String line = in.hasNextLine() ? in.nextLine() : "";
+			if (Database.parseVersionLine(line) != -1) {
+				shard.version = Database.parseVersionLine(line);
+				recordStart = in.position();
+				in.resetChecksum();
+				line = in.hasNextLine() ? in.nextLine() : "";
+			}
+			
+			// Corrupt shards are quarantined by readSetRecord
+			boolean hasIds = line.equals(Database.SET_HEADER);
+			if ((hasIds || line.equals(Database.LEGACY_SET_HEADER)) && Database.readSetRecord(in, recordStart, hasIds, shard.lines, shard.dates, file)) {
+				return shard;
+			}
+			return null;
+		}
+		finally {
+			in.close();
+		}
+	}
+
+
+	/**
+	 * Reads the manifest
+	 * @return the keys in display order, or null if the manifest is damaged
+	 * @throws FileNotFoundException
+	 */
+	private static long[] readManifest() throws FileNotFoundException {
+		DatabaseReader in = new DatabaseReader(MANIFEST);
+		try {
+			in.resetChecksum();
+			String line = in.nextLine();
+			manifestVersion = 1;
+			if (Database.parseVersionLine(line) != -1) {
+				manifestVersion = Database.parseVersionLine(line);
+				line = in.nextLine();
+			}
+			if (!line.equals(MANIFEST_HEADER)) { throw new IllegalArgumentException("Missing header"); }
+			long next = Long.parseLong(in.nextLine());
+
+			long[] keys = new long[16];
+			int count = 0;
+			line = in.nextLine();
+			while (!line.equals("KeysEnd:")) {
+				if (count == keys.length) { keys = Arrays.copyOf(keys, count * 2); }
+				keys[count++] = Long.parseLong(line);
+				line = in.nextLine();
+			}
+			if (!in.matchChecksum()) { throw new IllegalArgumentException("Checksum does not match"); }
+
+			nextKey = next;
+			return Arrays.copyOf(keys, count);
+		}
+		catch (RuntimeException e) {
+			Database.quarantine(MANIFEST, 0, MANIFEST.length(), "Manifest is damaged, rebuilt from the set shards");
+			return null;
+		}
+		finally {
+			in.close();
+		}
+	}
+
+
+	/**
+	 * Moves the sets in study_set_database and its journal into shards.
+	 * study_set_database is left as it was, as a backup.
+	 * @throws FileNotFoundException
+	 */
+	private static void migrate() throws FileNotFoundException {
+		long[] segment = new long[1];
+		ArrayList<StudySet> sets = readText(LEGACY_DATABASE, segment);
+		SetJournal.replay(sets, segment[0]);
+
+		DIRECTORY.mkdirs();
+		nextKey = 0;
+		rewrite(sets);
+
+		// Everything in the journal is now in the shards
+		SetJournal.discard();
+		new File(LEGACY_DATABASE.getPath() + ".bin").delete();
+	}
+
+
+	/**
+	 * Reads the sets in a text file in the format of study_set_database, with or without ids
+	 * @param text the text file
+	 * @param segment filled with the last journal segment already in the file, 0 if there is none
+	 * @return the sets, leaving out corrupt ones
+	 * @throws FileNotFoundException
+	 */
+	private static ArrayList<StudySet> readText(File text, long[] segment) throws FileNotFoundException {
+		ArrayList<StudySet> sets = new ArrayList<>();
+		DatabaseReader in = new DatabaseReader(text);
+		ArrayList<String> lines = new ArrayList<>();
+		Date[] dates = new Date[2];
+
+		while (in.hasNextLine()) {
+			long recordStart = in.position();
+			in.resetChecksum();
+			String line = in.nextLine();
+
+			// Indicates last journal segment already in this file
+			if (SetJournal.parseSegmentLine(line) != -1) {
+				segment[0] = SetJournal.parseSegmentLine(line);
+			}
+			// Indicates new set, corrupt sets are skipped
+			else if (line.equals(Database.SET_HEADER) || line.equals(Database.LEGACY_SET_HEADER)) {
+				boolean hasIds = line.equals(Database.SET_HEADER);
+				if (Database.readSetRecord(in, recordStart, hasIds, lines, dates, text)) {
+					sets.add(Database.parseSet(lines, dates));
+				}
+			}
+		}
+		in.close();
+		return sets;
+	}
+
+
+	/* CONVERTING */
+
+
+	/**
+	 * Writes every set in the shards to one text file in the format of study_set_database, in
+	 * display order and with their ids, so importText() gives back the same sets
+	 * @param text the text file
+	 * @throws IOException if the shards could not be read or the file could not be written
+	 */
+	static void exportText(File text) throws IOException {
+		flush();
+		long[] keys = readManifest();
+		if (keys == null) { keys = listShards(); }
+
+		File temp = new File(text.getPath() + ".tmp");
+		try (Writer out = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(temp), StandardCharsets.UTF_8))) {
+			out.write(Database.formatVersionLine());
+			for (long key : keys) {
+				// Missing and corrupt shards are reported by readShard
+				Shard shard = readShard(key);
+				if (shard != null) { out.write(Database.formatSet(toSet(shard))); }
+			}
+		}
+		Database.moveIntoPlace(temp, text);
+	}
+
+
+	/**
+	 * Creates the shards from a text file in the format of study_set_database, eg. one written by
+	 * exportText(). Refuses if there are sets in study_sets already, so none are written over.
+	 * @param text the text file
+	 * @throws IOException if there are sets already, or the file could not be read or the shards written
+	 */
+	static void importText(File text) throws IOException {
+		if (MANIFEST.exists() || listShards().length > 0) {
+			throw new IOException(DIRECTORY + " already has sets, move it aside first");
+		}
+		ArrayList<StudySet> sets = readText(text, new long[1]);
+		DIRECTORY.mkdirs();
+		synchronized (pendingLock) {
+			nextKey = 0;
+		}
+		rewrite(sets);
+	}
+
+
+	/**
+	 * Converts between the shards in study_sets and a text file from the command line, eg.
+	 *   java SetShardStore toText study_sets.txt
+	 *   java SetShardStore fromText study_sets.txt
+	 * @param args the direction and the text file
+	 * @throws IOException
+	 */
+	public static void main(String[] args) throws IOException {
+		if (args.length == 2 && args[0].equals("toText")) {
+			exportText(new File(args[1]));
+		}
+		else if (args.length == 2 && args[0].equals("fromText")) {
+			importText(new File(args[1]));
+		}
+		else {
+			System.out.println("Usage: java SetShardStore (toText|fromText) <text file>");
+		}
+	}
+
+
+	/* SAVING */
+
+
+	/**
+	 * Queues a set's shard to be written, giving the set a key if it is new
+	 * @param set the added or changed set
+	 */
+	static void saveSet(StudySet set) {
+		String record = Database.formatVersionLine() + Database.formatSet(set);
+		synchronized (pendingLock) {
+			if (set.getKey() == -1) { set.updateKey(nextKey++); }
+			pendingShards.put(set.getKey(), record);
+		}
+		PersistenceService.markSetsDirty();
+	}
+
+
+	/**
+	 * Queues a set's shard to be deleted
+	 * @param set the deleted set
+	 * @param sets every set left in the database, to update the manifest
+	 */
+	static void deleteSet(StudySet set, List<StudySet> sets) {
+		synchronized (pendingLock) {
+			if (set.getKey() != -1) { pendingShards.put(set.getKey(), null); }
+		}
+		saveOrder(sets);
+	}
+
+
+	/**
+	 * Queues the manifest to be written, after sets were added or deleted. Listed shards that could
+	 * not be read stay listed, after the sets.
+	 * @param sets every set in the database, in display order
+	 */
+	static void saveOrder(List<StudySet> sets) {
+		synchronized (pendingLock) {
+			StringBuilder keys = new StringBuilder();
+			for (StudySet s : sets) {
+				if (s.getKey() == -1) { s.updateKey(nextKey++); }
+				keys.append(s.getKey()).append("\n");
+			}
+			for (long key : unreadKeys) {
+				keys.append(key).append("\n");
+			}
+			String manifest = Database.formatVersionLine() + MANIFEST_HEADER + "\n" + nextKey + "\n" + keys + "KeysEnd:\n";
+			pendingManifest = manifest + Database.checksumLine(manifest);
+		}
+		PersistenceService.markSetsDirty();
+	}
+
+
+	/**
+	 * Writes every shard and the manifest straight away
+	 * @param sets every set in the database, in display order
+	 * @throws FileNotFoundException
+	 */
+	static void rewrite(List<StudySet> sets) throws FileNotFoundException {
+		for (StudySet s : sets) {
+			saveSet(s);
+		}
+		saveOrder(sets);
+		flush();
+	}
+
+
+	/**
+	 * Writes the queued shards, then the manifest, then deletes the shards of deleted sets.
+	 * Nothing is written while one of the files was changed by another program and not rescanned.
+	 * @throws FileNotFoundException if anything could not be written, it stays queued
+	 */
+	static synchronized void flush() throws FileNotFoundException {
+		LinkedHashMap<Long, String> shards;
+		String manifest;
+		synchronized (pendingLock) {
+			if (pendingShards.isEmpty() && pendingManifest == null) { return; }
+			shards = new LinkedHashMap<>(pendingShards);
+			manifest = pendingManifest;
+			pendingShards.clear();
+			pendingManifest = null;
+		}
+
+		try {
+			for (long key : shards.keySet()) {
+				if (changedElsewhere(shardFile(key), shardChecksums.get(key))) { throw new IOException(shardFile(key) + " was changed by another program"); }
+			}
+			if (manifest != null && changedElsewhere(MANIFEST, manifestChecksum)) { throw new IOException(MANIFEST + " was changed by another program"); }
+
+			DIRECTORY.mkdirs();
+			for (Map.Entry<Long, String> shard : shards.entrySet()) {
+				if (shard.getValue() != null) {
+					Database.writeAtomically(shardFile(shard.getKey()), shard.getValue());
+					shardChecksums.put(shard.getKey(), checksum(shard.getValue()));
+				}
+			}
+			if (manifest != null) {
+				Database.writeAtomically(MANIFEST, manifest);
+				manifestChecksum = checksum(manifest);
+			}
+			for (Map.Entry<Long, String> shard : shards.entrySet()) {
+				if (shard.getValue() == null) {
+					shardFile(shard.getKey()).delete();
+					shardChecksums.remove(shard.getKey());
+				}
+			}
+		}
+		catch (IOException e) {
+			// Queue again, unless a newer change has replaced it
+			synchronized (pendingLock) {
+				for (Map.Entry<Long, String> shard : shards.entrySet()) {
+					pendingShards.putIfAbsent(shard.getKey(), shard.getValue());
+				}
+				if (pendingManifest == null) { pendingManifest = manifest; }
+			}
+			FileNotFoundException notSaved = new FileNotFoundException("Could not write " + DIRECTORY);
+			notSaved.initCause(e);
+			throw notSaved;
+		}
+	}
+
+
+	/**
+	 * Writes the shards and manifest still waiting to be saved to another directory, eg. when they
+	 * cannot be saved as the application closes, so they can be recovered by hand. They stay queued.
+	 * @param directory the directory, a study_sets directory is made in it
+	 * @throws IOException if they could not be written
+	 */
+	static void saveUnsaved(File directory) throws IOException {
+		LinkedHashMap<Long, String> shards;
+		String manifest;
+		synchronized (pendingLock) {
+			shards = new LinkedHashMap<>(pendingShards);
+			manifest = pendingManifest;
+		}
+		if (shards.isEmpty() && manifest == null) { return; }
+
+		File unsaved = new File(directory, DIRECTORY.getName());
+		unsaved.mkdirs();
+		for (Map.Entry<Long, String> shard : shards.entrySet()) {
+			if (shard.getValue() != null) { Database.writeAtomically(new File(unsaved, shard.getKey() + SHARD_SUFFIX), shard.getValue()); }
+		}
+		if (manifest != null) { Database.writeAtomically(new File(unsaved, MANIFEST.getName()), manifest); }
+	}
+
+
+	/* HELPER METHODS */
+
+
+	/**
+	 * Gets a stamp of the manifest and every shard, which changes whenever one of them is written
+	 * @return the stamp, or 0 if there are no set files
+	 */
+	static long stamp() {
+		File[] files = DIRECTORY.listFiles((dir, name) -> name.endsWith(SHARD_SUFFIX) || name.equals(MANIFEST.getName()));
+		if (files == null) { return 0; }
+		Arrays.sort(files);
+		return Database.stampFiles(files);
+	}
+
+
+	/**
+	 * Creates a set from its shard, with its flashcards parsed when the set is first opened
+	 * @param shard the shard
+	 * @return the set
+	 */
+	private static StudySet toSet(Shard shard) {
+		ArrayList<String> lines = shard.lines;
+		StudySet set = new StudySet(lines.get(0), lines.get(1), Database.countFlashcards(lines),
+				() -> Database.parseFlashcards(lines), shard.dates[0], shard.dates[1]);
+		Database.parseSetId(set, lines);
+		set.updateKey(shard.key);
+		return set;
+	}
+
+
+	/**
+	 * Checks if a set was deleted here and its shard is waiting to be deleted
+	 * @param key the key of the set
+	 * @return true if the shard is queued to be deleted
+	 */
+	private static boolean deletedHere(long key) {
+		synchronized (pendingLock) {
+			return pendingShards.containsKey(key) && pendingShards.get(key) == null;
+		}
+	}
+
+
+	/**
+	 * Gets the CRC32 of a file
+	 * @param file the file
+	 * @return the CRC32, or -1 if the file could not be read
+	 */
+	private static long checksumFile(File file) {
+		try {
+			CRC32 crc = new CRC32();
+			crc.update(Files.readAllBytes(file.toPath()));
+			return crc.getValue();
+		}
+		catch (IOException e) {
+			return -1;
+		}
+	}
+
+
+	/**
+	 * Gets the CRC32 of text as it is written to a file
+	 * @param text the text
+	 * @return the CRC32
+	 */
+	private static long checksum(String text) {
+		CRC32 crc = new CRC32();
+		crc.update(text.getBytes(StandardCharsets.UTF_8));
+		return crc.getValue();
+	}
+
+
+	/**
+	 * Checks if a file was changed by another program since it was last read or written here
+	 * @param file the file
+	 * @param known the CRC32 it was last read or written with, null or -1 if never
+	 * @return true if the file exists and is not as it was
+	 */
+	private static boolean changedElsewhere(File file, Long known) {
+		long checksum = checksumFile(file);
+		return checksum != -1 && (known == null || checksum != known);
+	}
+
+
+	/**
+	 * Gets the file of a set's shard
+	 * @param key the key of the set
+	 * @return the shard file
+	 */
+	private static File shardFile(long key) {
+		return new File(DIRECTORY, key + SHARD_SUFFIX);
+	}
+
+
+	/**
+	 * Finds every shard on disk
+	 * @return the keys in ascending order
+	 */
+	private static long[] listShards() {
+		String[] names = DIRECTORY.list((dir, name) -> name.endsWith(SHARD_SUFFIX));
+		if (names == null) { return new long[0]; }
+
+		long[] keys = new long[names.length];
+		int count = 0;
+		for (String name : names) {
+			try {
+				keys[count] = Long.parseLong(name.substring(0, name.length() - SHARD_SUFFIX.length()));
+				count++;
+			}
+			catch (NumberFormatException e) {
+				// Not a shard, eg. a copy made by hand
+			}
+		}
+		keys = Arrays.copyOf(keys, count);
+		Arrays.sort(keys);
+		return keys;
+	}
+
+
+	/**
+	 * Moves shards the manifest does not list out of the way, and deletes temporary files left by
+	 * a crash mid-save. A moved shard keeps its contents, and is never written over by a later one.
+	 * @param keys the keys in the manifest
+	 */
+	private static void setAsideOrphans(long[] keys) {
+		HashSet<Long> listed = new HashSet<>();
+		for (long key : keys) {
+			listed.add(key);
+		}
+		for (long key : listShards()) {
+			if (listed.contains(key)) { continue; }
+			File shard = shardFile(key);
+			File orphan = new File(DIRECTORY, shard.getName() + ".orphan");
+			for (int copy = 1; orphan.exists(); copy++) {
+				orphan = new File(DIRECTORY, shard.getName() + "." + copy + ".orphan");
+			}
+			if (shard.renameTo(orphan)) {
+				System.out.println("Set Shard Not in Manifest, Moved to " + orphan);
+			}
+			else {
+				System.out.println("Moving Set Shard " + shard + " Failed");
+			}
+		}
+
+		File[] temps = DIRECTORY.listFiles((dir, name) -> name.endsWith(".tmp"));
+		if (temps != null) {
+			for (File temp : temps) {
+				temp.delete();
+			}
+		}
+	}
+}
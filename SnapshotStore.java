@@ -0,0 +1,273 @@
+/**
+ * @author Michelle Nguyen
+ * @version 2026-10-17
+ */
+
+
+/* IMPORT STATEMENTS */
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.ToLongFunction;
+
+
+/**
+ * The sets or notes of the database, read from any thread without locking.
+ *
+ * Readers get a snapshot: an unmodifiable list in display order and a map by id, neither of which
+ * changes once it is published. A change copies them, applies itself to the copies and publishes
+ * them with one volatile write, so a reader such as the saver or a search sees every item from
+ * before the change or every item after it, never a list half way through one. Copying costs
+ * O(n) per change, which is small next to saving the change and rare next to reads.
+ *
+ * Changes are made one at a time: add(), remove(), replace() and replaceAll() are the only methods that
+ * change the store and hold its lock while they do. Database holds the same lock through
+ * writeLock() while it also updates its indexes and storage, so those see changes in the same order.
+ *
+ * Listeners are told of each change as it is made, as the items removed and added at one place
+ * in the list, so a view of every item, eg. a table, can make the same change instead of showing
+ * the whole list again. update() tells them of an item changed in place, eg. a new title.
+ * @param <T> the type of item
+ */
+public class SnapshotStore<T> {
+	/* VARIABLES */
+	private final ToLongFunction<T> id;
+	private volatile Snapshot<T> current = new Snapshot<>(Collections.emptyList(), new LongMap<>(), 0);
+	private final CopyOnWriteArrayList<Listener<T>> listeners = new CopyOnWriteArrayList<>();
+
+
+	/**
+	 * The items of the store at one moment
+	 */
+	public static class Snapshot<T> {
+		private final List<T> items;
+		private final LongMap<T> byId;
+		private final long version;	// Number of changes made to the store before this snapshot
+
+
+		private Snapshot(List<T> items, LongMap<T> byId, long version) {
+			this.items = items;
+			this.byId = byId;
+			this.version = version;
+		}
+
+
+		/* GET METHODS */
+		public List<T> getItems() { return items; }
+		public int size() { return items.size(); }
+		public long getVersion() { return version; }
+
+
+		/**
+		 * Gets an item by id
+		 * @param id the id
+		 * @return the item, or null if it is not in the snapshot
+		 */
+		public T get(long id) {
+			return byId.get(id);
+		}
+	}
+
+
+	/**
+	 * One change to the store: the items removed from a place in the list, then the items added there
+	 */
+	public static class Change<T> {
+		private final int from;
+		private final List<T> removed;
+		private final List<T> added;
+		private final Snapshot<T> snapshot;
+
+
+		private Change(int from, List<T> removed, List<T> added, Snapshot<T> snapshot) {
+			this.from = from;
+			this.removed = removed;
+			this.added = added;
+			this.snapshot = snapshot;
+		}
+
+
+		/* GET METHODS */
+		public int getFrom() { return from; }
+		public List<T> getRemoved() { return removed; }
+		public List<T> getAdded() { return added; }
+		public Snapshot<T> getSnapshot() { return snapshot; }
+		public long getVersion() { return snapshot.version; }
+	}
+
+
+	/**
+	 * Told of every change to the store
+	 */
+	public interface Listener<T> {
+		/**
+		 * Called after each change, in the order they were made, while the store's lock is held, so
+		 * it should pass the change on rather than do slow work, eg. to the application thread
+		 * @param change the change
+		 */
+		void changed(Change<T> change);
+	}
+
+
+	/**
+	 * @param id gets the id of an item, eg. StudySet::getId
+	 */
+	public SnapshotStore(ToLongFunction<T> id) {
+		this.id = id;
+	}
+
+
+	/* GET METHODS */
+	public Snapshot<T> snapshot() { return current; }
+	public List<T> getItems() { return current.items; }
+
+
+	/**
+	 * Gets an item by id
+	 * @param id the id
+	 * @return the item, or null if it is not in the store
+	 */
+	public T get(long id) {
+		return current.byId.get(id);
+	}
+
+
+	/**
+	 * Checks if an item is in the store, and has not been replaced by another with its id
+	 * @param item the item
+	 * @return true if the item is in the store
+	 */
+	public boolean contains(T item) {
+		return current.byId.get(id.applyAsLong(item)) == item;
+	}
+
+
+	/**
+	 * Gets the lock that every change holds, to make other updates in the same order as the changes
+	 * @return the lock
+	 */
+	public Object writeLock() {
+		return this;
+	}
+
+
+	/**
+	 * Adds a listener, told of every change made after this call
+	 * @param listener the listener
+	 */
+	public void addListener(Listener<T> listener) {
+		listeners.add(listener);
+	}
+
+
+	/**
+	 * Removes a listener
+	 * @param listener the listener
+	 */
+	public void removeListener(Listener<T> listener) {
+		listeners.remove(listener);
+	}
+
+
+	/* CHANGES */
+
+
+	/**
+	 * Adds an item to the end
+	 * @param item the item
+	 * @return the snapshot with the item added
+	 */
+	public synchronized Snapshot<T> add(T item) {
+		ArrayList<T> items = new ArrayList<>(current.items.size() + 1);
+		items.addAll(current.items);
+		items.add(item);
+		LongMap<T> byId = current.byId.copy();
+		byId.put(id.applyAsLong(item), item);
+		return publish(items, byId, items.size() - 1, Collections.emptyList(), Collections.singletonList(item));
+	}
+
+
+	/**
+	 * Removes an item
+	 * @param item the item
+	 * @return the snapshot with the item removed, or null if the item was not in the store
+	 */
+	public synchronized Snapshot<T> remove(T item) {
+		int index = current.items.indexOf(item);
+		if (index < 0) { return null; }
+
+		ArrayList<T> items = new ArrayList<>(current.items);
+		items.remove(index);
+		LongMap<T> byId = current.byId.copy();
+		byId.remove(id.applyAsLong(item));
+		return publish(items, byId, index, Collections.singletonList(item), Collections.emptyList());
+	}
+
+
+	/**
+	 * Puts an item in the place of another with the same id, eg. one changed by another program
+	 * @param old the item in the store
+	 * @param updated the item to put in its place
+	 * @return the snapshot with the item replaced, or null if the old item was not in the store
+	 */
+	public synchronized Snapshot<T> replace(T old, T updated) {
+		int index = current.items.indexOf(old);
+		if (index < 0) { return null; }
+
+		ArrayList<T> items = new ArrayList<>(current.items);
+		items.set(index, updated);
+		LongMap<T> byId = current.byId.copy();
+		byId.remove(id.applyAsLong(old));
+		byId.put(id.applyAsLong(updated), updated);
+		return publish(items, byId, index, Collections.singletonList(old), Collections.singletonList(updated));
+	}
+
+
+	/**
+	 * Tells listeners an item was changed in place, eg. its title was edited
+	 * @param item the item
+	 * @return the snapshot, with the same items, or null if the item is not in the store
+	 */
+	public synchronized Snapshot<T> update(T item) {
+		int index = current.items.indexOf(item);
+		if (index < 0) { return null; }
+
+		List<T> changed = Collections.singletonList(item);
+		return publish(current.items, current.byId, index, changed, changed);
+	}
+
+
+	/**
+	 * Replaces every item, eg. once they are loaded
+	 * @param items the items, in display order, not changed after this call
+	 * @return the snapshot of the items
+	 */
+	public synchronized Snapshot<T> replaceAll(List<T> items) {
+		LongMap<T> byId = new LongMap<>();
+		for (T item : items) {
+			byId.put(id.applyAsLong(item), item);
+		}
+		List<T> copy = Collections.unmodifiableList(new ArrayList<>(items));
+		return publish(copy, byId, 0, current.items, copy);
+	}
+
+
+	/**
+	 * Makes a snapshot the current one, then tells the listeners of the change
+	 * @param items the items, which are not changed after this
+	 * @param byId the items by id, which are not changed after this
+	 * @param from the place in the list of the change
+	 * @param removed the items removed from that place
+	 * @param added the items added in their place
+	 * @return the snapshot
+	 */
+	private Snapshot<T> publish(List<T> items, LongMap<T> byId, int from, List<T> removed, List<T> added) {
+		current = new Snapshot<>(items == current.items ? items : Collections.unmodifiableList(items), byId, current.version + 1);
+		Change<T> change = new Change<>(from, removed, added, current);
+		for (Listener<T> listener : listeners) {
+			listener.changed(change);
+		}
+		return current;
+	}
+}
@@ -0,0 +1,636 @@
+/**
+ * @author Michelle Nguyen
+ * @version 2026-10-17
+ */
+
+
+/* IMPORT STATEMENTS */
+import java.io.FileNotFoundException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.function.Consumer;
+
+
+/**
+ * Keeps sets, flashcards and notes in tables of an SQL database, eg. an embedded H2 or SQLite
+ * database in the application folder. The JDBC driver is found on the classpath by DriverManager.
+ *
+ * Every set, flashcard and note is a row keyed by its id, so a change to one of them is a write
+ * to one indexed row, and queries such as the sets accessed this week read only the rows they need.
+ * Rows keep a position column for display order. Changes are written straight away, each in its
+ * own transaction.
+ *
+ * The first time the tables are created, the sets and notes in the database files are copied in.
+ */
+public class SqlStorage implements StorageBackend {
+	/* VARIABLES */
+	private static final String[] SCHEMA = {
+		"CREATE TABLE study_sets (set_key BIGINT PRIMARY KEY, position BIGINT NOT NULL, title CLOB NOT NULL, "
+				+ "description CLOB NOT NULL, date_created BIGINT NOT NULL, date_accessed BIGINT NOT NULL)",
+		"CREATE INDEX study_sets_accessed ON study_sets (date_accessed)",
+		"CREATE TABLE flashcards (card_key BIGINT PRIMARY KEY, set_key BIGINT NOT NULL, position INT NOT NULL, "
+				+ "term CLOB NOT NULL, definition CLOB NOT NULL, priority INT NOT NULL)",
+		"CREATE INDEX flashcards_set ON flashcards (set_key)",
+		"CREATE TABLE notes (note_key BIGINT PRIMARY KEY, position BIGINT NOT NULL, title CLOB NOT NULL, "
+				+ "description CLOB NOT NULL, text CLOB NOT NULL, date_created BIGINT NOT NULL, date_accessed BIGINT NOT NULL)"
+	};
+	private static final String SELECT_SETS = "SELECT set_key, title, description, date_created, date_accessed FROM study_sets";
+	private static final String SELECT_FLASHCARDS = "SELECT card_key, set_key, term, definition, priority FROM flashcards";
+
+	private final String url;
+	private Connection connection;
+	private long nextSetPosition;
+	private long nextNotePosition;
+
+
+	/**
+	 * Work done inside one transaction
+	 */
+	private interface Transaction<T> {
+		T run(Connection connection) throws SQLException;
+	}
+
+
+	/**
+	 * Creates storage for an SQL database, connecting the first time it is used
+	 * @param url the JDBC URL of the database, eg. "jdbc:h2:./fsa"
+	 */
+	public SqlStorage(String url) {
+		this.url = url;
+	}
+
+
+	/* STUDYSET METHODS */
+
+
+	/**
+	 * Sets are read in two queries, so they are passed on in one batch
+	 */
+	@Override
+	public ArrayList<StudySet> loadSets(Consumer<List<StudySet>> loaded) throws FileNotFoundException {
+		ArrayList<StudySet> sets = transact("load sets", c -> readSets(c, SELECT_SETS + " ORDER BY position",
+				SELECT_FLASHCARDS + " ORDER BY set_key, position", null));
+		loaded.accept(sets);
+		return sets;
+	}
+
+
+	@Override
+	public ArrayList<StudySet> loadSetsAccessedSince(Date since) throws FileNotFoundException {
+		return transact("load sets", c -> readSets(c, SELECT_SETS + " WHERE date_accessed >= ? ORDER BY position",
+				SELECT_FLASHCARDS + " WHERE set_key IN (SELECT set_key FROM study_sets WHERE date_accessed >= ?) ORDER BY set_key, position",
+				since.getTime()));
+	}
+
+
+	@Override
+	public void insertSet(StudySet set, List<StudySet> sets) throws FileNotFoundException {
+		transact("save set", c -> {
+			insertSet(c, set, nextSetPosition++);
+			return null;
+		});
+	}
+
+
+	/**
+	 * Saves the set's title and description, and only the flashcards that differ from their rows
+	 */
+	@Override
+	public void updateSet(StudySet set) throws FileNotFoundException {
+		transact("save set", c -> {
+			try (PreparedStatement update = c.prepareStatement("UPDATE study_sets SET title = ?, description = ? WHERE set_key = ?")) {
+				update.setString(1, set.getTitle());
+				update.setString(2, set.getDescription());
+				update.setLong(3, set.getKey());
+				update.executeUpdate();
+			}
+			updateFlashcards(c, set);
+			return null;
+		});
+	}
+
+
+	@Override
+	public void updateSetDateAccessed(StudySet set) throws FileNotFoundException {
+		transact("save set", c -> {
+			try (PreparedStatement update = c.prepareStatement("UPDATE study_sets SET date_accessed = ? WHERE set_key = ?")) {
+				update.setLong(1, set.getDateAccessedMillis());
+				update.setLong(2, set.getKey());
+				update.executeUpdate();
+			}
+			return null;
+		});
+	}
+
+
+	@Override
+	public void deleteSet(StudySet set, List<StudySet> sets) throws FileNotFoundException {
+		transact("delete set", c -> {
+			deleteByKey(c, "DELETE FROM flashcards WHERE set_key = ?", set.getKey());
+			deleteByKey(c, "DELETE FROM study_sets WHERE set_key = ?", set.getKey());
+			return null;
+		});
+	}
+
+
+	@Override
+	public void rewriteSets(List<StudySet> sets) throws FileNotFoundException {
+		transact("save sets", c -> {
+			try (Statement clear = c.createStatement()) {
+				clear.executeUpdate("DELETE FROM flashcards");
+				clear.executeUpdate("DELETE FROM study_sets");
+			}
+			nextSetPosition = 0;
+			for (StudySet s : sets) {
+				s.updateKey(-1);
+				insertSet(c, s, nextSetPosition++);
+			}
+			return null;
+		});
+	}
+
+
+	/* FLASHCARD METHODS */
+
+
+	@Override
+	public void insertFlashcard(StudySet set, Flashcard flashcard) throws FileNotFoundException {
+		transact("save flashcard", c -> {
+			try (PreparedStatement insert = prepareInsertFlashcard(c)) {
+				addInsertFlashcard(insert, set.getKey(), set.getFlashcards().indexOf(flashcard), flashcard);
+				insert.executeBatch();
+			}
+			return null;
+		});
+	}
+
+
+	@Override
+	public void updateFlashcard(StudySet set, Flashcard flashcard) throws FileNotFoundException {
+		transact("save flashcard", c -> {
+			try (PreparedStatement update = c.prepareStatement("UPDATE flashcards SET term = ?, definition = ?, priority = ? WHERE card_key = ?")) {
+				update.setString(1, flashcard.getTerm());
+				update.setString(2, flashcard.getDefinition());
+				update.setInt(3, flashcard.getPriority());
+				update.setLong(4, flashcard.getKey());
+				update.executeUpdate();
+			}
+			return null;
+		});
+	}
+
+
+	@Override
+	public void deleteFlashcard(StudySet set, Flashcard flashcard) throws FileNotFoundException {
+		transact("delete flashcard", c -> {
+			deleteByKey(c, "DELETE FROM flashcards WHERE card_key = ?", flashcard.getKey());
+			return null;
+		});
+	}
+
+
+	/* NOTE METHODS */
+
+
+	@Override
+	public ArrayList<Note> loadNotes(Consumer<List<Note>> loaded) throws FileNotFoundException {
+		ArrayList<Note> loadedNotes = transact("load notes", c -> {
+			ArrayList<Note> notes = new ArrayList<>();
+			try (Statement select = c.createStatement();
+					ResultSet rows = select.executeQuery("SELECT note_key, title, description, text, date_created, date_accessed FROM notes ORDER BY position")) {
+				while (rows.next()) {
+					Note note = new Note(rows.getString(2), rows.getString(3), rows.getString(4), new Date(rows.getLong(5)), new Date(rows.getLong(6)));
+					note.updateKey(rows.getLong(1));
+					note.updateId(rows.getLong(1));
+					notes.add(note);
+				}
+			}
+			return notes;
+		});
+		loaded.accept(loadedNotes);
+		return loadedNotes;
+	}
+
+
+	@Override
+	public void insertNote(Note note, List<Note> notes) throws FileNotFoundException {
+		transact("save note", c -> {
+			insertNote(c, note, nextNotePosition++);
+			return null;
+		});
+	}
+
+
+	@Override
+	public void updateNote(Note note, List<Note> notes) throws FileNotFoundException {
+		transact("save note", c -> {
+			try (PreparedStatement update = c.prepareStatement("UPDATE notes SET title = ?, description = ?, text = ? WHERE note_key = ?")) {
+				update.setString(1, note.getTitle());
+				update.setString(2, note.getDescription());
+				update.setString(3, note.getText());
+				update.setLong(4, note.getKey());
+				update.executeUpdate();
+			}
+			return null;
+		});
+	}
+
+
+	@Override
+	public void updateNoteDateAccessed(Note note, List<Note> notes) throws FileNotFoundException {
+		transact("save note", c -> {
+			try (PreparedStatement update = c.prepareStatement("UPDATE notes SET date_accessed = ? WHERE note_key = ?")) {
+				update.setLong(1, note.getDateAccessedMillis());
+				update.setLong(2, note.getKey());
+				update.executeUpdate();
+			}
+			return null;
+		});
+	}
+
+
+	@Override
+	public void deleteNote(Note note, List<Note> notes) throws FileNotFoundException {
+		transact("delete note", c -> {
+			deleteByKey(c, "DELETE FROM notes WHERE note_key = ?", note.getKey());
+			return null;
+		});
+	}
+
+
+	@Override
+	public void rewriteNotes(List<Note> notes) throws FileNotFoundException {
+		transact("save notes", c -> {
+			try (Statement clear = c.createStatement()) {
+				clear.executeUpdate("DELETE FROM notes");
+			}
+			nextNotePosition = 0;
+			for (Note n : notes) {
+				n.updateKey(-1);
+				insertNote(c, n, nextNotePosition++);
+			}
+			return null;
+		});
+	}
+
+
+	/* STORAGE METHODS */
+
+
+	/**
+	 * Every change is committed when it is made, so there is nothing to wait for
+	 */
+	@Override
+	public void flush() {
+	}
+
+
+	/**
+	 * Tables have no cheap way to tell they changed, so data worked out from them is rebuilt
+	 * from the rows, which are all loaded anyway
+	 */
+	@Override
+	public long setsStamp() {
+		return 0;
+	}
+
+
+	@Override
+	public long notesStamp() {
+		return 0;
+	}
+
+
+	/* HELPER METHODS */
+
+
+	/**
+	 * Runs work in a transaction, connecting first if needed, and rolls it back if it fails
+	 * @param action what is being done, for the error message
+	 * @param work the work to run
+	 * @return the result of the work
+	 * @throws FileNotFoundException if the work failed
+	 */
+	private synchronized <T> T transact(String action, Transaction<T> work) throws FileNotFoundException {
+		try {
+			if (connection == null) { connect(); }
+			try {
+				T result = work.run(connection);
+				connection.commit();
+				return result;
+			}
+			catch (SQLException e) {
+				connection.rollback();
+				throw e;
+			}
+		}
+		catch (SQLException e) {
+			FileNotFoundException failed = new FileNotFoundException("Could not " + action + " in " + url);
+			failed.initCause(e);
+			throw failed;
+		}
+	}
+
+
+	/**
+	 * Connects to the database, creating the tables and copying in the database files if they are new
+	 * @throws SQLException
+	 */
+	private void connect() throws SQLException {
+		connection = DriverManager.getConnection(url);
+		connection.setAutoCommit(false);
+		try (Statement check = connection.createStatement()) {
+			check.executeQuery("SELECT COUNT(*) FROM study_sets").close();
+		}
+		catch (SQLException e) {
+			connection.rollback();
+			try (Statement create = connection.createStatement()) {
+				for (String table : SCHEMA) {
+					create.executeUpdate(table);
+				}
+			}
+			connection.commit();
+			importFiles();
+		}
+
+		// Keys are ids, so new ids carry on from the largest key in each table
+		IdAllocator.observe(max("SELECT MAX(set_key) FROM study_sets"));
+		IdAllocator.observe(max("SELECT MAX(card_key) FROM flashcards"));
+		IdAllocator.observe(max("SELECT MAX(note_key) FROM notes"));
+		renumberZeroKeys();
+		
+		// Positions carry on from the largest in each table
+		nextSetPosition = max("SELECT MAX(position) FROM study_sets") + 1;
+		nextNotePosition = max("SELECT MAX(position) FROM notes") + 1;
+		connection.commit();
+	}
+
+
+	/**
+	 * Copies the sets and notes in the database files into the new tables
+	 * @throws SQLException
+	 */
+	private void importFiles() throws SQLException {
+		FileStorage files = new FileStorage();
+		ArrayList<StudySet> sets = new ArrayList<>();
+		ArrayList<Note> notes = new ArrayList<>();
+		try { sets = files.loadSets(); } catch (FileNotFoundException e) { /* No sets to copy */ }
+		try { notes = files.loadNotes(); } catch (FileNotFoundException e) { /* No notes to copy */ }
+
+		long position = 0;
+		for (StudySet s : sets) {
+			s.updateKey(-1);
+			insertSet(connection, s, position++);
+		}
+		position = 0;
+		for (Note n : notes) {
+			n.updateKey(-1);
+			insertNote(connection, n, position++);
+		}
+		connection.commit();
+	}
+
+
+	/**
+	 * Gives a new key to the rows saved with key 0, which was the first key before keys were ids.
+	 * Ids start at 1, since 0 means a set, flashcard or note has no id yet.
+	 * @throws SQLException
+	 */
+	private void renumberZeroKeys() throws SQLException {
+		String[][] updates = {
+			{ "SELECT COUNT(*) FROM study_sets WHERE set_key = 0",
+				"UPDATE study_sets SET set_key = ? WHERE set_key = 0", "UPDATE flashcards SET set_key = ? WHERE set_key = 0" },
+			{ "SELECT COUNT(*) FROM flashcards WHERE card_key = 0", "UPDATE flashcards SET card_key = ? WHERE card_key = 0" },
+			{ "SELECT COUNT(*) FROM notes WHERE note_key = 0", "UPDATE notes SET note_key = ? WHERE note_key = 0" }
+		};
+		for (String[] table : updates) {
+			if (max(table[0]) <= 0) { continue; }
+
+			long key = IdAllocator.nextId();
+			for (int i = 1; i < table.length; i++) {
+				try (PreparedStatement update = connection.prepareStatement(table[i])) {
+					update.setLong(1, key);
+					update.executeUpdate();
+				}
+			}
+		}
+	}
+
+
+	/**
+	 * Reads a single number, eg. the largest key in a table
+	 * @param query the query
+	 * @return the number, or -1 if the table is empty
+	 * @throws SQLException
+	 */
+	private long max(String query) throws SQLException {
+		try (Statement select = connection.createStatement(); ResultSet rows = select.executeQuery(query)) {
+			if (rows.next()) {
+				long value = rows.getLong(1);
+				if (!rows.wasNull()) { return value; }
+			}
+			return -1;
+		}
+	}
+
+
+	/**
+	 * Reads sets and their flashcards
+	 * @param c the connection
+	 * @param setQuery the query for the sets, in display order
+	 * @param flashcardQuery the query for the flashcards of those sets, grouped by set
+	 * @param since the access date both queries take as a parameter, or null if they take none
+	 * @return the sets
+	 * @throws SQLException
+	 */
+	private static ArrayList<StudySet> readSets(Connection c, String setQuery, String flashcardQuery, Long since) throws SQLException {
+		// Flashcards of every set are read in one query, rather than one query per set
+		HashMap<Long, ArrayList<Flashcard>> flashcards = new HashMap<>();
+		try (PreparedStatement select = c.prepareStatement(flashcardQuery)) {
+			if (since != null) { select.setLong(1, since); }
+			try (ResultSet rows = select.executeQuery()) {
+				while (rows.next()) {
+					Flashcard flashcard = new Flashcard(rows.getString(3), rows.getString(4), rows.getInt(5));
+					flashcard.updateKey(rows.getLong(1));
+					flashcard.updateId(rows.getLong(1));
+					flashcards.computeIfAbsent(rows.getLong(2), key -> new ArrayList<>()).add(flashcard);
+				}
+			}
+		}
+
+		ArrayList<StudySet> sets = new ArrayList<>();
+		try (PreparedStatement select = c.prepareStatement(setQuery)) {
+			if (since != null) { select.setLong(1, since); }
+			try (ResultSet rows = select.executeQuery()) {
+				while (rows.next()) {
+					long key = rows.getLong(1);
+					StudySet set = new StudySet(rows.getString(2), rows.getString(3), flashcards.getOrDefault(key, new ArrayList<>()),
+							new Date(rows.getLong(4)), new Date(rows.getLong(5)));
+					set.updateKey(key);
+					set.updateId(key);
+					sets.add(set);
+				}
+			}
+		}
+		return sets;
+	}
+
+
+	/**
+	 * Inserts a set and its flashcards, keyed by their ids
+	 * @param c the connection
+	 * @param set the set
+	 * @param position the display position of the set
+	 * @throws SQLException
+	 */
+	private void insertSet(Connection c, StudySet set, long position) throws SQLException {
+		set.updateKey(set.getId());
+		try (PreparedStatement insert = c.prepareStatement("INSERT INTO study_sets "
+				+ "(set_key, position, title, description, date_created, date_accessed) VALUES (?, ?, ?, ?, ?, ?)")) {
+			insert.setLong(1, set.getKey());
+			insert.setLong(2, position);
+			insert.setString(3, set.getTitle());
+			insert.setString(4, set.getDescription());
+			insert.setLong(5, set.getDateCreatedMillis());
+			insert.setLong(6, set.getDateAccessedMillis());
+			insert.executeUpdate();
+		}
+
+		try (PreparedStatement insert = prepareInsertFlashcard(c)) {
+			List<Flashcard> flashcards = set.getFlashcards();
+			for (int i = 0; i < flashcards.size(); i++) {
+				flashcards.get(i).updateKey(-1);
+				addInsertFlashcard(insert, set.getKey(), i, flashcards.get(i));
+			}
+			insert.executeBatch();
+		}
+	}
+
+
+	/**
+	 * Brings a set's flashcard rows in line with its flashcards, writing only the rows that changed
+	 * @param c the connection
+	 * @param set the set
+	 * @throws SQLException
+	 */
+	private void updateFlashcards(Connection c, StudySet set) throws SQLException {
+		// Current rows of the set, by key
+		HashMap<Long, Object[]> rows = new HashMap<>();
+		try (PreparedStatement select = c.prepareStatement("SELECT card_key, term, definition, priority, position FROM flashcards WHERE set_key = ?")) {
+			select.setLong(1, set.getKey());
+			try (ResultSet result = select.executeQuery()) {
+				while (result.next()) {
+					rows.put(result.getLong(1), new Object[] { result.getString(2), result.getString(3), result.getInt(4), result.getInt(5) });
+				}
+			}
+		}
+
+		try (PreparedStatement insert = prepareInsertFlashcard(c);
+				PreparedStatement update = c.prepareStatement("UPDATE flashcards SET term = ?, definition = ?, priority = ?, position = ? WHERE card_key = ?");
+				PreparedStatement delete = c.prepareStatement("DELETE FROM flashcards WHERE card_key = ?")) {
+			List<Flashcard> flashcards = set.getFlashcards();
+			for (int i = 0; i < flashcards.size(); i++) {
+				Flashcard f = flashcards.get(i);
+				Object[] row = rows.remove(f.getKey());
+				if (row == null) {
+					addInsertFlashcard(insert, set.getKey(), i, f);
+				}
+				else if (!row[0].equals(f.getTerm()) || !row[1].equals(f.getDefinition())
+						|| (int) row[2] != f.getPriority() || (int) row[3] != i) {
+					update.setString(1, f.getTerm());
+					update.setString(2, f.getDefinition());
+					update.setInt(3, f.getPriority());
+					update.setInt(4, i);
+					update.setLong(5, f.getKey());
+					update.addBatch();
+				}
+			}
+
+			// Rows left over belong to flashcards that were removed
+			for (long key : rows.keySet()) {
+				delete.setLong(1, key);
+				delete.addBatch();
+			}
+			insert.executeBatch();
+			update.executeBatch();
+			delete.executeBatch();
+		}
+	}
+
+
+	/**
+	 * Prepares the statement that inserts flashcards, see addInsertFlashcard
+	 * @param c the connection
+	 * @return the statement
+	 * @throws SQLException
+	 */
+	private static PreparedStatement prepareInsertFlashcard(Connection c) throws SQLException {
+		return c.prepareStatement("INSERT INTO flashcards (card_key, set_key, position, term, definition, priority) VALUES (?, ?, ?, ?, ?, ?)");
+	}
+
+
+	/**
+	 * Adds a flashcard to an insert batch, keyed by its id
+	 * @param insert the statement from prepareInsertFlashcard
+	 * @param setKey the key of the flashcard's set
+	 * @param position the position of the flashcard in its set
+	 * @param flashcard the flashcard
+	 * @throws SQLException
+	 */
+	private void addInsertFlashcard(PreparedStatement insert, long setKey, int position, Flashcard flashcard) throws SQLException {
+		flashcard.updateKey(flashcard.getId());
+		insert.setLong(1, flashcard.getKey());
+		insert.setLong(2, setKey);
+		insert.setInt(3, position);
+		insert.setString(4, flashcard.getTerm());
+		insert.setString(5, flashcard.getDefinition());
+		insert.setInt(6, flashcard.getPriority());
+		insert.addBatch();
+	}
+
+
+	/**
+	 * Inserts a note, keyed by its id
+	 * @param c the connection
+	 * @param note the note
+	 * @param position the display position of the note
+	 * @throws SQLException
+	 */
+	private void insertNote(Connection c, Note note, long position) throws SQLException {
+		note.updateKey(note.getId());
+		try (PreparedStatement insert = c.prepareStatement("INSERT INTO notes "
+				+ "(note_key, position, title, description, text, date_created, date_accessed) VALUES (?, ?, ?, ?, ?, ?, ?)")) {
+			insert.setLong(1, note.getKey());
+			insert.setLong(2, position);
+			insert.setString(3, note.getTitle());
+			insert.setString(4, note.getDescription());
+			insert.setString(5, note.getText());
+			insert.setLong(6, note.getDateCreatedMillis());
+			insert.setLong(7, note.getDateAccessedMillis());
+			insert.executeUpdate();
+		}
+	}
+
+
+	/**
+	 * Deletes rows by key
+	 * @param c the connection
+	 * @param statement the delete statement, taking the key as its only parameter
+	 * @param key the key
+	 * @throws SQLException
+	 */
+	private static void deleteByKey(Connection c, String statement, long key) throws SQLException {
+		try (PreparedStatement delete = c.prepareStatement(statement)) {
+			delete.setLong(1, key);
+			delete.executeUpdate();
+		}
+	}
+}
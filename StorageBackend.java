@@ -0,0 +1,256 @@
+/**
+ * @author Michelle Nguyen
+ * @version 2026-10-17
+ */
+
+
+/* IMPORT STATEMENTS */
+import java.io.FileNotFoundException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.function.Consumer;
+
+
+/**
+ * Where Database keeps its sets, flashcards and notes.
+ *
+ * Database holds the lists shown in the application and checks every change, then tells the
+ * backend what changed. FileStorage keeps the text files the application has always used;
+ * SqlStorage keeps everything in tables of an SQL database reached through JDBC.
+ *
+ * Methods that change the order of a list are given the whole list, for backends that store
+ * the order rather than work it out. The list is an unmodifiable snapshot, so it can be kept
+ * and read on another thread. Backends may save changes in the background; flush()
+ * waits until everything is saved.
+ */
+public interface StorageBackend {
+	/* STUDYSET METHODS */
+
+
+	/**
+	 * Loads every set, passing them on in batches as they are read
+	 * @param loaded called with each batch of sets in display order, on the loading thread
+	 * @return the sets in display order
+	 * @throws FileNotFoundException if the sets could not be read
+	 */
+	ArrayList<StudySet> loadSets(Consumer<List<StudySet>> loaded) throws FileNotFoundException;
+
+
+	/**
+	 * Loads every set
+	 * @return the sets in display order
+	 * @throws FileNotFoundException if the sets could not be read
+	 */
+	default ArrayList<StudySet> loadSets() throws FileNotFoundException {
+		return loadSets(batch -> { });
+	}
+
+
+	/**
+	 * Checks if the last loadSets() read every set in storage, ie. none were skipped as missing or corrupt
+	 * @return true if every set was read
+	 */
+	default boolean loadedEverySet() {
+		return true;
+	}
+
+
+	/**
+	 * Loads the sets accessed since a date, without loading the others where the backend can
+	 * @param since the earliest access date to include
+	 * @return the sets in display order
+	 * @throws FileNotFoundException if the sets could not be read
+	 */
+	ArrayList<StudySet> loadSetsAccessedSince(Date since) throws FileNotFoundException;
+
+
+	/**
+	 * Saves a new set and its flashcards
+	 * @param set the new set, already added to sets
+	 * @param sets every set in display order
+	 * @throws FileNotFoundException if the set could not be saved
+	 */
+	void insertSet(StudySet set, List<StudySet> sets) throws FileNotFoundException;
+
+
+	/**
+	 * Saves a set's title, description and flashcards
+	 * @param set the edited set
+	 * @throws FileNotFoundException if the set could not be saved
+	 */
+	void updateSet(StudySet set) throws FileNotFoundException;
+
+
+	/**
+	 * Saves a set's access date
+	 * @param set the set that was opened
+	 * @throws FileNotFoundException if the date could not be saved
+	 */
+	void updateSetDateAccessed(StudySet set) throws FileNotFoundException;
+
+
+	/**
+	 * Deletes a set and its flashcards
+	 * @param set the deleted set, already removed from sets
+	 * @param sets every set left, in display order
+	 * @throws FileNotFoundException if the set could not be deleted
+	 */
+	void deleteSet(StudySet set, List<StudySet> sets) throws FileNotFoundException;
+
+
+	/**
+	 * Saves every set again, eg. to repair storage from what is in memory
+	 * @param sets every set in display order
+	 * @throws FileNotFoundException if the sets could not be saved
+	 */
+	void rewriteSets(List<StudySet> sets) throws FileNotFoundException;
+
+
+	/* FLASHCARD METHODS */
+
+
+	/**
+	 * Saves a flashcard added to the end of a set
+	 * @param set the set the flashcard was added to
+	 * @param flashcard the new flashcard
+	 * @throws FileNotFoundException if the flashcard could not be saved
+	 */
+	void insertFlashcard(StudySet set, Flashcard flashcard) throws FileNotFoundException;
+
+
+	/**
+	 * Saves a flashcard's term, definition and priority
+	 * @param set the set the flashcard belongs to
+	 * @param flashcard the edited flashcard
+	 * @throws FileNotFoundException if the flashcard could not be saved
+	 */
+	void updateFlashcard(StudySet set, Flashcard flashcard) throws FileNotFoundException;
+
+
+	/**
+	 * Deletes a flashcard
+	 * @param set the set the flashcard was removed from
+	 * @param flashcard the removed flashcard
+	 * @throws FileNotFoundException if the flashcard could not be deleted
+	 */
+	void deleteFlashcard(StudySet set, Flashcard flashcard) throws FileNotFoundException;
+
+
+	/* NOTE METHODS */
+
+
+	/**
+	 * Loads every note, passing them on in batches as they are read
+	 * @param loaded called with each batch of notes in display order, on the loading thread
+	 * @return the notes in display order
+	 * @throws FileNotFoundException if the notes could not be read
+	 */
+	ArrayList<Note> loadNotes(Consumer<List<Note>> loaded) throws FileNotFoundException;
+
+
+	/**
+	 * Loads every note
+	 * @return the notes in display order
+	 * @throws FileNotFoundException if the notes could not be read
+	 */
+	default ArrayList<Note> loadNotes() throws FileNotFoundException {
+		return loadNotes(batch -> { });
+	}
+
+
+	/**
+	 * Saves a new note
+	 * @param note the new note, already added to notes
+	 * @param notes every note in display order
+	 * @throws FileNotFoundException if the note could not be saved
+	 */
+	void insertNote(Note note, List<Note> notes) throws FileNotFoundException;
+
+
+	/**
+	 * Saves a note's title, description and text
+	 * @param note the edited note
+	 * @param notes every note in display order
+	 * @throws FileNotFoundException if the note could not be saved
+	 */
+	void updateNote(Note note, List<Note> notes) throws FileNotFoundException;
+
+
+	/**
+	 * Saves a note's access date
+	 * @param note the note that was opened
+	 * @param notes every note in display order
+	 * @throws FileNotFoundException if the date could not be saved
+	 */
+	void updateNoteDateAccessed(Note note, List<Note> notes) throws FileNotFoundException;
+
+
+	/**
+	 * Deletes a note
+	 * @param note the deleted note, already removed from notes
+	 * @param notes every note left, in display order
+	 * @throws FileNotFoundException if the note could not be deleted
+	 */
+	void deleteNote(Note note, List<Note> notes) throws FileNotFoundException;
+
+
+	/**
+	 * Saves every note again straight away
+	 * @param notes every note in display order
+	 * @throws FileNotFoundException if the notes could not be saved
+	 */
+	void rewriteNotes(List<Note> notes) throws FileNotFoundException;
+
+
+	/* EXTERNAL CHANGE METHODS */
+
+
+	/**
+	 * Reads the sets another program changed in storage, eg. a sync tool, without reading the
+	 * others. Backends that cannot tell what changed find no changes.
+	 * @param sets every set in memory, in display order
+	 * @param keys the keys of the sets that may have changed, or null to check every set
+	 * @return the sets added, removed or changed, for the caller to apply
+	 * @throws FileNotFoundException if the sets could not be read
+	 */
+	default ExternalChanges<StudySet> reloadSets(List<StudySet> sets, Collection<Long> keys) throws FileNotFoundException {
+		return new ExternalChanges<>();
+	}
+
+
+	/**
+	 * Reads the notes another program changed in storage, like reloadSets()
+	 * @param notes every note in memory, in display order
+	 * @return the notes added, removed or changed, for the caller to apply
+	 * @throws FileNotFoundException if the notes could not be read
+	 */
+	default ExternalChanges<Note> reloadNotes(List<Note> notes) throws FileNotFoundException {
+		return new ExternalChanges<>();
+	}
+
+
+	/* STORAGE METHODS */
+
+
+	/**
+	 * Gets a stamp that changes whenever the saved sets change, so data worked out from the sets,
+	 * eg. the search index, can be saved and trusted on the next start while the stamp matches
+	 * @return the stamp, or 0 if the backend cannot tell when the sets change
+	 */
+	long setsStamp();
+
+
+	/**
+	 * Gets a stamp that changes whenever the saved notes change, like setsStamp()
+	 * @return the stamp, or 0 if the backend cannot tell when the notes change
+	 */
+	long notesStamp();
+
+
+	/**
+	 * Waits until every change is saved, eg. before the application closes
+	 */
+	void flush();
+}
@@ -0,0 +1,130 @@
+/**
+ * @author Michelle Nguyen
+ * @version 2026-10-17
+ */
+
+
+/* IMPORT STATEMENTS */
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.collections.transformation.SortedList;
+import javafx.scene.control.TableView;
+
+
+/**
+ * The rows of a home table, either every set or note kept up to date change by change, or a
+ * fixed list such as search results.
+ *
+ * While bound, each change Database makes, eg. adding or deleting one set, makes one change to
+ * the rows at the same place, so a table of every set only redraws the rows that changed. Changes
+ * are passed to the application thread in the order they were made. Each carries the version of
+ * the snapshot it made, so a change already in the snapshot the rows were filled from is skipped.
+ *
+ * The rows outlive the tables that show them, so going back to a home page shows the rows as they
+ * are instead of filling a new table.
+ * @param <T> the type of row
+ */
+public class StoreBinding<T> implements SnapshotStore.Listener<T> {
+	/* VARIABLES */
+	private final Supplier<SnapshotStore.Snapshot<T>> snapshot;
+	private final Executor applicationThread;
+	private final ObservableList<T> rows = FXCollections.observableArrayList();
+	// Only used on the application thread
+	private boolean bound;
+	private long version;	// Version of the last snapshot or change in the rows
+
+
+	/**
+	 * Creates the rows, which must also be added as a listener of the store, eg. with Database.addSetListener()
+	 * @param snapshot gets the current snapshot of the store, eg. Database::getSetSnapshot
+	 * @param applicationThread runs changes on the application thread, eg. Platform::runLater
+	 */
+	public StoreBinding(Supplier<SnapshotStore.Snapshot<T>> snapshot, Executor applicationThread) {
+		this.snapshot = snapshot;
+		this.applicationThread = applicationThread;
+	}
+
+
+	/* GET METHODS */
+	public ObservableList<T> getRows() { return rows; }
+	public boolean isBound() { return bound; }
+
+
+	/**
+	 * Shows the rows in a table, sorted by the table's sort columns if it has any
+	 * @param table the table
+	 */
+	public void showIn(TableView<T> table) {
+		SortedList<T> sorted = new SortedList<>(rows);
+		sorted.comparatorProperty().bind(table.comparatorProperty());
+		table.setItems(sorted);
+	}
+
+
+	/* SHOWING */
+
+
+	/**
+	 * Shows every item of the store, and follows its changes from now on
+	 */
+	public void bind() {
+		if (bound) { return; }
+		SnapshotStore.Snapshot<T> current = snapshot.get();
+		rows.setAll(current.getItems());
+		version = current.getVersion();
+		bound = true;
+	}
+
+
+	/**
+	 * Shows a fixed list of items, eg. search results, and stops following the store
+	 * @param items the items
+	 */
+	public void show(List<T> items) {
+		bound = false;
+		rows.setAll(items);
+	}
+
+
+	/**
+	 * Passes a change to the application thread, called by the store
+	 */
+	@Override
+	public void changed(SnapshotStore.Change<T> change) {
+		applicationThread.execute(() -> apply(change));
+	}
+
+
+	/**
+	 * Makes a change to the rows as one change event, if they are following the store
+	 * @param change the change
+	 */
+	private void apply(SnapshotStore.Change<T> change) {
+		if (!bound || change.getVersion() <= version) { return; }
+		version = change.getVersion();
+
+		int from = change.getFrom();
+		List<T> removed = change.getRemoved();
+		List<T> added = change.getAdded();
+		if (removed.size() == rows.size()) {
+			rows.setAll(added);
+		}
+		else if (removed.size() == 1 && added.size() == 1) {
+			rows.set(from, added.get(0));
+		}
+		else if (added.isEmpty()) {
+			rows.remove(from, from + removed.size());
+		}
+		else if (removed.isEmpty()) {
+			rows.addAll(from, added);
+		}
+		else {
+			rows.subList(from, from + removed.size()).clear();
+			rows.addAll(from, added);
+		}
+	}
+}
@@ -0,0 +1,184 @@
+/**
+ * @author Michelle Nguyen
+ * @version 2026-10-17
+ */
+
+
+/* IMPORT STATEMENTS */
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.function.IntToDoubleFunction;
+
+
+/**
+ * The order flashcards are studied in, for any number of priority levels.
+ *
+ * Flashcards are referred to by their position in the list they came from, so ordering them moves
+ * ints rather than Flashcard objects. The positions are grouped by priority, lowest number first,
+ * and shuffle() shuffles each group in place, so starting a session again creates no new lists.
+ *
+ * draw() picks flashcards at random instead, with higher priorities picked more often. Each
+ * priority level gets a weight for each of its flashcards, and a level is picked with Walker's
+ * alias method: one random column of a table and one random number say which level, however many
+ * levels there are. A flashcard is then picked from that level's group, so each draw takes the same
+ * time whatever the size of the set.
+ */
+public class StudyOrder {
+	/* VARIABLES */
+	// Weight of each flashcard at a priority level, so priority 1 is picked twice as often as 2
+	public static final IntToDoubleFunction DEFAULT_WEIGHT = priority -> 1.0 / Math.max(1, priority);
+
+	private final List<Flashcard> flashcards;
+	private final int[] order;	// Positions of the flashcards, grouped by priority
+	private final int[] levels;	// Each different priority, in ascending order
+	private final int[] levelStarts;	// Where each level's group starts in order, with the end last
+	private final double[] threshold;	// Alias table: the chance a column picks its own level
+	private final int[] alias;	// Alias table: the level a column picks otherwise
+	private final Random random;
+
+
+	/**
+	 * @param flashcards the flashcards, which must not change while they are being studied
+	 */
+	public StudyOrder(List<Flashcard> flashcards) {
+		this(flashcards, DEFAULT_WEIGHT, new Random());
+	}
+
+
+	/**
+	 * @param flashcards the flashcards, which must not change while they are being studied
+	 * @param weight the weight of one flashcard at each priority level, more than 0
+	 * @param random the source of random numbers
+	 */
+	public StudyOrder(List<Flashcard> flashcards, IntToDoubleFunction weight, Random random) {
+		this.flashcards = flashcards;
+		this.random = random;
+		int size = flashcards.size();
+
+		// Find the different priorities
+		int[] priorities = new int[size];
+		for (int i = 0; i < size; i++) {
+			priorities[i] = flashcards.get(i).getPriority();
+		}
+		int[] sorted = priorities.clone();
+		Arrays.sort(sorted);
+		int count = 0;
+		for (int i = 0; i < size; i++) {
+			if (i == 0 || sorted[i] != sorted[i - 1]) { sorted[count++] = sorted[i]; }
+		}
+		levels = Arrays.copyOf(sorted, count);
+
+		// Group the positions by level, keeping their order within each level
+		levelStarts = new int[count + 1];
+		for (int priority : priorities) {
+			levelStarts[Arrays.binarySearch(levels, priority) + 1]++;
+		}
+		for (int level = 0; level < count; level++) {
+			levelStarts[level + 1] += levelStarts[level];
+		}
+		order = new int[size];
+		int[] next = Arrays.copyOf(levelStarts, count);
+		for (int i = 0; i < size; i++) {
+			order[next[Arrays.binarySearch(levels, priorities[i])]++] = i;
+		}
+
+		threshold = new double[count];
+		alias = new int[count];
+		buildAliasTable(weight);
+	}
+
+
+	/* GET METHODS */
+	public int size() { return order.length; }
+
+
+	/**
+	 * Gets the flashcard at a place in the study order
+	 * @param i the place, from 0 to size() - 1
+	 * @return the flashcard
+	 */
+	public Flashcard get(int i) {
+		return flashcards.get(order[i]);
+	}
+
+
+	/* ORDERING */
+
+
+	/**
+	 * Shuffles the flashcards within each priority level, keeping the levels in order
+	 */
+	public void shuffle() {
+		for (int level = 0; level < levels.length; level++) {
+			int start = levelStarts[level];
+			// Fisher-Yates over this level's group
+			for (int i = levelStarts[level + 1] - 1; i > start; i--) {
+				int j = start + random.nextInt(i - start + 1);
+				int swapped = order[i];
+				order[i] = order[j];
+				order[j] = swapped;
+			}
+		}
+	}
+
+
+	/**
+	 * Picks a flashcard at random, weighted by priority
+	 * @return the flashcard, or null if there are no flashcards
+	 */
+	public Flashcard draw() {
+		if (levels.length == 0) { return null; }
+
+		int column = random.nextInt(levels.length);
+		int level = random.nextDouble() < threshold[column] ? column : alias[column];
+		int start = levelStarts[level];
+		return flashcards.get(order[start + random.nextInt(levelStarts[level + 1] - start)]);
+	}
+
+
+	/**
+	 * Builds the alias table with Vose's method. Each column of the table holds the share of one
+	 * level that fits in it, topped up with a level that has more than its share.
+	 * @param weight the weight of one flashcard at each priority level
+	 */
+	private void buildAliasTable(IntToDoubleFunction weight) {
+		int count = levels.length;
+		double[] scaled = new double[count];
+		double total = 0;
+		for (int level = 0; level < count; level++) {
+			scaled[level] = weight.applyAsDouble(levels[level]) * (levelStarts[level + 1] - levelStarts[level]);
+			total += scaled[level];
+		}
+
+		// Levels with less than an average share go on one stack, the rest on the other
+		int[] small = new int[count];
+		int[] large = new int[count];
+		int smallCount = 0;
+		int largeCount = 0;
+		for (int level = 0; level < count; level++) {
+			scaled[level] = scaled[level] * count / total;
+			if (scaled[level] < 1) { small[smallCount++] = level; }
+			else { large[largeCount++] = level; }
+		}
+
+		// Fill each small level's column from a large level
+		while (smallCount > 0 && largeCount > 0) {
+			int less = small[--smallCount];
+			int more = large[--largeCount];
+			threshold[less] = scaled[less];
+			alias[less] = more;
+			scaled[more] -= 1 - scaled[less];
+			if (scaled[more] < 1) { small[smallCount++] = more; }
+			else { large[largeCount++] = more; }
+		}
+
+		// Whatever is left fills its own column, give or take rounding
+		while (largeCount > 0) {
+			threshold[large[--largeCount]] = 1;
+		}
+		while (smallCount > 0) {
+			threshold[small[--smallCount]] = 1;
+		}
+	}
+}
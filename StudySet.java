@@ -1,220 +1,302 @@
-/**
- * @author Umaima Aslam
- * @version 2025-04-08
- */
-
-
-/* IMPORT CLASSES */
-import java.util.ArrayList;
-import java.util.Date;
-import java.util.Collections;
-
-
-public class StudySet {
-	private String title;
-	private String description;
-	private ArrayList<Flashcard> flashcards;
-	private static int setCount = 0;
-	private int id;
-	private Date dateCreated;
-	private Date dateAccessed;
-
-	// CONSTRUCTORS ---
-
-	// constructor 1: create a study set
-	// uses passed in values to initialize class variables
-	public StudySet(String title, String description, ArrayList<Flashcard> flashcards) {
-		// id is initialized to setCount
-		// setCount is incremented
-		id = setCount;
-		setCount++;
-
-		// initialize the title, description, and flashcards variables
-		this.title = title;
-		this.description = description;
-		this.flashcards = flashcards;
-
-		// "new Date() creates a Date object that represents 
-		// the current date and time at the moment of instantiation" 
-		this.dateCreated = new Date();  
-		this.dateAccessed = new Date();  
-	}
-
-	// constructor 2: has the ability to initialize dateCreated and dateAccessed variables
-	public StudySet(String title, String description, ArrayList<Flashcard> flashcards, Date dateCreated, Date dateAccessed) {
-		// id is initialized to setCount
-		// setCount is incremented 
-		id = setCount;
-		setCount++;
-
-		// initialize the title, description, flashcards, dateCreated, and dateAccessed variables
-		this.title = title;
-		this.description = description;
-		this.flashcards = flashcards;
-		this.dateCreated = dateCreated;
-		this.dateAccessed = dateAccessed;
-	}
-
-	// GET METHODS ---
-
-	// returns title
-	public String getTitle() {
-		return title;
-	}
-
-	// returns description
-	public String getDescription() {
-		return description;
-	}
-
-	// returns the flashcards arraylist
-	public ArrayList<Flashcard> getFlashcards() {
-		return flashcards;
-	}
-
-	// returns a flashcard in the flashcards arraylist from the given flashcard id
-	public Flashcard getFlashcard(int id) {
-		// loop through the flashcards in the arraylist
-		// if a flashcard has an id that matches the passed in id, return it
-		// otherwise return null
-		for (int i = 0; i < flashcards.size(); i++) {
-			if ((flashcards.get(i)).getId() == id ) {
-				return flashcards.get(i);
-			}
-		}
-
-		return null;
-	}
-
-	// returns the size of the flashcards arraylist (# of flashcards in the studyset)
-	public int getSize() {
-		return (flashcards.size());
-	}
-
-	// returns id
-	public int getId() {
-		return id;
-	}
-
-	// returns dateCreated
-	public Date getDateCreated() {
-		return dateCreated;
-	}
-
-	// returns dateAccessed
-	public Date getDateAccessed() {
-		return dateAccessed;
-	}
-
-	// UPDATE METHODS --- 
-
-	// updates title 
-	public void updateTitle(String title) {
-		this.title = title;
-		// call updateDateAccessed
-		//updateDateAccessed();
-	}
-
-	// updates Description 
-	public void updateDescription(String description) {
-		this.description = description; 
-		// call updateDateAccessed
-		//updateDateAccessed();
-	}
-
-	// adds a flashcard to the flashcards arraylist 
-	public void addFlashcard(Flashcard flashcard) {
-		// add passed in flashcard to flashcards arraylist;
-		flashcards.add(flashcard);
-		// call updateDateAccessed
-		//updateDateAccessed();
-	}
-
-	// removes a flashcard from the flashcards arraylist
-	public void removeFlashcard(Flashcard flashcard) {
-		for (int i = 0; i < flashcards.size(); i++) {
-			if ((flashcards.get(i)).getId() == flashcard.getId()) {
-				flashcards.remove(i);
-				// call updateDateAccessed
-				//updateDateAccessed();
-
-			}
-		}
-
-	}
-
-	// updates term, definition, or priority of a passed in flashcard
-	// only updates variables that are provided (user may not want to update all 3 variables)
-	public void updateFlashcard(Flashcard flashcard, String term, String definition, int priority) {
-		// if a term is provided (no null/empty string) update it
-		if (term != null && !term.isEmpty()) {
-			flashcard.updateTerm(term);
-		}
-		// if a definition is provided (no null/empty string) update it
-		if (definition != null && !definition.isEmpty()) {
-			flashcard.updateDefinition(definition);
-		}
-		// [?] we can assign -1 or some other invalid priority value to indicate that the 
-		// user doesn't want to change the priority 
-		// if a priority is provided, update it
-		if (priority != -1){
-			flashcard.updatePriority(priority);
-		}
-
-		// call updateDateAccessed
-		//updateDateAccessed();
-
-	}
-
-	// updates dateAccessed
-	public void updateDateAccessed(){
-		this.dateAccessed = new Date();
-	}
-
-	// METHODS ---
-
-	// generates a random re-ordering of the flashcards arraylist ("shuffles" the cards)
-	// preserves priority of the cards (shuffles within each priority)
-	public ArrayList<Flashcard> shuffleFlashcards(){
-		// create an array list to store each priority of flashcard (priority 1, 2, and 3)
-		ArrayList<Flashcard> P1Cards = new ArrayList<>();
-		ArrayList<Flashcard> P2Cards = new ArrayList<>();
-		ArrayList<Flashcard> P3Cards = new ArrayList<>();
-
-		// go through the flashcards arraylist and add flashcards into 
-		// the appropriate priority arraylist
-		for (int i = 0; i < flashcards.size(); i++) {
-			Flashcard curr = flashcards.get(i);
-			int currPriority = curr.getPriority();
-			if (currPriority == 1){
-				P1Cards.add(curr);
-			} else if (currPriority == 2) {
-				P2Cards.add(curr);
-			} else {
-				P3Cards.add(curr);
-			}
-		}
-
-		// use Collections.shuffle to generate a random order for each of the priority lists
-		// (Collections.shuffle sorts in place)
-		Collections.shuffle(P1Cards);
-		Collections.shuffle(P2Cards);
-		Collections.shuffle(P3Cards);
-
-		// Create a new arraylist to merge and hold each of the 3 shuffled priority lists 
-		ArrayList<Flashcard> shuffled = new ArrayList<>();
-		// use addAll to merge
-		shuffled.addAll(P1Cards);
-		shuffled.addAll(P2Cards);
-		shuffled.addAll(P3Cards);
-
-		return shuffled;
-	}
-
-	// OVERRIDE METHODS ---
-
-	public String toString() {
-		return String.format("ID:%d\nTitle: %s\nDescription:%s\nFlashcards:\n%s\n", id, title, description, flashcards.toString());
-	}
-
-}
+/**
+ * @author Umaima Aslam
+ * @version 2026-10-17
+ */
+
+
+/* IMPORT CLASSES */
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.function.Supplier;
+
+
+public class StudySet {
+	private String title;
+	private String description;
+	private ArrayList<Flashcard> flashcards;
+	private Supplier<ArrayList<Flashcard>> flashcardLoader;
+	// flashcards by id, built the first time a flashcard is looked up
+	private LongMap<Flashcard> flashcardsById;
+	private int size;
+	// 0 until the id is first needed, so sets read from storage do not use up new ids
+	private long id;
+	private long key = -1;
+	// dates are kept as epoch milliseconds, the same way they are stored
+	private long dateCreated;
+	private long dateAccessed;
+
+	// CONSTRUCTORS ---
+
+	// constructor 1: create a study set
+	// uses passed in values to initialize class variables
+	public StudySet(String title, String description, ArrayList<Flashcard> flashcards) {
+		// initialize the title, description, and flashcards variables
+		this.title = title;
+		this.description = description;
+		this.flashcards = flashcards;
+
+		// "new Date() creates a Date object that represents 
+		// the current date and time at the moment of instantiation" 
+		this.dateCreated = System.currentTimeMillis();  
+		this.dateAccessed = dateCreated;  
+	}
+
+	// constructor 2: has the ability to initialize dateCreated and dateAccessed variables
+	public StudySet(String title, String description, ArrayList<Flashcard> flashcards, Date dateCreated, Date dateAccessed) {
+		// initialize the title, description, flashcards, dateCreated, and dateAccessed variables
+		this.title = title;
+		this.description = description;
+		this.flashcards = flashcards;
+		this.dateCreated = dateCreated.getTime();
+		this.dateAccessed = dateAccessed.getTime();
+	}
+
+	// constructor 3: flashcards are only created the first time they are needed
+	// (used when loading the set shards, so startup does not create every flashcard)
+	public StudySet(String title, String description, int size, Supplier<ArrayList<Flashcard>> flashcardLoader, Date dateCreated, Date dateAccessed) {
+		// initialize the title, description, dateCreated, and dateAccessed variables
+		// size is kept so the number of flashcards is known without decoding them
+		this.title = title;
+		this.description = description;
+		this.size = size;
+		this.flashcardLoader = flashcardLoader;
+		this.dateCreated = dateCreated.getTime();
+		this.dateAccessed = dateAccessed.getTime();
+	}
+
+	// GET METHODS ---
+
+	// returns title
+	public String getTitle() {
+		return title;
+	}
+
+	// returns description
+	public String getDescription() {
+		return description;
+	}
+
+	// returns the flashcards, which cannot be changed through the returned list
+	// (add and remove flashcards through addFlashcard and removeFlashcard, so getFlashcard stays up to date)
+	public synchronized List<Flashcard> getFlashcards() {
+		return Collections.unmodifiableList(loadFlashcards());
+	}
+
+	// returns the flashcards arraylist, decoding the flashcards first if they have not been loaded yet
+	// synchronized by its callers, so the application thread and the database threads decode the flashcards only once
+	private ArrayList<Flashcard> loadFlashcards() {
+		if (flashcards == null) {
+			flashcards = flashcardLoader.get();
+			flashcardLoader = null;
+		}
+		return flashcards;
+	}
+
+	// returns the flashcards without keeping them decoded if they have not been loaded yet
+	// (used to read every set, eg. to build the search index, without holding every flashcard)
+	public synchronized List<Flashcard> readFlashcards() {
+		if (flashcards == null) {
+			return flashcardLoader.get();
+		}
+		return Collections.unmodifiableList(flashcards);
+	}
+
+	// returns true if the flashcards have been decoded
+	public synchronized boolean isLoaded() {
+		return flashcards != null;
+	}
+
+	// returns a flashcard in the flashcards arraylist from the given flashcard id
+	// otherwise returns null
+	public synchronized Flashcard getFlashcard(long id) {
+		return indexFlashcards().get(id);
+	}
+
+	// returns the flashcards by id, building the index if it has not been built
+	// (the arraylist is only changed by the methods below, which keep the index up to date)
+	private LongMap<Flashcard> indexFlashcards() {
+		ArrayList<Flashcard> flashcards = loadFlashcards();
+		if (flashcardsById == null) {
+			flashcardsById = new LongMap<>();
+			for (Flashcard flashcard : flashcards) {
+				flashcardsById.put(flashcard.getId(), flashcard);
+			}
+		}
+		return flashcardsById;
+	}
+
+	// returns the size of the flashcards arraylist (# of flashcards in the studyset)
+	public synchronized int getSize() {
+		if (flashcards == null) {
+			return size;
+		}
+		return (flashcards.size());
+	}
+
+	// returns id, handing out a new one from IdAllocator if the set does not have one yet
+	// (the id is saved with the set, so it stays the same between runs)
+	public synchronized long getId() {
+		if (id == 0) {
+			id = IdAllocator.nextId();
+		}
+		return id;
+	}
+
+	// returns the key of the set's file in storage, -1 if it has not been saved yet
+	public long getKey() {
+		return key;
+	}
+
+	// returns dateCreated
+	public Date getDateCreated() {
+		return new Date(dateCreated);
+	}
+
+	// returns dateAccessed
+	public Date getDateAccessed() {
+		return new Date(dateAccessed);
+	}
+
+	// returns dateCreated in epoch milliseconds
+	public long getDateCreatedMillis() {
+		return dateCreated;
+	}
+
+	// returns dateAccessed in epoch milliseconds
+	public long getDateAccessedMillis() {
+		return dateAccessed;
+	}
+
+	// UPDATE METHODS --- 
+
+	// updates id, set by storage when the set is loaded
+	public synchronized void updateId(long id) {
+		this.id = id;
+		IdAllocator.observe(id);
+	}
+
+	// updates key, set by storage when the set is first saved
+	public void updateKey(long key) {
+		this.key = key;
+	}
+
+	// updates title 
+	public void updateTitle(String title) {
+		this.title = title;
+		// call updateDateAccessed
+		//updateDateAccessed();
+	}
+
+	// updates Description 
+	public void updateDescription(String description) {
+		this.description = description; 
+		// call updateDateAccessed
+		//updateDateAccessed();
+	}
+
+	// adds a flashcard to the flashcards arraylist 
+	public synchronized void addFlashcard(Flashcard flashcard) {
+		// add passed in flashcard to flashcards arraylist and the index
+		LongMap<Flashcard> flashcardsById = indexFlashcards();
+		loadFlashcards().add(flashcard);
+		flashcardsById.put(flashcard.getId(), flashcard);
+		// call updateDateAccessed
+		//updateDateAccessed();
+	}
+
+	// removes a flashcard from the flashcards arraylist
+	// ids are unique, so this stops at the first flashcard with the same id
+	public synchronized void removeFlashcard(Flashcard flashcard) {
+		LongMap<Flashcard> flashcardsById = indexFlashcards();
+		if (flashcardsById.remove(flashcard.getId()) == null) {
+			return;
+		}
+		ArrayList<Flashcard> flashcards = loadFlashcards();
+		for (int i = 0; i < flashcards.size(); i++) {
+			if ((flashcards.get(i)).getId() == flashcard.getId()) {
+				flashcards.remove(i);
+				// call updateDateAccessed
+				//updateDateAccessed();
+				return;
+			}
+		}
+	}
+
+	// removes many flashcards at once, in one pass over the flashcards arraylist
+	// (removing them one at a time would move the rest of the arraylist once per flashcard)
+	public synchronized void removeFlashcards(Collection<Flashcard> removed) {
+		LongMap<Flashcard> flashcardsById = indexFlashcards();
+		LongMap<Flashcard> removedById = new LongMap<>();
+		for (Flashcard flashcard : removed) {
+			removedById.put(flashcard.getId(), flashcard);
+			flashcardsById.remove(flashcard.getId());
+		}
+		loadFlashcards().removeIf(flashcard -> removedById.containsKey(flashcard.getId()));
+	}
+
+	// replaces every flashcard in the set (used when replaying the database journal)
+	public synchronized void updateFlashcards(ArrayList<Flashcard> flashcards) {
+		this.flashcards = flashcards;
+		this.flashcardLoader = null;
+		this.flashcardsById = null;
+	}
+
+	// updates term, definition, or priority of a passed in flashcard
+	// only updates variables that are provided (user may not want to update all 3 variables)
+	public void updateFlashcard(Flashcard flashcard, String term, String definition, int priority) {
+		// if a term is provided (no null/empty string) update it
+		if (term != null && !term.isEmpty()) {
+			flashcard.updateTerm(term);
+		}
+		// if a definition is provided (no null/empty string) update it
+		if (definition != null && !definition.isEmpty()) {
+			flashcard.updateDefinition(definition);
+		}
+		// [?] we can assign -1 or some other invalid priority value to indicate that the 
+		// user doesn't want to change the priority 
+		// if a priority is provided, update it
+		if (priority != -1){
+			flashcard.updatePriority(priority);
+		}
+
+		// call updateDateAccessed
+		//updateDateAccessed();
+
+	}
+
+	// updates dateAccessed
+	public void updateDateAccessed(){
+		this.dateAccessed = System.currentTimeMillis();
+	}
+
+	// updates dateAccessed to a given date (used when replaying the database journal)
+	public void updateDateAccessed(Date dateAccessed){
+		this.dateAccessed = dateAccessed.getTime();
+	}
+
+	// METHODS ---
+
+	// generates a random re-ordering of the flashcards arraylist ("shuffles" the cards)
+	// preserves priority of the cards (shuffles within each priority, for any number of priorities)
+	// (StudyOrder can be used directly to reshuffle without creating a new arraylist each time)
+	public ArrayList<Flashcard> shuffleFlashcards(){
+		StudyOrder order = new StudyOrder(getFlashcards());
+		order.shuffle();
+
+		ArrayList<Flashcard> shuffled = new ArrayList<>(order.size());
+		for (int i = 0; i < order.size(); i++) {
+			shuffled.add(order.get(i));
+		}
+		return shuffled;
+	}
+
+	// OVERRIDE METHODS ---
+
+	public String toString() {
+		return String.format("ID:%d\nTitle: %s\nDescription:%s\nFlashcards:\n%s\n", getId(), title, description, getFlashcards().toString());
+	}
+
+}
@@ -0,0 +1,346 @@
+/**
+ * @author Michelle Nguyen
+ * @version 2026-10-17
+ */
+
+
+/* IMPORT STATEMENTS */
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+
+
+/**
+ * Completes flashcard terms from the terms already used in other sets.
+ *
+ * Terms are kept in a radix tree keyed by their lowercase letters: each edge holds the run of
+ * letters up to the next place two terms differ, so there is about one node per term however long
+ * the terms are. Each node caches the most used terms below it, so completing a prefix only walks
+ * the edges it covers and reads the cache where it ends. When a term is added or removed the caches
+ * along its path are marked out of date and worked out again the next time they are asked for;
+ * after loading every term at once, one call to complete("", ...) works out every cache in one pass.
+ *
+ * Terms are added and removed by owner, eg. a set, so an owner's terms can be replaced with its
+ * new ones after an edit without knowing which of its flashcards changed.
+ * @param <T> the type of owner
+ */
+public class TermTrie<T> {
+	/* VARIABLES */
+	private static final int CACHED = 10;	// Most completions cached at each node
+	private static final int MAX_TERM_LENGTH = 200;	// Longer terms are not offered as completions
+	private static final char[] NO_LETTERS = new char[0];
+	private static final Node[] NO_CHILDREN = new Node[0];
+	private static final String[] NO_TERMS = new String[0];
+	private static final int[] NO_COUNTS = new int[0];
+
+	private final Node root = new Node("");
+	private final HashMap<T, String[]> ownerTerms = new HashMap<>();
+
+
+	/**
+	 * The end of an edge, with the edges that lead on from it
+	 */
+	private static class Node {
+		String label;	// Lowercase letters on the edge into this node
+		char[] letters = NO_LETTERS;	// First letter of each child's label, sorted for binary search
+		Node[] children = NO_CHILDREN;
+		String term;	// The term ending here as it was last typed, or null
+		int count;	// Number of flashcards with the term ending here
+		String[] best = NO_TERMS;	// Most used terms at or below this node
+		int[] bestCounts = NO_COUNTS;
+		boolean stale = true;	// best has to be worked out again
+
+
+		Node(String label) {
+			this.label = label;
+		}
+
+
+		/**
+		 * Finds the child whose label starts with a letter
+		 * @param letter the letter
+		 * @return the child, or null if there is none
+		 */
+		Node child(char letter) {
+			int i = Arrays.binarySearch(letters, letter);
+			return i >= 0 ? children[i] : null;
+		}
+
+
+		/**
+		 * Adds a child, or replaces the child whose label starts with the same letter
+		 * @param child the child
+		 */
+		void putChild(Node child) {
+			char letter = child.label.charAt(0);
+			int i = Arrays.binarySearch(letters, letter);
+			if (i >= 0) {
+				children[i] = child;
+				return;
+			}
+
+			i = -i - 1;
+			char[] newLetters = new char[letters.length + 1];
+			Node[] newChildren = new Node[children.length + 1];
+			System.arraycopy(letters, 0, newLetters, 0, i);
+			System.arraycopy(children, 0, newChildren, 0, i);
+			newLetters[i] = letter;
+			newChildren[i] = child;
+			System.arraycopy(letters, i, newLetters, i + 1, letters.length - i);
+			System.arraycopy(children, i, newChildren, i + 1, children.length - i);
+			letters = newLetters;
+			children = newChildren;
+		}
+
+
+		/**
+		 * Removes the child whose label starts with a letter
+		 * @param letter the letter
+		 */
+		void removeChild(char letter) {
+			int i = Arrays.binarySearch(letters, letter);
+			if (i < 0) { return; }
+
+			char[] newLetters = new char[letters.length - 1];
+			Node[] newChildren = new Node[children.length - 1];
+			System.arraycopy(letters, 0, newLetters, 0, i);
+			System.arraycopy(children, 0, newChildren, 0, i);
+			System.arraycopy(letters, i + 1, newLetters, i, letters.length - i - 1);
+			System.arraycopy(children, i + 1, newChildren, i, children.length - i - 1);
+			letters = newLetters;
+			children = newChildren;
+		}
+
+
+		/**
+		 * Joins this node with its only child, once no term ends here
+		 */
+		void mergeWithChild() {
+			Node child = children[0];
+			label = label + child.label;
+			letters = child.letters;
+			children = child.children;
+			term = child.term;
+			count = child.count;
+			stale = true;
+		}
+	}
+
+
+	/* UPDATING */
+
+
+	/**
+	 * Sets the terms of an owner, replacing the ones it had before
+	 * @param owner the owner, eg. a set
+	 * @param terms the terms, one for each flashcard
+	 */
+	public synchronized void put(T owner, List<String> terms) {
+		remove(owner);
+
+		ArrayList<String> kept = new ArrayList<>();
+		for (String term : terms) {
+			String trimmed = term.strip();
+			if (!trimmed.isEmpty() && trimmed.length() <= MAX_TERM_LENGTH) {
+				add(trimmed);
+				kept.add(trimmed);
+			}
+		}
+		ownerTerms.put(owner, kept.toArray(new String[0]));
+	}
+
+
+	/**
+	 * Removes the terms of an owner
+	 * @param owner the owner
+	 */
+	public synchronized void remove(T owner) {
+		String[] terms = ownerTerms.remove(owner);
+		if (terms == null) { return; }
+
+		for (String term : terms) {
+			subtract(term);
+		}
+	}
+
+
+	/**
+	 * Counts one more flashcard with a term, splitting an edge where the term leaves it
+	 * @param term the term
+	 */
+	private void add(String term) {
+		String key = term.toLowerCase();
+		Node node = root;
+		node.stale = true;
+		int i = 0;
+		while (i < key.length()) {
+			Node child = node.child(key.charAt(i));
+			if (child == null) {
+				child = new Node(key.substring(i));
+				node.putChild(child);
+				node = child;
+				break;
+			}
+
+			int common = commonLength(child.label, key, i);
+			if (common < child.label.length()) {
+				// Split the edge where the term leaves it
+				Node split = new Node(child.label.substring(0, common));
+				child.label = child.label.substring(common);
+				split.putChild(child);
+				node.putChild(split);
+				child = split;
+			}
+			node = child;
+			node.stale = true;
+			i += common;
+		}
+
+		node.count++;
+		node.term = term;
+	}
+
+
+	/**
+	 * Counts one less flashcard with a term, removing and joining nodes it no longer needs
+	 * @param term the term
+	 */
+	private void subtract(String term) {
+		String key = term.toLowerCase();
+		ArrayList<Node> path = new ArrayList<>();
+		path.add(root);
+		Node node = root;
+		int i = 0;
+		while (i < key.length()) {
+			node = node.child(key.charAt(i));
+			if (node == null || !key.startsWith(node.label, i)) { return; }
+			path.add(node);
+			i += node.label.length();
+		}
+		if (node.count == 0) { return; }
+
+		for (Node n : path) {
+			n.stale = true;
+		}
+		node.count--;
+		if (node.count > 0) { return; }
+		node.term = null;
+
+		// Remove the node if nothing is below it, then join what is left where it no longer branches
+		int last = path.size() - 1;
+		if (last > 0 && node.children.length == 0) {
+			Node parent = path.get(last - 1);
+			parent.removeChild(node.label.charAt(0));
+			node = parent;
+			last--;
+		}
+		if (last > 0 && node.count == 0 && node.children.length == 1) {
+			node.mergeWithChild();
+		}
+	}
+
+
+	/**
+	 * Counts how many letters of a label match a key from a position
+	 * @param label the label
+	 * @param key the key
+	 * @param start the position in the key
+	 * @return the number of matching letters
+	 */
+	private static int commonLength(String label, String key, int start) {
+		int length = 0;
+		while (length < label.length() && start + length < key.length() && label.charAt(length) == key.charAt(start + length)) {
+			length++;
+		}
+		return length;
+	}
+
+
+	/* COMPLETING */
+
+
+	/**
+	 * Finds the most used terms starting with a prefix, ignoring case
+	 * @param prefix what has been typed so far
+	 * @param limit the most terms to return, up to 10
+	 * @return the terms, most used first
+	 */
+	public synchronized List<String> complete(String prefix, int limit) {
+		String key = prefix.toLowerCase();
+		ArrayList<String> completions = new ArrayList<>();
+		Node node = root;
+		int i = 0;
+		while (i < key.length()) {
+			node = node.child(key.charAt(i));
+			int common = node == null ? 0 : commonLength(node.label, key, i);
+			if (node == null || (common < node.label.length() && i + common < key.length())) {
+				return completions;	// No term starts with the prefix
+			}
+			i += common;	// Either the whole edge, or the rest of the prefix ends part way along it
+		}
+
+		String[] best = best(node);
+		for (int j = 0; j < best.length && j < limit; j++) {
+			completions.add(best[j]);
+		}
+		return completions;
+	}
+
+
+	/**
+	 * Gets the most used terms at or below a node, working them out from its children if needed
+	 * @param node the node
+	 * @return the terms, most used first
+	 */
+	private String[] best(Node node) {
+		if (!node.stale) { return node.best; }
+
+		// Keep the most used of the term ending here and the cached terms of each child, in
+		// alphabetical order when used equally
+		String[] best = new String[CACHED];
+		int[] bestCounts = new int[CACHED];
+		int size = 0;
+		if (node.count > 0) {
+			best[0] = node.term;
+			bestCounts[0] = node.count;
+			size = 1;
+		}
+		for (Node child : node.children) {
+			String[] childBest = best(child);
+			for (int i = 0; i < childBest.length; i++) {
+				size = insert(best, bestCounts, size, childBest[i], child.bestCounts[i]);
+			}
+		}
+
+		node.best = size == CACHED ? best : Arrays.copyOf(best, size);
+		node.bestCounts = size == CACHED ? bestCounts : Arrays.copyOf(bestCounts, size);
+		node.stale = false;
+		return node.best;
+	}
+
+
+	/**
+	 * Adds a term to a list of the most used terms if it is used more than the last one
+	 * @param best the terms, most used first
+	 * @param bestCounts how often each term is used
+	 * @param size how many terms are in the list
+	 * @param term the term to add
+	 * @param count how often the term is used
+	 * @return the new number of terms in the list
+	 */
+	private static int insert(String[] best, int[] bestCounts, int size, String term, int count) {
+		int i = size;
+		while (i > 0 && (bestCounts[i - 1] < count || (bestCounts[i - 1] == count && best[i - 1].compareToIgnoreCase(term) > 0))) {
+			i--;
+		}
+		if (i == best.length) { return size; }
+
+		int moved = Math.min(size, best.length - 1) - i;
+		System.arraycopy(best, i, best, i + 1, moved);
+		System.arraycopy(bestCounts, i, bestCounts, i + 1, moved);
+		best[i] = term;
+		bestCounts[i] = count;
+		return Math.min(size + 1, best.length);
+	}
+}
@@ -0,0 +1,147 @@
+/**
+ * @author Michelle Nguyen
+ * @version 2026-10-17
+ */
+
+
+/**
+ * Word, character and line counts of a note's text.
+ *
+ * Text is counted in one pass over its characters, without copying it or splitting it into words.
+ * A word is a run of letters or digits, so punctuation and spaces separate words and an empty
+ * text has no words. Characters are counted as code points, so an emoji or other character
+ * written with two chars counts once.
+ *
+ * After an edit, update() counts only the part of the text that changed: the text before the
+ * first difference and after the last one is the same in both versions, so its counts carry over.
+ * The changed part is widened to the nearest spaces or punctuation, so no word is cut in two.
+ */
+public class TextStats {
+	/* VARIABLES */
+	private static final int WORDS_PER_MINUTE = 200;	// Typical silent reading speed
+
+	private final int words;
+	private final long characters;
+	private final int lineBreaks;
+
+
+	private TextStats(int words, long characters, int lineBreaks) {
+		this.words = words;
+		this.characters = characters;
+		this.lineBreaks = lineBreaks;
+	}
+
+
+	/* GET METHODS */
+	public int getWords() { return words; }
+	public long getCharacters() { return characters; }
+
+
+	/**
+	 * Gets the number of lines, counting a last line with no line break after it
+	 * @return the number of lines, 0 if the text is empty
+	 */
+	public int getLines() {
+		return characters == 0 ? 0 : lineBreaks + 1;
+	}
+
+
+	/**
+	 * Estimates how long the text takes to read
+	 * @return the reading time in whole minutes, rounded up, 0 if the text has no words
+	 */
+	public int getReadingMinutes() {
+		return (words + WORDS_PER_MINUTE - 1) / WORDS_PER_MINUTE;
+	}
+
+
+	/* COUNTING */
+
+
+	/**
+	 * Counts a whole text
+	 * @param text the text
+	 * @return the counts
+	 */
+	public static TextStats count(CharSequence text) {
+		return count(text, 0, text.length());
+	}
+
+
+	/**
+	 * Counts the text after an edit, from the counts before it
+	 * @param oldText the text before the edit
+	 * @param newText the text after the edit
+	 * @return the counts of newText
+	 */
+	public TextStats update(CharSequence oldText, CharSequence newText) {
+		int oldLength = oldText.length();
+		int newLength = newText.length();
+
+		// Find where the texts start and stop being the same
+		int shorter = Math.min(oldLength, newLength);
+		int start = 0;
+		while (start < shorter && oldText.charAt(start) == newText.charAt(start)) {
+			start++;
+		}
+		if (start == oldLength && start == newLength) { return this; }
+		int same = 0;
+		while (same < shorter - start && oldText.charAt(oldLength - 1 - same) == newText.charAt(newLength - 1 - same)) {
+			same++;
+		}
+
+		// Widen the changed part to the nearest separators, which are the same in both texts
+		while (start > 0 && !isSeparator(oldText.charAt(start - 1))) {
+			start--;
+		}
+		while (same > 0 && !isSeparator(oldText.charAt(oldLength - same))) {
+			same--;
+		}
+
+		TextStats removed = count(oldText, start, oldLength - same);
+		TextStats added = count(newText, start, newLength - same);
+		return new TextStats(words - removed.words + added.words, characters - removed.characters + added.characters,
+				lineBreaks - removed.lineBreaks + added.lineBreaks);
+	}
+
+
+	/**
+	 * Counts part of a text
+	 * @param text the text
+	 * @param from the first char to count, at the start of the text or after a separator
+	 * @param to the char to stop before, at the end of the text or at a separator
+	 * @return the counts
+	 */
+	private static TextStats count(CharSequence text, int from, int to) {
+		int words = 0;
+		long characters = 0;
+		int lineBreaks = 0;
+		boolean inWord = false;
+		for (int i = from; i < to; i++) {
+			char c = text.charAt(i);
+			int codePoint = c;
+			if (Character.isHighSurrogate(c) && i + 1 < to && Character.isLowSurrogate(text.charAt(i + 1))) {
+				codePoint = Character.toCodePoint(c, text.charAt(i + 1));
+				i++;
+			}
+			characters++;
+			if (c == '\n') { lineBreaks++; }
+
+			boolean letterOrDigit = Character.isLetterOrDigit(codePoint);
+			if (letterOrDigit && !inWord) { words++; }
+			inWord = letterOrDigit;
+		}
+		return new TextStats(words, characters, lineBreaks);
+	}
+
+
+	/**
+	 * Checks if a char always ends a word and is never half of a character, so counts on either
+	 * side of it can be added together
+	 * @param c the char
+	 * @return true if the char is a separator
+	 */
+	private static boolean isSeparator(char c) {
+		return !Character.isSurrogate(c) && !Character.isLetterOrDigit(c);
+	}
+}